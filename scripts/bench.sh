@@ -0,0 +1,43 @@
+#!/bin/bash
+
+# JMH benchmarks (src/jmh/java), one JSON result file per commit
+# Usage: ./scripts/bench.sh [jmh args, e.g. "Jwt -f 1"]   -> benchmarks/<commit>.json
+#        ./scripts/bench.sh compare <old.json> <new.json>  -> score change per benchmark
+
+set -e
+
+if [ "$1" = "compare" ]; then
+    python3 - "$2" "$3" <<'PY'
+import json, sys
+
+def load(path):
+    with open(path) as f:
+        return {(r["benchmark"], json.dumps(r.get("params", {}), sort_keys=True)): r for r in json.load(f)}
+
+old, new = load(sys.argv[1]), load(sys.argv[2])
+print(f"{'benchmark':70} {'old':>12} {'new':>12} {'change':>8}")
+for key in sorted(old.keys() | new.keys()):
+    o, n = old.get(key), new.get(key)
+    name = key[0].rsplit(".", 2)[-2] + "." + key[0].rsplit(".", 1)[-1] + (" " + key[1] if key[1] != "{}" else "")
+    if not o or not n:
+        print(f"{name:70} {'-' if not o else o['primaryMetric']['score']:>12} {'-' if not n else n['primaryMetric']['score']:>12}")
+        continue
+    so, sn = o["primaryMetric"]["score"], n["primaryMetric"]["score"]
+    unit = n["primaryMetric"]["scoreUnit"]
+    # Throughput units (ops/...) improve upwards, time units downwards
+    better = (sn > so) if unit.startswith("ops") else (sn < so)
+    change = (sn - so) / so * 100 if so else 0.0
+    print(f"{name:70} {so:12.3f} {sn:12.3f} {change:+7.1f}% {'better' if better else 'worse' if abs(change) >= 5 else ''} {unit}")
+PY
+    exit 0
+fi
+
+if [ ! -f "pom.xml" ]; then
+    echo "❌ Please run this script from the project root directory"
+    exit 1
+fi
+
+COMMIT=$(git rev-parse --short HEAD)
+mkdir -p benchmarks
+./mvnw -q -Pbenchmarks -DskipTests verify -Djmh.result="$(pwd)/benchmarks/$COMMIT.json" -Djmh.args="$*"
+echo "✅ Results written to benchmarks/$COMMIT.json"
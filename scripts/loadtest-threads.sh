@@ -0,0 +1,32 @@
+#!/bin/bash
+
+# Same load against platform and virtual request threads, then p50/p99/error rate side by side
+# Usage: ./scripts/loadtest-threads.sh [load test args, e.g. "--users=2000 --rate=400"]
+#        -> target/loadtest-platform.json, target/loadtest-virtual.json
+
+set -e
+
+if [ ! -f "pom.xml" ]; then
+    echo "❌ Please run this script from the project root directory"
+    exit 1
+fi
+
+for THREADS in platform virtual; do
+    ./mvnw -q -Ploadtest -DskipTests verify \
+        -Dloadtest.args="$* --threads=$THREADS --report=target/loadtest-$THREADS.json"
+done
+
+python3 - target/loadtest-platform.json target/loadtest-virtual.json <<'PY'
+import json, sys
+
+def load(path):
+    with open(path) as f:
+        return {r["endpoint"]: r for r in json.load(f)["results"]}
+
+platform, virtual = load(sys.argv[1]), load(sys.argv[2])
+print(f"{'endpoint':28} {'p50 platform':>13} {'p50 virtual':>12} {'p99 platform':>13} {'p99 virtual':>12} {'errors platform':>16} {'errors virtual':>15}")
+for endpoint in sorted(platform.keys() | virtual.keys()):
+    p, v = platform.get(endpoint, {}), virtual.get(endpoint, {})
+    print(f"{endpoint:28} {p.get('p50Ms', 0):13.1f} {v.get('p50Ms', 0):12.1f} {p.get('p99Ms', 0):13.1f} {v.get('p99Ms', 0):12.1f}"
+          f" {p.get('errorRate', 0):16.2%} {v.get('errorRate', 0):15.2%}")
+PY
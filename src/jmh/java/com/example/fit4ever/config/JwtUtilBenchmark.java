@@ -0,0 +1,36 @@
+package com.example.fit4ever.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/** Token issue (login) and the validate + extract pair every authenticated request pays in JwtAuthFilter. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", "BenchmarkSecretKeyForFit4EverThatIsLongEnough123");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 3_600_000L);
+        token = jwtUtil.generateToken("bench@example.com");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken("bench@example.com");
+    }
+
+    @Benchmark
+    public String validateAndExtract() {
+        return jwtUtil.validateToken(token) ? jwtUtil.extractEmail(token) : null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.fit4ever.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The auth rate limiter with 8 threads at once: all from one address (one hot counter, mostly the
+ * rejection path) and spread over many addresses (cache inserts and lookups).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class RateLimitingFilterBenchmark {
+    private static final FilterChain PASS = (request, response) -> { };
+
+    private RateLimitingFilter filter;
+
+    @Setup
+    public void setUp() {
+        filter = new RateLimitingFilter(new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public int oneClient() throws Exception {
+        return call("203.0.113.7");
+    }
+
+    @Benchmark
+    public int manyClients() throws Exception {
+        int n = ThreadLocalRandom.current().nextInt(100_000);
+        return call("10." + (n >> 16) + "." + ((n >> 8) & 0xff) + "." + (n & 0xff));
+    }
+
+    private int call(String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, PASS);
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.fit4ever.dto;
+
+import com.example.fit4ever.dto.WorkoutDtos.ExerciseResponse;
+import com.example.fit4ever.dto.WorkoutDtos.WorkoutSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Writing a GET /api/workouts response body, with the ObjectMapper settings Spring MVC uses. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkoutSerializationBenchmark {
+
+    @Param({"10", "200"})
+    public int workouts;
+
+    private ObjectWriter writer;
+    private List<WorkoutSummary> body;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, WorkoutSummary.class));
+        body = new ArrayList<>(workouts);
+        for (int i = 0; i < workouts; i++) {
+            List<ExerciseResponse> exercises = new ArrayList<>();
+            for (int e = 0; e < 5; e++) {
+                exercises.add(ExerciseResponse.builder()
+                        .id((long) i * 5 + e + 1).name("Exercise " + e).setsCount(3).repsPerSet(8).weight(60.0 + e)
+                        .build());
+            }
+            body.add(WorkoutSummary.builder()
+                    .id((long) i + 1)
+                    .title("Workout " + i)
+                    .date(LocalDate.of(2025, 1, 1).plusDays(i))
+                    .version(0L)
+                    .exercises(exercises)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(body);
+    }
+}
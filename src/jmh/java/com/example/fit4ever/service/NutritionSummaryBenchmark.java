@@ -0,0 +1,59 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.dto.NutritionSummaryResponse;
+import com.example.fit4ever.model.FoodLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Summary aggregation (totals and per-day sums) over synthetic logs: a week to a year of entries. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NutritionSummaryBenchmark {
+    private static final String[] MEALS = {"BREAKFAST", "LUNCH", "DINNER", "SNACK"};
+
+    @Param({"7", "90", "365"})
+    public int days;
+
+    @Param({"6"})
+    public int logsPerDay;
+
+    private LocalDate from;
+    private LocalDate to;
+    private List<FoodLog> logs;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        to = LocalDate.of(2025, 6, 30);
+        from = to.minusDays(days - 1);
+        logs = new ArrayList<>(days * logsPerDay);
+        for (int d = 0; d < days; d++) {
+            for (int i = 0; i < logsPerDay; i++) {
+                logs.add(FoodLog.builder()
+                        .id((long) logs.size() + 1)
+                        .date(from.plusDays(d))
+                        .mealType(MEALS[i % MEALS.length])
+                        .itemName("Item " + i)
+                        .calories(100 + random.nextInt(700))
+                        .protein(random.nextDouble() * 50)
+                        .carbs(random.nextDouble() * 80)
+                        .fat(random.nextDouble() * 30)
+                        .build());
+            }
+        }
+    }
+
+    @Benchmark
+    public NutritionSummaryResponse summarize() {
+        return NutritionService.summarize(from, to, logs);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.dto.WorkoutDtos.WorkoutDetail;
+import com.example.fit4ever.model.Exercise;
+import com.example.fit4ever.model.Workout;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Entity-to-DTO mapping of a page of workouts, as the list and sync endpoints do it. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkoutMappingBenchmark {
+
+    @Param({"50"})
+    public int workouts;
+
+    @Param({"1", "8"})
+    public int exercisesPerWorkout;
+
+    private List<Workout> entities;
+
+    @Setup
+    public void setUp() {
+        entities = workouts(workouts, exercisesPerWorkout);
+    }
+
+    @Benchmark
+    public List<WorkoutDetail> toDetail() {
+        List<WorkoutDetail> result = new ArrayList<>(entities.size());
+        for (Workout w : entities) {
+            result.add(WorkoutService.toDetail(w));
+        }
+        return result;
+    }
+
+    static List<Workout> workouts(int count, int exercisesEach) {
+        List<Workout> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Workout w = Workout.builder()
+                    .id((long) i + 1)
+                    .title("Workout " + i)
+                    .notes(i % 3 == 0 ? "Felt strong" : null)
+                    .date(LocalDate.of(2025, 1, 1).plusDays(i))
+                    .version(0L)
+                    .build();
+            for (int e = 0; e < exercisesEach; e++) {
+                w.getExercises().add(Exercise.builder()
+                        .id((long) i * exercisesEach + e + 1)
+                        .workout(w)
+                        .name("Exercise " + e)
+                        .setsCount(3)
+                        .repsPerSet(8)
+                        .weight(60.0 + e * 5)
+                        .build());
+            }
+            result.add(w);
+        }
+        return result;
+    }
+}
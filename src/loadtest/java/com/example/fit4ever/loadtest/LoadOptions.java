@@ -0,0 +1,67 @@
+package com.example.fit4ever.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load-test settings from {@code --name=value} arguments; anything not given keeps its default.
+ *
+ * @param users          synthetic users to seed
+ * @param days           days of history per user, ending today
+ * @param workoutsPerDay chance of a workout on any day
+ * @param foodLogsPerDay average food logs per day
+ * @param seed           data and request-mix seed; same seed, same run
+ * @param seedThreads    parallel seeding connections
+ * @param rate           requests started per second, whether or not earlier ones have finished
+ * @param warmupSeconds  load before measuring starts
+ * @param durationSeconds measured load
+ * @param maxInFlight    requests outstanding before new ones are counted as dropped
+ * @param report         JSON report path
+ * @param threads        {@code platform} or {@code virtual}: how the app under test handles requests
+ * @param poolSize       the app's connection pool size, 5 as in production
+ */
+record LoadOptions(int users, int days, double workoutsPerDay, int foodLogsPerDay, long seed, int seedThreads,
+                   int rate, int warmupSeconds, int durationSeconds, int maxInFlight, String report,
+                   String threads, int poolSize) {
+
+    private static final Set<String> NAMES = Set.of("users", "days", "workouts-per-day", "food-logs-per-day", "seed",
+            "seed-threads", "rate", "warmup", "duration", "max-in-flight", "report",
+            "threads", "pool-size");
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> given = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0 || !NAMES.contains(arg.substring(2, eq))) {
+                throw new IllegalArgumentException("Expected --name=value with name one of " + NAMES + ", got " + arg);
+            }
+            given.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadOptions(
+                Integer.parseInt(given.getOrDefault("users", "1000")),
+                Integer.parseInt(given.getOrDefault("days", "365")),
+                Double.parseDouble(given.getOrDefault("workouts-per-day", "0.5")),
+                Integer.parseInt(given.getOrDefault("food-logs-per-day", "4")),
+                Long.parseLong(given.getOrDefault("seed", "42")),
+                Integer.parseInt(given.getOrDefault("seed-threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                Integer.parseInt(given.getOrDefault("rate", "200")),
+                Integer.parseInt(given.getOrDefault("warmup", "15")),
+                Integer.parseInt(given.getOrDefault("duration", "60")),
+                Integer.parseInt(given.getOrDefault("max-in-flight", "5000")),
+                given.getOrDefault("report", "target/loadtest-report.json"),
+                threads(given.getOrDefault("threads", "platform")),
+                Integer.parseInt(given.getOrDefault("pool-size", "5")));
+    }
+
+    boolean virtualThreads() {
+        return "virtual".equals(threads);
+    }
+
+    private static String threads(String value) {
+        if (!value.equals("platform") && !value.equals("virtual")) {
+            throw new IllegalArgumentException("--threads must be platform or virtual, got " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.fit4ever.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Latencies and outcomes per endpoint for the measured window. */
+final class LoadReport {
+
+    record EndpointResult(String endpoint, long requests, long errors, double errorRate, double throughput,
+                          double p50Ms, double p99Ms, double p999Ms, double maxMs) {
+    }
+
+    private final Map<String, Samples> byEndpoint = new TreeMap<>();
+
+    synchronized void record(String endpoint, long latencyNanos, boolean ok) {
+        byEndpoint.computeIfAbsent(endpoint, e -> new Samples()).add(latencyNanos, ok);
+    }
+
+    synchronized List<EndpointResult> results(double seconds) {
+        List<EndpointResult> results = new ArrayList<>();
+        Samples all = new Samples();
+        byEndpoint.forEach((endpoint, samples) -> {
+            results.add(samples.result(endpoint, seconds));
+            for (int i = 0; i < samples.size; i++) all.add(samples.latencies[i], true);
+            all.errors += samples.errors;
+        });
+        results.add(all.result("TOTAL", seconds));
+        return results;
+    }
+
+    static String table(List<EndpointResult> results) {
+        StringBuilder out = new StringBuilder(String.format("%-28s %9s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (EndpointResult r : results) {
+            out.append(String.format("%-28s %9d %7.2f%% %9.1f %9.2f %9.2f %9.2f %9.2f%n", r.endpoint(), r.requests(),
+                    r.errorRate() * 100, r.throughput(), r.p50Ms(), r.p99Ms(), r.p999Ms(), r.maxMs()));
+        }
+        return out.toString();
+    }
+
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long latencyNanos, boolean ok) {
+            if (size == latencies.length) latencies = Arrays.copyOf(latencies, size * 2);
+            latencies[size++] = latencyNanos;
+            if (!ok) errors++;
+        }
+
+        EndpointResult result(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new EndpointResult(endpoint, size, errors, size == 0 ? 0 : (double) errors / size, size / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    size == 0 ? 0 : sorted[size - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
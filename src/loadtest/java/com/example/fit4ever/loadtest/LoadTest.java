@@ -0,0 +1,201 @@
+package com.example.fit4ever.loadtest;
+
+import com.example.fit4ever.Fit4EverApplication;
+import com.example.fit4ever.config.JwtUtil;
+import com.example.fit4ever.service.ActivityIndex;
+import com.example.fit4ever.service.GoalProgressProjector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Boots the app on an in-memory H2 database, seeds a synthetic population ({@link SyntheticData})
+ * and drives a fixed mix of API calls at a fixed arrival rate with the JDK HttpClient.
+ * <p>
+ * Requests start on schedule whether or not earlier ones have returned (an open workload), and
+ * latency is measured from the scheduled start, so a stall shows up in the percentiles instead of
+ * quietly lowering the request rate. Run with {@code mvn -Ploadtest -DskipTests verify
+ * -Dloadtest.args="--users=10000 --rate=500"}; see {@link LoadOptions} for every option, and
+ * {@code scripts/loadtest-threads.sh} to compare platform and virtual request threads at one load.
+ */
+public final class LoadTest {
+
+    /** The request mix; weights are relative. */
+    private enum Call {
+        LOGIN("POST /api/auth/login", 2),
+        WORKOUTS("GET /api/workouts", 20),
+        FOOD_LOGS_BY_DATE("GET /api/nutrition/logs", 18),
+        NUTRITION_SUMMARY("GET /api/nutrition/summary", 15),
+        ADD_FOOD_LOG("POST /api/nutrition/logs", 10),
+        GOALS("GET /api/goals", 12),
+        GOAL_PROGRESS("GET /api/goals/progress", 8),
+        DASHBOARD("GET /api/dashboard", 15);
+
+        final String endpoint;
+        final int weight;
+
+        Call(String endpoint, int weight) {
+            this.endpoint = endpoint;
+            this.weight = weight;
+        }
+    }
+
+    private final LoadOptions options;
+    private final String baseUrl;
+    private final String[] tokens;
+    private final Call[] wheel;
+
+    private LoadTest(LoadOptions options, String baseUrl, String[] tokens) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.tokens = tokens;
+        this.wheel = Arrays.stream(Call.values())
+                .flatMap(c -> Stream.generate(() -> c).limit(c.weight))
+                .toArray(Call[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        // devtools would relaunch main() in a restart class loader with the Spring arguments below
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(Fit4EverApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                "--spring.h2.console.enabled=false",
+                "--spring.jpa.show-sql=false",
+                "--spring.datasource.hikari.maximum-pool-size=" + options.poolSize(),
+                "--spring.threads.virtual.enabled=" + options.virtualThreads(),
+                "--fit4ever.goals.lifecycle.enabled=false",
+                "--logging.level.root=WARN");
+        int exit = 0;
+        try {
+            long started = System.nanoTime();
+            String hash = app.getBean(PasswordEncoder.class).encode(SyntheticData.PASSWORD);
+            long rows = new SyntheticData(app.getBean(DataSource.class), options, hash).seed();
+            app.getBean(ActivityIndex.class).rebuild(null);
+            app.getBean(GoalProgressProjector.class).rebuild(null);
+            System.out.printf("Seeded %d users, %d rows in %d s%n", options.users(), rows,
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+
+            JwtUtil jwt = app.getBean(JwtUtil.class);
+            String[] tokens = new String[options.users() + 1];
+            for (int u = 1; u <= options.users(); u++) {
+                tokens[u] = jwt.generateToken(String.format(SyntheticData.EMAIL_FORMAT, u));
+            }
+            String port = app.getEnvironment().getProperty("local.server.port");
+            new LoadTest(options, "http://localhost:" + port, tokens).run();
+        } catch (Exception e) {
+            e.printStackTrace();
+            exit = 1;
+        } finally {
+            app.close();
+        }
+        System.exit(exit);
+    }
+
+    private void run() throws Exception {
+        ExecutorService io = Executors.newFixedThreadPool(32);
+        HttpClient client = HttpClient.newBuilder().executor(io).connectTimeout(Duration.ofSeconds(5)).build();
+        LoadReport report = new LoadReport();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        Random random = new Random(options.seed());
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        System.out.printf("Driving %d req/s at %s threads, %d connections: %d s warm-up, %d s measured%n",
+                options.rate(), options.threads(), options.poolSize(), options.warmupSeconds(), options.durationSeconds());
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) break;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            Call call = wheel[random.nextInt(wheel.length)];
+            HttpRequest request = request(call, 1 + random.nextInt(options.users()), random);
+            boolean measured = scheduled >= measureFrom;
+            if (!inFlight.tryAcquire()) {
+                // Overloaded past the in-flight cap: count as a failure rather than queueing without bound
+                if (measured) report.record(call.endpoint, System.nanoTime() - scheduled, false);
+                continue;
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                inFlight.release();
+                if (measured) {
+                    boolean ok = error == null && response.statusCode() < 400;
+                    report.record(call.endpoint, System.nanoTime() - scheduled, ok);
+                }
+            });
+        }
+        if (!inFlight.tryAcquire(options.maxInFlight(), 60, TimeUnit.SECONDS)) {
+            System.out.println("Some requests were still outstanding after 60 s and are not counted");
+        }
+        io.shutdownNow();
+
+        List<LoadReport.EndpointResult> results = report.results(options.durationSeconds());
+        System.out.print(LoadReport.table(results));
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("options", options);
+        json.put("results", results);
+        File file = new File(options.report());
+        if (file.getParentFile() != null) file.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, json);
+        System.out.println("Report written to " + file);
+    }
+
+    private HttpRequest request(Call call, int user, Random random) {
+        LocalDate today = LocalDate.now();
+        LocalDate day = today.minusDays(random.nextInt(Math.min(30, options.days())));
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30));
+        if (call != Call.LOGIN) builder.header("Authorization", "Bearer " + tokens[user]);
+        return switch (call) {
+            // Each synthetic user logs in from an address of its own, as the rate limiter expects
+            case LOGIN -> builder.uri(uri("/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .header("X-Forwarded-For", "10." + (user >> 16 & 0xff) + "." + (user >> 8 & 0xff) + "." + (user & 0xff))
+                    .POST(HttpRequest.BodyPublishers.ofString(String.format("{\"email\":\"%s\",\"password\":\"%s\"}",
+                            String.format(SyntheticData.EMAIL_FORMAT, user), SyntheticData.PASSWORD)))
+                    .build();
+            case WORKOUTS -> builder.uri(uri("/api/workouts")).GET().build();
+            case FOOD_LOGS_BY_DATE -> builder.uri(uri("/api/nutrition/logs?date=" + day)).GET().build();
+            case NUTRITION_SUMMARY -> builder.uri(uri("/api/nutrition/summary?from=" + today.minusDays(random.nextBoolean() ? 6 : 29)
+                    + "&to=" + today)).GET().build();
+            case ADD_FOOD_LOG -> builder.uri(uri("/api/nutrition/logs"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                            "{\"date\":\"%s\",\"mealType\":\"SNACK\",\"itemName\":\"Apple\",\"calories\":%d,"
+                                    + "\"protein\":0.5,\"carbs\":25.0,\"fat\":0.3}", today, 80 + random.nextInt(40))))
+                    .build();
+            case GOALS -> builder.uri(uri("/api/goals")).GET().build();
+            case GOAL_PROGRESS -> builder.uri(uri("/api/goals/progress")).GET().build();
+            case DASHBOARD -> builder.uri(uri("/api/dashboard")).GET().build();
+        };
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.fit4ever.loadtest;
+
+import com.example.fit4ever.model.FoodLog;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes a synthetic population straight through JDBC: users, then for each user {@code days} of
+ * history ending today with workouts (and their exercises), food logs and a few goals.
+ * <p>
+ * Users are split into slices written in parallel, each on its own connection with batched inserts
+ * and a commit per batch of users. Row contents depend only on the seed and the user's number, so
+ * two runs with the same options hold the same data; ids are handed out from shared counters and
+ * the identity columns are moved past them at the end. Every user's password is {@link #PASSWORD}.
+ */
+final class SyntheticData {
+    static final String PASSWORD = "LoadTest1!";
+    static final String EMAIL_FORMAT = "user%d@load.test";
+    private static final String[] MEALS = {"BREAKFAST", "LUNCH", "DINNER", "SNACK"};
+    private static final String[] FOODS = {"Oatmeal", "Chicken salad", "Rice bowl", "Apple", "Greek yogurt",
+            "Pasta", "Salmon", "Protein shake", "Sandwich", "Eggs"};
+    private static final String[] EXERCISES = {"Squat", "Bench press", "Deadlift", "Row", "Overhead press",
+            "Pull-up", "Lunge", "Plank"};
+    private static final int USERS_PER_COMMIT = 50;
+    private static final int BATCH = 1_000;
+
+    private final DataSource dataSource;
+    private final LoadOptions options;
+    private final String passwordHash;
+    private final AtomicLong workoutIds = new AtomicLong();
+    private final AtomicLong exerciseIds = new AtomicLong();
+    private final AtomicLong foodLogIds = new AtomicLong();
+    private final AtomicLong goalIds = new AtomicLong();
+
+    SyntheticData(DataSource dataSource, LoadOptions options, String passwordHash) {
+        this.dataSource = dataSource;
+        this.options = options;
+        this.passwordHash = passwordHash;
+    }
+
+    /** Seeds the population and returns the number of rows written. */
+    long seed() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(options.seedThreads());
+        try {
+            List<Future<Long>> slices = new ArrayList<>();
+            int per = (options.users() + options.seedThreads() - 1) / options.seedThreads();
+            for (int from = 1; from <= options.users(); from += per) {
+                int first = from;
+                int last = Math.min(options.users(), from + per - 1);
+                slices.add(pool.submit(() -> seedUsers(first, last)));
+            }
+            long rows = 0;
+            for (Future<Long> slice : slices) {
+                rows += slice.get();
+            }
+            restartIdentities();
+            return rows;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long seedUsers(int first, int last) throws SQLException {
+        LocalDate today = LocalDate.now();
+        Timestamp now = Timestamp.from(Instant.now());
+        try (Connection c = dataSource.getConnection();
+             Batch users = new Batch(c, "insert into users (id, name, email, password, role, provider, email_verified) values (?, ?, ?, ?, 'USER', 'LOCAL', true)");
+             Batch workouts = new Batch(c, "insert into workouts (id, user_id, title, notes, workout_date, version, updated_at) values (?, ?, ?, ?, ?, 0, ?)");
+             Batch exercises = new Batch(c, "insert into exercises (id, workout_id, name, sets_count, reps_per_set, weight) values (?, ?, ?, ?, ?, ?)", workouts);
+             Batch foodLogs = new Batch(c, "insert into food_logs (id, user_id, date, meal_type, meal_order, item_name, calories, protein, carbs, fat, version, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)");
+             Batch goals = new Batch(c, "insert into goals (id, user_id, type, target_value, start_date, end_date, status, version, updated_at) values (?, ?, ?, ?, ?, ?, ?, 0, ?)")) {
+            c.setAutoCommit(false);
+            // Users first: any batch below may be sent before its user's row otherwise would be
+            for (int u = first; u <= last; u++) {
+                users.add((long) u, "Load User", String.format(EMAIL_FORMAT, u), passwordHash);
+            }
+            users.flush();
+            c.commit();
+            for (int u = first; u <= last; u++) {
+                Random random = new Random(options.seed() * 31 + u);
+                for (int d = options.days() - 1; d >= 0; d--) {
+                    Date day = Date.valueOf(today.minusDays(d));
+                    if (random.nextDouble() < options.workoutsPerDay()) {
+                        long workoutId = workoutIds.incrementAndGet();
+                        workouts.add(workoutId, (long) u, "Workout", random.nextInt(4) == 0 ? "Felt good" : null, day, now);
+                        int count = 2 + random.nextInt(5);
+                        for (int e = 0; e < count; e++) {
+                            exercises.add(exerciseIds.incrementAndGet(), workoutId, EXERCISES[random.nextInt(EXERCISES.length)],
+                                    3 + random.nextInt(3), 5 + random.nextInt(8), 20.0 + random.nextInt(120));
+                        }
+                    }
+                    int logs = random.nextInt(options.foodLogsPerDay() * 2 + 1);
+                    for (int l = 0; l < logs; l++) {
+                        String meal = MEALS[Math.min(l * MEALS.length / Math.max(logs, 1), MEALS.length - 1)];
+                        foodLogs.add(foodLogIds.incrementAndGet(), (long) u, day, meal, FoodLog.mealOrderOf(meal),
+                                FOODS[random.nextInt(FOODS.length)], 80 + random.nextInt(700),
+                                random.nextInt(400) / 10.0, random.nextInt(900) / 10.0, random.nextInt(300) / 10.0, now);
+                    }
+                }
+                goals.add(goalIds.incrementAndGet(), (long) u, "CALORIES", 1800.0 + random.nextInt(800),
+                        Date.valueOf(today.minusDays(30)), Date.valueOf(today.plusDays(60)), "ACTIVE", now);
+                goals.add(goalIds.incrementAndGet(), (long) u, "WORKOUTS_PER_WEEK", 2.0 + random.nextInt(4),
+                        Date.valueOf(today.minusDays(7)), Date.valueOf(today.plusDays(90)), "ACTIVE", now);
+                if ((u - first + 1) % USERS_PER_COMMIT == 0 || u == last) {
+                    exercises.flush();
+                    foodLogs.flush();
+                    goals.flush();
+                    c.commit();
+                }
+            }
+            return users.written + workouts.written + exercises.written + foodLogs.written + goals.written;
+        }
+    }
+
+    private void restartIdentities() throws SQLException {
+        try (Connection c = dataSource.getConnection(); Statement s = c.createStatement()) {
+            c.setAutoCommit(false);
+            s.execute("alter table users alter column id restart with " + (options.users() + 1));
+            s.execute("alter table workouts alter column id restart with " + (workoutIds.get() + 1));
+            s.execute("alter table exercises alter column id restart with " + (exerciseIds.get() + 1));
+            s.execute("alter table food_logs alter column id restart with " + (foodLogIds.get() + 1));
+            s.execute("alter table goals alter column id restart with " + (goalIds.get() + 1));
+            c.commit();
+        }
+    }
+
+    /** A prepared insert that sends itself every {@value #BATCH} rows, after the rows its own refer to. */
+    private static final class Batch implements AutoCloseable {
+        private final PreparedStatement statement;
+        private final Batch parent;
+        private int pending;
+        private long written;
+
+        Batch(Connection connection, String sql) throws SQLException {
+            this(connection, sql, null);
+        }
+
+        Batch(Connection connection, String sql, Batch parent) throws SQLException {
+            this.statement = connection.prepareStatement(sql);
+            this.parent = parent;
+        }
+
+        void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                statement.setObject(i + 1, values[i]);
+            }
+            statement.addBatch();
+            if (++pending >= BATCH) flush();
+        }
+
+        void flush() throws SQLException {
+            if (parent != null) parent.flush();
+            if (pending > 0) {
+                statement.executeBatch();
+                written += pending;
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.fit4ever.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Puts a fair semaphore with one permit per pooled connection in front of the Hikari pool, so
+ * callers take connections in arrival order and wait without holding anything else.
+ * <p>
+ * On virtual threads thousands of requests can reach the pool at once; Hikari's own hand-off is not
+ * first come, first served, so under that pressure some callers keep losing until they hit the
+ * connection timeout while others are served. Waiting here instead is FIFO, and a virtual thread
+ * parked on the semaphore releases its carrier. A permit is held from {@code getConnection()} until
+ * the connection is closed, and the wait is bounded by the pool's own connection timeout.
+ * Registered by {@link DataSourceConfig} when {@code fit4ever.datasource.limiter.enabled} is set.
+ */
+@Slf4j
+public class ConnectionLimiter implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource hikari) {
+            log.info("Limiting '{}' to {} concurrent connections, first come first served",
+                    beanName, hikari.getMaximumPoolSize());
+            return new LimitedDataSource(hikari, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+        }
+        return bean;
+    }
+
+    static final class LimitedDataSource extends DelegatingDataSource {
+        private final Semaphore permits;
+        private final long timeoutMs;
+
+        LimitedDataSource(DataSource target, int permits, long timeoutMs) {
+            super(target);
+            this.permits = new Semaphore(permits, true);
+            this.timeoutMs = timeoutMs;
+        }
+
+        /** Callers waiting for a permit, an estimate. */
+        int waiting() {
+            return permits.getQueueLength();
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return releasingOnClose(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException("No connection available within " + timeoutMs
+                            + " ms; " + permits.getQueueLength() + " callers waiting");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for a connection", e);
+            }
+        }
+
+        private Connection releasingOnClose(Connection connection) {
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                            try {
+                                connection.close();
+                            } finally {
+                                if (closed.compareAndSet(false, true)) permits.release();
+                            }
+                            return null;
+                        }
+                        if ("equals".equals(method.getName())) return proxy == args[0];
+                        if ("hashCode".equals(method.getName())) return System.identityHashCode(proxy);
+                        if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+                            return proxy;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
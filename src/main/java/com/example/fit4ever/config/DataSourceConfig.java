@@ -0,0 +1,36 @@
+package com.example.fit4ever.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Optional wrapping of the connection pool; see {@link ConnectionLimiter}. On by default together
+ * with virtual threads ({@code spring.threads.virtual.enabled}).
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "fit4ever.datasource.limiter.enabled", havingValue = "true")
+    public static ConnectionLimiter connectionLimiter() {
+        return new ConnectionLimiter();
+    }
+
+    @Bean
+    public MeterBinder connectionLimiterMetrics(Map<String, DataSource> dataSources) {
+        return registry -> dataSources.forEach((name, dataSource) -> {
+            if (dataSource instanceof ConnectionLimiter.LimitedDataSource limited) {
+                Gauge.builder("fit4ever.datasource.limiter.waiting", limited, l -> l.waiting())
+                        .description("Callers queued for a pooled connection")
+                        .tag("datasource", name)
+                        .register(registry);
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.fit4ever.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Metrics wiring that auto-configuration does not cover. Endpoint latency, the connection pool and
+ * Hibernate's global statistics are bound by Spring Boot; see {@code management.*} in application.yml.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public RequestQueryStats requestQueryStats() {
+        return new RequestQueryStats();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryMetricsCustomizer(RequestQueryStats requestQueryStats,
+                                                                SlowQueryRecorder slowQueryRecorder) {
+        StatementInspector inspector = sql -> slowQueryRecorder.inspect(requestQueryStats.inspect(sql));
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+            properties.put("hibernate.integrator_provider", (IntegratorProvider) () -> List.of(requestQueryStats));
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SlowQueryListener.class.getName());
+        };
+    }
+}
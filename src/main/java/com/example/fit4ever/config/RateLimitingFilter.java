@@ -2,6 +2,8 @@ package com.example.fit4ever.config;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,6 +15,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
@@ -25,6 +29,28 @@ public class RateLimitingFilter extends OncePerRequestFilter {
 
     private static final int MAX_REQUESTS_PER_MINUTE = 10;
 
+    // Outcome counters per known auth endpoint; any other path under /api/auth/ shares "other"
+    private static final String[] ENDPOINTS = {"/api/auth/login", "/api/auth/register", "other"};
+    private final Map<String, Counter> accepted;
+    private final Map<String, Counter> rejected;
+
+    public RateLimitingFilter(MeterRegistry meterRegistry) {
+        this.accepted = counters(meterRegistry, "accepted");
+        this.rejected = counters(meterRegistry, "rejected");
+    }
+
+    private static Map<String, Counter> counters(MeterRegistry meterRegistry, String outcome) {
+        Map<String, Counter> counters = new HashMap<>();
+        for (String endpoint : ENDPOINTS) {
+            counters.put(endpoint, Counter.builder("fit4ever.ratelimit.requests")
+                    .description("Auth requests seen by the rate limiter")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+        return Map.copyOf(counters);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
@@ -38,8 +64,10 @@ public class RateLimitingFilter extends OncePerRequestFilter {
             
             AtomicInteger requestCount = requestCounts.get(key, k -> new AtomicInteger(0));
             int currentCount = requestCount.incrementAndGet();
+            String endpoint = accepted.containsKey(requestURI) ? requestURI : "other";
             
             if (currentCount > MAX_REQUESTS_PER_MINUTE) {
+                rejected.get(endpoint).increment();
                 log.warn("Rate limit exceeded for IP: {} on endpoint: {}", clientIp, requestURI);
                 response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
                 response.setContentType("application/json");
@@ -49,6 +77,7 @@ public class RateLimitingFilter extends OncePerRequestFilter {
                 return;
             }
             
+            accepted.get(endpoint).increment();
             log.debug("Request count for {}: {}", key, currentCount);
         }
         
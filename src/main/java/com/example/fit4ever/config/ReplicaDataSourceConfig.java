@@ -0,0 +1,97 @@
+package com.example.fit4ever.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Two pools, primary and replica, behind the application's DataSource: read-only transactions are
+ * served by {@link ReplicaRouter}, everything else by the primary. Active when
+ * {@code fit4ever.datasource.replica.url} is set; both pools take their settings from
+ * {@code spring.datasource.hikari}.
+ * <p>
+ * The choice is made by {@link LazyConnectionDataSourceProxy}, which borrows a real connection only
+ * when the first statement runs, by which time the transaction has marked it read-only or not.
+ */
+@Configuration
+@ConditionalOnExpression("!'${fit4ever.datasource.replica.url:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    @Value("${fit4ever.datasource.replica.url}")
+    private String url;
+
+    @Value("${fit4ever.datasource.replica.username:}")
+    private String username;
+
+    @Value("${fit4ever.datasource.replica.password:}")
+    private String password;
+
+    @Value("${fit4ever.datasource.replica.lag-query:select 0}")
+    private String lagQuery;
+
+    @Value("${fit4ever.datasource.replica.max-lag-ms:1000}")
+    private long maxLagMs;
+
+    @Value("${fit4ever.datasource.replica.sticky-ms:5000}")
+    private long stickyMs;
+
+    @Value("${fit4ever.datasource.replica.probe-interval-ms:1000}")
+    private long probeIntervalMs;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create(properties.getClassLoader())
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRouter replicaRouter(@Qualifier("replicaDataSource") DataSource replica,
+                                       @Qualifier("primaryDataSource") DataSource primary) {
+        return new ReplicaRouter(replica, primary, lagQuery, maxLagMs, stickyMs, probeIntervalMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(replicaRouter.recordingWrites());
+        dataSource.setReadOnlyDataSource(replicaRouter);
+        return dataSource;
+    }
+
+    @Bean
+    public MeterBinder replicaLagMetrics(ReplicaRouter replicaRouter) {
+        return registry -> Gauge.builder("fit4ever.datasource.replica.lag", replicaRouter,
+                        r -> r.lagMs() == Long.MAX_VALUE ? Double.NaN : r.lagMs())
+                .description("Replica lag in ms at the last probe; NaN while unreachable")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+}
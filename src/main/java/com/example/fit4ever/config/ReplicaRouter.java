@@ -0,0 +1,155 @@
+package com.example.fit4ever.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DataSource read-only transactions take their connection from (see {@link ReplicaDataSourceConfig}):
+ * the replica, unless it is behind or the current user has just written.
+ * <p>
+ * A background probe runs {@code lag-query} on the replica every {@code probe-interval-ms}; while the
+ * result is over {@code max-lag-ms}, or the probe fails, reads go to the primary. A user whose
+ * read-write transaction committed on the primary in the last {@code sticky-ms} also reads from the
+ * primary, so they see their own change even if the replica has not replayed it yet. Users are
+ * keyed by authentication name; work without one (startup, background jobs) is never sticky, so
+ * worker pools that run a request's queries must carry its security context along.
+ * <p>
+ * Stickiness is per node: the marker lives in this node's memory, so a user's next request served
+ * by another node may read from the replica and miss their write for up to {@code max-lag-ms}. With
+ * several nodes, route each user to one node (session affinity) where read-your-writes matters.
+ */
+@Slf4j
+public class ReplicaRouter extends DelegatingDataSource {
+    private static final Object WRITE_REGISTERED = new Object();
+
+    private final DataSource primary;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final Cache<String, Boolean> recentWriters;
+    private final ScheduledExecutorService prober;
+
+    // Unknown until the first probe: read from the primary until then
+    private volatile long lagMs = Long.MAX_VALUE;
+
+    public ReplicaRouter(DataSource replica, DataSource primary, String lagQuery, long maxLagMs, long stickyMs,
+                         long probeIntervalMs) {
+        super(replica);
+        this.primary = primary;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(stickyMs))
+                .maximumSize(100_000)
+                .build();
+        this.prober = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-lag-probe");
+            t.setDaemon(true);
+            return t;
+        });
+        prober.execute(this::probe);
+        prober.scheduleWithFixedDelay(this::probe, probeIntervalMs, probeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stops the lag probe; the pools are closed by their own beans. */
+    public void close() {
+        prober.shutdownNow();
+    }
+
+    /** The replica's last measured lag in ms, {@link Long#MAX_VALUE} while unknown or unreachable. */
+    public long lagMs() {
+        return lagMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (lagMs > maxLagMs || recentlyWrote(currentUser())) {
+            return primary.getConnection();
+        }
+        try {
+            return super.getConnection();
+        } catch (SQLException e) {
+            log.warn("Replica unavailable, reading from the primary until the next probe: {}", e.getMessage());
+            lagMs = Long.MAX_VALUE;
+            return primary.getConnection();
+        }
+    }
+
+    /** Wraps the primary so read-write transactions that commit on it make their user sticky. */
+    public DataSource recordingWrites() {
+        return new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                recordWrite();
+                return super.getConnection();
+            }
+        };
+    }
+
+    boolean recentlyWrote(String user) {
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private void recordWrite() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || TransactionSynchronizationManager.hasResource(WRITE_REGISTERED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_REGISTERED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_REGISTERED);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null || auth instanceof AnonymousAuthenticationToken ? null : auth.getName();
+    }
+
+    private void probe() {
+        try (Connection connection = super.getConnection()) {
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery(lagQuery)) {
+                rows.next();
+                double seconds = rows.getDouble(1); // null (not in recovery) reads as 0
+                lagMs = (long) (seconds * 1000);
+            } finally {
+                if (!connection.getAutoCommit()) connection.rollback();
+            }
+        } catch (SQLException e) {
+            if (lagMs != Long.MAX_VALUE) {
+                log.warn("Replica lag probe failed, reading from the primary: {}", e.getMessage());
+            }
+            lagMs = Long.MAX_VALUE;
+        } catch (RuntimeException e) {
+            log.error("Replica lag probe failed", e);
+            lagMs = Long.MAX_VALUE;
+        }
+    }
+}
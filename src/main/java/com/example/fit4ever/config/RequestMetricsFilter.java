@@ -0,0 +1,108 @@
+package com.example.fit4ever.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records how many SQL statements, entity loads and collection fetches each request caused, as
+ * distributions tagged with the HTTP method and the matched route template (never the raw path).
+ * Runs ahead of the security filters so the authenticated user's lookup is included.
+ * <p>
+ * A request over the statement budget, or repeating one statement often enough to look like an N+1
+ * loop, is logged with the offending SQL and counted in {@code fit4ever.request.query.budget.exceeded}.
+ * Only a sampled fraction of requests is counted at all; the rest skip the bookkeeping.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+@Slf4j
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private static final int MAX_LOGGED_SQL = 300;
+
+    private final RequestQueryStats requestQueryStats;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${fit4ever.query-budget.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Value("${fit4ever.query-budget.max-statements:25}")
+    private int maxStatements;
+
+    @Value("${fit4ever.query-budget.max-repeats:5}")
+    private int maxRepeats;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        boolean started = requestQueryStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (started) record(request, requestQueryStats.end());
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestQueryStats.Counts counts) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        summary("fit4ever.request.statements", request.getMethod(), uri).record(counts.statements());
+        summary("fit4ever.request.entity.loads", request.getMethod(), uri).record(counts.entityLoads());
+        summary("fit4ever.request.collection.fetches", request.getMethod(), uri).record(counts.collectionFetches());
+
+        boolean repeated = counts.mostRepeatedCount() >= maxRepeats;
+        if (repeated) {
+            exceeded(request.getMethod(), uri, "repeated_statement").increment();
+            log.warn("Probable N+1 in {} {}: one statement issued {} times ({} in total): {}",
+                    request.getMethod(), uri, counts.mostRepeatedCount(), counts.statements(),
+                    abbreviate(counts.mostRepeatedStatement()));
+        }
+        if (counts.statements() > maxStatements) {
+            exceeded(request.getMethod(), uri, "budget").increment();
+            if (!repeated) {
+                log.warn("{} {} issued {} SQL statements, over the budget of {}",
+                        request.getMethod(), uri, counts.statements(), maxStatements);
+            }
+        }
+    }
+
+    private Counter exceeded(String method, String uri, String reason) {
+        return Counter.builder("fit4ever.request.query.budget.exceeded")
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL ? sql : sql.substring(0, MAX_LOGGED_SQL) + "...";
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.fit4ever.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements, entity loads and lazy collection fetches Hibernate performs on the
+ * current thread between {@link #begin()} and {@link #end()}; {@link RequestMetricsFilter} brackets
+ * each request with them. Work handed to other threads (e.g. dashboard sections) is not counted.
+ * Statements are also counted by their SQL text, so one issued over and over (the shape of an N+1
+ * loop: same statement, different bind values) can be pointed out.
+ * <p>
+ * Installed into the session factory by {@link MetricsConfig} as (part of) the statement inspector
+ * and as an integrator that registers the two event listeners.
+ */
+public class RequestQueryStats implements StatementInspector, Integrator,
+        PostLoadEventListener, InitializeCollectionEventListener {
+
+    // Distinct SQL texts tracked per count; a request issuing more is well over any budget anyway
+    private static final int MAX_DISTINCT_STATEMENTS = 256;
+
+    /** What one request made Hibernate do. */
+    public static final class Counts {
+        private int statements;
+        private int entityLoads;
+        private int collectionFetches;
+        private final Map<String, Integer> bySql = new HashMap<>();
+
+        public int statements() {
+            return statements;
+        }
+
+        public int entityLoads() {
+            return entityLoads;
+        }
+
+        public int collectionFetches() {
+            return collectionFetches;
+        }
+
+        /** The SQL text issued most often, or null if no statement was issued. */
+        public String mostRepeatedStatement() {
+            return bySql.entrySet().stream().max(Map.Entry.comparingByValue()).map(Map.Entry::getKey).orElse(null);
+        }
+
+        /** How many times {@link #mostRepeatedStatement()} was issued. */
+        public int mostRepeatedCount() {
+            return bySql.values().stream().max(Integer::compare).orElse(0);
+        }
+
+        @Override
+        public String toString() {
+            return statements + " statements, " + entityLoads + " entity loads, " + collectionFetches
+                    + " collection fetches; most repeated (" + mostRepeatedCount() + "x): " + mostRepeatedStatement();
+        }
+    }
+
+    private final ThreadLocal<Counts> current = new ThreadLocal<>();
+
+    /**
+     * Starts counting on this thread. If a count is already running (e.g. a test measuring a whole
+     * MockMvc call) it is left alone and this returns false: only the caller that started a count
+     * should {@link #end()} it.
+     */
+    public boolean begin() {
+        if (current.get() != null) return false;
+        current.set(new Counts());
+        return true;
+    }
+
+    /** Stops counting on this thread and returns what was counted, or null if nothing was begun. */
+    public Counts end() {
+        Counts counts = current.get();
+        current.remove();
+        return counts;
+    }
+
+    /** What has been counted so far on this thread, or null outside a counted request. */
+    public Counts peek() {
+        return current.get();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = current.get();
+        if (counts != null) {
+            counts.statements++;
+            if (counts.bySql.size() < MAX_DISTINCT_STATEMENTS || counts.bySql.containsKey(sql)) {
+                counts.bySql.merge(sql, 1, Integer::sum);
+            }
+        }
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        Counts counts = current.get();
+        if (counts != null) counts.entityLoads++;
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) {
+        // Registered ahead of Hibernate's own listener, so this still sees the collection uninitialized
+        Counts counts = current.get();
+        if (counts != null && !event.getCollection().wasInitialized()) counts.collectionFetches++;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, this);
+        listeners.prependListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // nothing to release
+    }
+}
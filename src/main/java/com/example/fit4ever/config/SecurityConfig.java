@@ -1,6 +1,7 @@
 package com.example.fit4ever.config;
 
 import com.example.fit4ever.service.OAuth2UserService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -28,6 +29,7 @@ public class SecurityConfig {
             "/configuration/**",
             "/webjars/**",
             "/h2-console/**",
+            "/actuator/prometheus", // tags carry no user data; restrict at the ingress in production
             "/oauth2/**",
             "/login/oauth2/**",
             "/",
@@ -54,6 +56,8 @@ public class SecurityConfig {
                 .headers(h -> h.frameOptions(frame -> frame.disable())) // allow H2 console frames
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Re-dispatches of an open stream (SSE) were authorised when the request began
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(WHITELIST).permitAll()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,21 @@
+package com.example.fit4ever.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/** /actuator/slowqueries: recent statements over the slow-query threshold with their plans. */
+@Component
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueryEndpoint {
+    private final SlowQueryRecorder slowQueryRecorder;
+
+    @ReadOperation
+    public List<SlowQueryRecorder.SlowQuery> slowQueries() {
+        return slowQueryRecorder.recent();
+    }
+}
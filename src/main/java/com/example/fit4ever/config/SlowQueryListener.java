@@ -0,0 +1,36 @@
+package com.example.fit4ever.config;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Times JDBC executions for {@link SlowQueryRecorder}. Hibernate creates one per session (see
+ * {@link MetricsConfig}), so the start time needs no synchronisation.
+ */
+public class SlowQueryListener extends BaseSessionEventListener {
+    private long started;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        finished();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        finished();
+    }
+
+    private void finished() {
+        SlowQueryRecorder recorder = SlowQueryRecorder.active();
+        if (recorder != null) recorder.executed(System.nanoTime() - started);
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.fit4ever.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the last {@code capacity} SQL statements that took longer than {@code threshold-ms} to
+ * execute, each with an EXPLAIN plan fetched in the background; served at /actuator/slowqueries.
+ * <p>
+ * Hibernate passes each statement through {@link #inspect} when preparing it and reports its
+ * execution time through {@link SlowQueryListener}, both on the executing thread. Statements carry
+ * {@code ?} placeholders, never bound values; runs of placeholders (IN lists) are collapsed so one
+ * shape is recorded however many ids were passed. Each shape is explained at most once per
+ * {@link #PLAN_TTL} on a single background thread; shapes arriving while its queue is full go
+ * unexplained. Only SELECTs are explained, on PostgreSQL (generic plan from 16 on) and H2.
+ */
+@Component
+@Slf4j
+public class SlowQueryRecorder {
+    private static final Duration PLAN_TTL = Duration.ofMinutes(10);
+    private static final Pattern PLACEHOLDER_RUN = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    // Hibernate instantiates SlowQueryListener itself, once per session, so it finds us here
+    private static volatile SlowQueryRecorder active;
+
+    private final DataSource dataSource;
+    private final ThreadLocal<String> preparing = new ThreadLocal<>();
+    private final Cache<String, Plan> plans = Caffeine.newBuilder()
+            .expireAfterWrite(PLAN_TTL)
+            .maximumSize(1_000)
+            .build();
+
+    @Value("${fit4ever.slow-query.threshold-ms:250}")
+    private long thresholdMs;
+
+    @Value("${fit4ever.slow-query.capacity:100}")
+    private int capacity;
+
+    @Value("${fit4ever.slow-query.explain:true}")
+    private boolean explain;
+
+    private long thresholdNanos;
+    private SlowQuery[] ring;
+    private long recorded;
+    private ThreadPoolExecutor explainer;
+
+    public SlowQueryRecorder(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    void start() {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        ring = new SlowQuery[capacity];
+        explainer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16), r -> {
+            Thread t = new Thread(r, "slow-query-explain");
+            t.setDaemon(true);
+            return t;
+        });
+        active = this;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (active == this) active = null;
+        explainer.shutdownNow();
+    }
+
+    static SlowQueryRecorder active() {
+        return active;
+    }
+
+    /** Statement inspector step: remembers the statement about to run on this thread. */
+    public String inspect(String sql) {
+        preparing.set(sql);
+        return sql;
+    }
+
+    /** Called when the statement last prepared on this thread has finished executing. */
+    void executed(long nanos) {
+        String sql = preparing.get();
+        if (sql == null || nanos < thresholdNanos) return;
+        String shape = PLACEHOLDER_RUN.matcher(sql).replaceAll("?...");
+        Plan plan = explain ? plans.get(shape, s -> submitExplain(sql)) : null;
+        SlowQuery query = new SlowQuery(shape, TimeUnit.NANOSECONDS.toMillis(nanos), Instant.now(), plan);
+        synchronized (this) {
+            ring[(int) (recorded++ % ring.length)] = query;
+        }
+        log.debug("Slow statement ({} ms): {}", query.getMillis(), shape);
+    }
+
+    /** The recorded statements, newest first. */
+    public synchronized List<SlowQuery> recent() {
+        List<SlowQuery> result = new ArrayList<>();
+        for (long i = recorded - 1; i >= 0 && i >= recorded - ring.length; i--) {
+            result.add(ring[(int) (i % ring.length)]);
+        }
+        return result;
+    }
+
+    private Plan submitExplain(String sql) {
+        Plan plan = new Plan();
+        if (!sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+            plan.text = "not explained: only SELECT statements are";
+            return plan;
+        }
+        try {
+            explainer.execute(() -> plan.text = explainNow(sql));
+        } catch (RejectedExecutionException e) {
+            plan.text = "not explained: too many slow statements at once";
+        }
+        return plan;
+    }
+
+    private String explainNow(String sql) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            String product = connection.getMetaData().getDatabaseProductName();
+            String explainSql;
+            if ("PostgreSQL".equals(product)) {
+                // A generic plan does not depend on parameter values; before 16 the nulls bound below are planned
+                explainSql = connection.getMetaData().getDatabaseMajorVersion() >= 16
+                        ? "EXPLAIN (GENERIC_PLAN) " + sql : "EXPLAIN " + sql;
+            } else if ("H2".equals(product)) {
+                explainSql = "EXPLAIN " + sql; // H2 chooses indexes when preparing, before values are bound
+            } else {
+                return "not explained: " + product + " is not supported";
+            }
+            try (PreparedStatement statement = connection.prepareStatement(explainSql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setNull(i, Types.NULL);
+                }
+                StringBuilder text = new StringBuilder();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        if (!text.isEmpty()) text.append('\n');
+                        text.append(rows.getString(1));
+                    }
+                }
+                return text.toString();
+            } finally {
+                if (!connection.getAutoCommit()) connection.rollback();
+            }
+        } catch (SQLException e) {
+            log.debug("EXPLAIN failed for {}", sql, e);
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    /** An EXPLAIN result shared by every recorded statement of the same shape; null text while pending. */
+    static final class Plan {
+        volatile String text;
+    }
+
+    public static final class SlowQuery {
+        @Getter
+        private final String sql;
+        @Getter
+        private final long millis;
+        @Getter
+        private final Instant at;
+        private final Plan planRef;
+
+        SlowQuery(String sql, long millis, Instant at, Plan planRef) {
+            this.sql = sql;
+            this.millis = millis;
+            this.at = at;
+            this.planRef = planRef;
+        }
+
+        public String getPlan() {
+            return planRef == null ? null : planRef.text;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.fit4ever.controller;
+
+import com.example.fit4ever.dto.ActivityDtos.*;
+import com.example.fit4ever.service.ActivityIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/activity")
+@RequiredArgsConstructor
+@Tag(name = "Activity", description = "Activity calendar and streaks")
+public class ActivityController {
+    private final ActivityIndex activityIndex;
+
+    @Operation(summary = "Days with workouts or food logs over a range (default: the last year)")
+    @GetMapping("/calendar")
+    public ActivityCalendarResponse calendar(Authentication auth,
+                                             @RequestParam(value = "from", required = false) String from,
+                                             @RequestParam(value = "to", required = false) String to) {
+        return activityIndex.calendar(from, to, auth.getName());
+    }
+
+    @Operation(summary = "Current and longest workout and food-logging streaks")
+    @GetMapping("/streaks")
+    public ActivityStreaksResponse streaks(Authentication auth) {
+        return activityIndex.streaks(auth.getName());
+    }
+}
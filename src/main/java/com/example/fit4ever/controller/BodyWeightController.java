@@ -0,0 +1,41 @@
+package com.example.fit4ever.controller;
+
+import com.example.fit4ever.dto.BodyWeightDtos.*;
+import com.example.fit4ever.service.BodyWeightService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/body-weight")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Body weight", description = "Weigh-ins backing WEIGHT goals")
+public class BodyWeightController {
+    private final BodyWeightService bodyWeightService;
+
+    @Operation(summary = "Record a weigh-in")
+    @PostMapping
+    public BodyWeightResponse record(Authentication auth, @Valid @RequestBody BodyWeightRequest request) {
+        return bodyWeightService.record(request, auth.getName());
+    }
+
+    @Operation(summary = "Record a batch of weigh-ins, e.g. a smart-scale sync")
+    @PostMapping("/bulk")
+    public BulkBodyWeightResponse recordAll(Authentication auth, @Valid @RequestBody BulkBodyWeightRequest request) {
+        return bodyWeightService.recordAll(request, auth.getName());
+    }
+
+    @Operation(summary = "Min/avg/max weight over a date range, downsampled to a bounded number of points")
+    @GetMapping
+    public WeightSeriesResponse series(Authentication auth,
+                                       @RequestParam(value = "from", required = false) String from,
+                                       @RequestParam(value = "to", required = false) String to,
+                                       @RequestParam(value = "resolution", required = false) String resolution) {
+        return bodyWeightService.series(from, to, resolution, auth.getName());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.fit4ever.controller;
+
+import com.example.fit4ever.dto.DashboardDtos.DashboardResponse;
+import com.example.fit4ever.service.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@Tag(name = "Dashboard", description = "Everything the dashboard shows in one call")
+public class DashboardController {
+    private final DashboardService dashboardService;
+
+    @Operation(summary = "Workouts, today's food logs, weekly summary, goals and progress; slow sections are left out")
+    @GetMapping
+    public DashboardResponse dashboard(Authentication auth) {
+        return dashboardService.dashboard(auth);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.fit4ever.controller;
+
+import com.example.fit4ever.exception.PreconditionFailedException;
+
+/**
+ * Strong ETags for entity versions and collection revisions. Single resources are tagged with
+ * their {@code @Version}, so {@code If-Match} carries the version a client last saw.
+ */
+final class ETags {
+    private ETags() {
+    }
+
+    static String of(Object token) {
+        return "\"" + token + "\"";
+    }
+
+    /**
+     * The entity version an {@code If-Match} header requires, or null when there is none (or {@code *}).
+     * A tag that cannot be one of our versions can never match, so it fails the precondition.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+        String tag = ifMatch.trim();
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // fall through
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not name a version of this resource");
+    }
+}
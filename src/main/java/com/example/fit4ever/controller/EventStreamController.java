@@ -0,0 +1,26 @@
+package com.example.fit4ever.controller;
+
+import com.example.fit4ever.service.LiveEventHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@Tag(name = "Events", description = "Live change notifications")
+public class EventStreamController {
+    private final LiveEventHub liveEventHub;
+
+    @Operation(summary = "Server-sent events naming each workout, food log, goal or weigh-in of yours that changed; refetch what you show")
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(Authentication auth) {
+        return liveEventHub.connect(auth.getName());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.fit4ever.controller;
+
+import com.example.fit4ever.dto.FoodDtos.FoodResponse;
+import com.example.fit4ever.exception.ResourceNotFoundException;
+import com.example.fit4ever.service.FoodDatabase;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/foods")
+@RequiredArgsConstructor
+@Tag(name = "Foods", description = "Built-in food nutrient database")
+public class FoodController {
+    private static final int MAX_RESULTS = 50;
+
+    private final FoodDatabase foodDatabase;
+
+    @Operation(summary = "Prefix search over food names; nutrients are per serving")
+    @GetMapping("/search")
+    public List<FoodResponse> search(@RequestParam("q") String q,
+                                     @RequestParam(value = "limit", defaultValue = "20") int limit,
+                                     @RequestParam(value = "servings", defaultValue = "1") double servings) {
+        if (servings <= 0) {
+            throw new IllegalArgumentException("servings must be positive");
+        }
+        int n = Math.max(1, Math.min(limit, MAX_RESULTS));
+        return foodDatabase.search(q, n).stream()
+                .map(f -> toResponse(f, f.servings(servings)))
+                .toList();
+    }
+
+    @Operation(summary = "Nutrients of one food for a number of servings or an amount in grams")
+    @GetMapping("/{id}")
+    public FoodResponse get(@PathVariable int id,
+                            @RequestParam(value = "servings", defaultValue = "1") double servings,
+                            @RequestParam(value = "grams", required = false) Double grams) {
+        if (servings <= 0 || (grams != null && grams <= 0)) {
+            throw new IllegalArgumentException("servings and grams must be positive");
+        }
+        FoodDatabase.Food food = foodDatabase.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Food not found"));
+        return toResponse(food, grams != null ? food.portion(grams) : food.servings(servings));
+    }
+
+    private static FoodResponse toResponse(FoodDatabase.Food f, FoodDatabase.Portion p) {
+        return FoodResponse.builder()
+                .id(f.id())
+                .name(f.name())
+                .servingLabel(f.servingLabel())
+                .servingGrams(f.servingGrams())
+                .grams(p.grams())
+                .calories(p.calories())
+                .protein(p.protein())
+                .carbs(p.carbs())
+                .fat(p.fat())
+                .build();
+    }
+}
@@ -5,9 +5,12 @@ import com.example.fit4ever.service.GoalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 import java.util.List;
 
@@ -25,16 +28,26 @@ public class GoalController {
         return goalService.create(r, auth.getName());
     }
 
-    @Operation(summary = "List all goals for the authenticated user")
+    @Operation(summary = "List all goals for the authenticated user; honours If-None-Match")
     @GetMapping
-    public List<GoalResponse> list(Authentication auth) {
+    public List<GoalResponse> list(Authentication auth, WebRequest request) {
+        if (request.checkNotModified(ETags.of(goalService.listVersion(auth.getName())))) return null;
         return goalService.list(auth.getName());
     }
 
-    @Operation(summary = "Update an existing goal")
+    @Operation(summary = "Get progress for all goals, optionally filtered by status (e.g. ACTIVE)")
+    @GetMapping("/progress")
+    public List<GoalProgressResponse> progressAll(@RequestParam(required = false) String status, Authentication auth) {
+        return goalService.progressAll(status, auth.getName());
+    }
+
+    @Operation(summary = "Update an existing goal; with If-Match, only if it is still at that version")
     @PutMapping("/{id}")
-    public GoalResponse update(@PathVariable Long id, @Valid @RequestBody UpdateGoalRequest r, Authentication auth) {
-        return goalService.update(id, r, auth.getName());
+    public ResponseEntity<GoalResponse> update(@PathVariable Long id, @Valid @RequestBody UpdateGoalRequest r,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               Authentication auth) {
+        GoalResponse updated = goalService.update(id, r, auth.getName(), ETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
     }
 
     @Operation(summary = "Get progress for a specific goal")
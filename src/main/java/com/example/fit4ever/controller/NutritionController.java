@@ -1,8 +1,12 @@
 package com.example.fit4ever.controller;
 
+import com.example.fit4ever.dto.BulkDeleteResponse;
 import com.example.fit4ever.dto.CreateFoodLogRequest;
+import com.example.fit4ever.dto.FoodLogPageResponse;
 import com.example.fit4ever.dto.FoodLogResponse;
 import com.example.fit4ever.dto.NutritionSummaryResponse;
+import com.example.fit4ever.dto.QuickAddFoodResponse;
+import com.example.fit4ever.service.FoodQuickAddService;
 import com.example.fit4ever.service.NutritionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -24,6 +29,7 @@ import java.util.List;
 @Tag(name = "Nutrition", description = "Nutrition logs and summaries")
 public class NutritionController {
     private final NutritionService nutritionService;
+    private final FoodQuickAddService foodQuickAddService;
 
     @Operation(summary = "Create a food log")
     @ApiResponse(responseCode = "200", description = "Created log",
@@ -33,18 +39,43 @@ public class NutritionController {
         return nutritionService.createFoodLog(request, auth.getName());
     }
 
-    @Operation(summary = "List logs by date")
+    @Operation(summary = "List logs by date; honours If-None-Match")
     @GetMapping("/logs")
-    public List<FoodLogResponse> listByDate(Authentication auth, @RequestParam("date") String date) {
+    public List<FoodLogResponse> listByDate(Authentication auth, @RequestParam("date") String date, WebRequest request) {
+        if (request.checkNotModified(ETags.of(nutritionService.logsVersion(auth.getName())))) return null;
         return nutritionService.listByDate(date, auth.getName());
     }
 
+    @Operation(summary = "List logs over a date range in diary order, keyset-paginated")
+    @GetMapping(value = "/logs", params = {"from", "to"})
+    public FoodLogPageResponse listRange(Authentication auth,
+                                         @RequestParam("from") String from,
+                                         @RequestParam("to") String to,
+                                         @RequestParam(value = "limit", required = false) Integer limit,
+                                         @RequestParam(value = "cursor", required = false) String cursor) {
+        return nutritionService.listRange(from, to, limit, cursor, auth.getName());
+    }
+
     @Operation(summary = "Delete a log by id")
     @DeleteMapping("/logs/{id}")
     public void deleteById(Authentication auth, @PathVariable Long id) {
         nutritionService.deleteById(id, auth.getName());
     }
 
+    @Operation(summary = "Delete several of your logs by id in one statement")
+    @DeleteMapping(value = "/logs", params = "ids")
+    public BulkDeleteResponse deleteByIds(Authentication auth, @RequestParam("ids") List<Long> ids) {
+        return new BulkDeleteResponse(nutritionService.deleteByIds(ids, auth.getName()));
+    }
+
+    @Operation(summary = "Delete all of your logs in a date range (inclusive) in one statement")
+    @DeleteMapping(value = "/logs", params = {"from", "to"})
+    public BulkDeleteResponse deleteByDateRange(Authentication auth,
+                                                @RequestParam("from") String from,
+                                                @RequestParam("to") String to) {
+        return new BulkDeleteResponse(nutritionService.deleteByDateRange(from, to, auth.getName()));
+    }
+
     @Operation(summary = "Summary of nutrition over a date range")
     @GetMapping("/summary")
     public NutritionSummaryResponse summary(Authentication auth,
@@ -52,6 +83,19 @@ public class NutritionController {
                                             @RequestParam(value = "to", required = false) String to) {
         return nutritionService.summary(from, to, auth.getName());
     }
-}
 
+    @Operation(summary = "Most frequently logged foods with their last-used macros")
+    @GetMapping("/foods/frequent")
+    public List<QuickAddFoodResponse> frequentFoods(Authentication auth,
+                                                    @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return foodQuickAddService.frequent(auth.getName(), limit);
+    }
+
+    @Operation(summary = "Most recently logged foods with their last-used macros")
+    @GetMapping("/foods/recent")
+    public List<QuickAddFoodResponse> recentFoods(Authentication auth,
+                                                  @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return foodQuickAddService.recent(auth.getName(), limit);
+    }
+}
 
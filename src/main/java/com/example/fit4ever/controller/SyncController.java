@@ -0,0 +1,32 @@
+package com.example.fit4ever.controller;
+
+import com.example.fit4ever.dto.SyncDtos.*;
+import com.example.fit4ever.service.SyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Sync", description = "Delta sync for offline clients")
+public class SyncController {
+    private final SyncService syncService;
+
+    @Operation(summary = "Workouts, food logs and goals changed or deleted since a sync token; everything without one")
+    @GetMapping
+    public SyncResponse pull(Authentication auth, @RequestParam(value = "since", required = false) String since) {
+        return syncService.pull(since, auth.getName());
+    }
+
+    @Operation(summary = "Apply a batch of offline changes; an op id that was already applied is not applied again")
+    @PostMapping
+    public SyncPushResponse push(Authentication auth, @Valid @RequestBody SyncPushRequest request) {
+        return syncService.push(request, auth);
+    }
+}
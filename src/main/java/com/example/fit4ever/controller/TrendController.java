@@ -0,0 +1,28 @@
+package com.example.fit4ever.controller;
+
+import com.example.fit4ever.dto.TrendDtos.TrendsResponse;
+import com.example.fit4ever.service.TrendService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/trends")
+@RequiredArgsConstructor
+@Tag(name = "Trends", description = "Rolling averages and trends over nutrition and training")
+public class TrendController {
+    private final TrendService trendService;
+
+    @Operation(summary = "Rolling averages, EMAs and week-over-week deltas through yesterday",
+            description = "metrics: calories, protein, carbs, fat, volume (default all); windows: 7, 14, 30 (default 7,30)")
+    @GetMapping
+    public TrendsResponse trends(Authentication auth,
+                                 @RequestParam(value = "metrics", required = false) List<String> metrics,
+                                 @RequestParam(value = "windows", required = false) List<Integer> windows) {
+        return trendService.trends(metrics, windows, auth.getName());
+    }
+}
@@ -6,8 +6,11 @@ import com.example.fit4ever.dto.WorkoutDtos.WorkoutDetail;
 import com.example.fit4ever.dto.WorkoutDtos.WorkoutSummary;
 import com.example.fit4ever.service.WorkoutService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -23,18 +26,24 @@ public class WorkoutController {
     }
 
     @GetMapping
-    public List<WorkoutSummary> list(Authentication authentication) {
+    public List<WorkoutSummary> list(Authentication authentication, WebRequest request) {
+        // Answers a matching If-None-Match with 304 before the list query runs
+        if (request.checkNotModified(ETags.of(workoutService.listVersion(authentication)))) return null;
         return workoutService.list(authentication);
     }
 
     @GetMapping("/{id}")
-    public WorkoutDetail get(Authentication authentication, @PathVariable Long id) {
-        return workoutService.get(authentication, id);
+    public WorkoutDetail get(Authentication authentication, @PathVariable Long id, WebRequest request) {
+        WorkoutDetail workout = workoutService.get(authentication, id);
+        return request.checkNotModified(ETags.of(workout.getVersion())) ? null : workout;
     }
 
     @PutMapping("/{id}")
-    public WorkoutDetail update(Authentication authentication, @PathVariable Long id, @RequestBody UpdateWorkoutRequest request) {
-        return workoutService.update(authentication, id, request);
+    public ResponseEntity<WorkoutDetail> update(Authentication authentication, @PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                @RequestBody UpdateWorkoutRequest request) {
+        WorkoutDetail updated = workoutService.update(authentication, id, ETags.expectedVersion(ifMatch), request);
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,49 @@
+package com.example.fit4ever.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ActivityDtos {
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ActivityDay {
+        private String date;
+        private boolean workout;
+        private boolean foodLog;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ActivityCalendarResponse {
+        private String from;
+        private String to;
+        private int workoutDays;
+        private int foodLogDays;
+        private List<ActivityDay> days;     // only days with some activity, oldest first
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Streak {
+        private int current;                // consecutive days ending today, or yesterday if today is still open
+        private int longest;
+        private boolean activeToday;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ActivityStreaksResponse {
+        private Streak workouts;
+        private Streak foodLogs;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.fit4ever.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BodyWeightDtos {
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BodyWeightRequest {
+        @NotNull(message = "Weight is required")
+        @DecimalMin(value = "20.0", message = "Weight must be at least 20 kg")
+        @DecimalMax(value = "400.0", message = "Weight must not exceed 400 kg")
+        private Double weightKg;
+        private Instant measuredAt;     // defaults to now
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BodyWeightResponse {
+        private Long id;
+        private Double weightKg;
+        private Instant measuredAt;
+        private String date;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkBodyWeightRequest {
+        @NotEmpty(message = "At least one reading is required")
+        @Size(max = 1000, message = "At most 1000 readings per request")
+        private List<@Valid @NotNull BodyWeightRequest> readings;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class BulkBodyWeightResponse {
+        private int recorded;
+        private String from;            // earliest day written
+        private String to;              // latest day written
+    }
+
+    /** One downsampled bucket starting on {@code start} and spanning the series' {@code bucketDays}. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class WeightPoint {
+        private String start;
+        private Double minKg;
+        private Double avgKg;
+        private Double maxKg;
+        private long samples;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class WeightSeriesResponse {
+        private String from;
+        private String to;
+        private int bucketDays;         // 1 = daily, 7 = weekly, larger multiples of 7 for long ranges
+        private List<WeightPoint> points;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.fit4ever.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDeleteResponse {
+    private Integer deleted;
+}
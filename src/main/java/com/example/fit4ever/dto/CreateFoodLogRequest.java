@@ -14,29 +14,32 @@ public class CreateFoodLogRequest {
     @Pattern(regexp = "^(BREAKFAST|LUNCH|DINNER|SNACK)$", message = "Meal type must be BREAKFAST, LUNCH, DINNER, or SNACK")
     private String mealType;
 
-    @NotBlank(message = "Item name is required")
+    // itemName and the four macros are required unless foodId is given (checked in NutritionService)
     @Size(min = 2, max = 100, message = "Item name must be between 2 and 100 characters")
     private String itemName;
 
-    @NotNull(message = "Calories is required")
     @Min(value = 0, message = "Calories must be non-negative")
     @Max(value = 10000, message = "Calories must not exceed 10,000")
     private Integer calories;
 
-    @NotNull(message = "Protein is required")
     @DecimalMin(value = "0.0", inclusive = true, message = "Protein must be non-negative")
     @DecimalMax(value = "1000.0", message = "Protein must not exceed 1000g")
     private Double protein;
 
-    @NotNull(message = "Carbs is required")
     @DecimalMin(value = "0.0", inclusive = true, message = "Carbs must be non-negative")
     @DecimalMax(value = "1000.0", message = "Carbs must not exceed 1000g")
     private Double carbs;
 
-    @NotNull(message = "Fat is required")
     @DecimalMin(value = "0.0", inclusive = true, message = "Fat must be non-negative")
     @DecimalMax(value = "1000.0", message = "Fat must not exceed 1000g")
     private Double fat;
-}
 
+    // Reference into the built-in food database; macros are then taken from it, scaled by servings
+    @Positive(message = "Food id must be positive")
+    private Integer foodId;
+
+    @DecimalMin(value = "0.1", message = "Servings must be at least 0.1")
+    @DecimalMax(value = "50.0", message = "Servings must not exceed 50")
+    private Double servings;
+}
 
@@ -0,0 +1,37 @@
+package com.example.fit4ever.dto;
+
+import com.example.fit4ever.dto.GoalDtos.GoalProgressResponse;
+import com.example.fit4ever.dto.GoalDtos.GoalResponse;
+import com.example.fit4ever.dto.WorkoutDtos.WorkoutSummary;
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DashboardDtos {
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class WorkoutsSection {
+        private int total;
+        private int lastSevenDays;
+        private List<WorkoutSummary> recent;        // newest first
+    }
+
+    /** Everything the dashboard shows; a section is null when it failed or missed its deadline. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DashboardResponse {
+        private String email;
+        private String date;
+        private WorkoutsSection workouts;
+        private List<FoodLogResponse> todayLogs;
+        private NutritionSummaryResponse weeklySummary;
+        private List<GoalResponse> goals;
+        private List<GoalProgressResponse> goalProgress;
+        private List<String> unavailable;           // names of the sections left null
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.fit4ever.dto;
+
+import lombok.*;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FoodDtos {
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FoodResponse {
+        private Integer id;
+        private String name;
+        private String servingLabel;  // e.g. "1 medium"
+        private Double servingGrams;
+        private Double grams;         // amount the nutrients below are for
+        private Integer calories;
+        private Double protein;
+        private Double carbs;
+        private Double fat;
+    }
+}
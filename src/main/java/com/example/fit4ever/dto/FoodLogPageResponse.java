@@ -0,0 +1,14 @@
+package com.example.fit4ever.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FoodLogPageResponse {
+    private List<FoodLogResponse> items;  // ordered by date, meal (BREAKFAST..SNACK), id
+    private String nextCursor;            // pass back as ?cursor= for the next page; null on the last page
+}
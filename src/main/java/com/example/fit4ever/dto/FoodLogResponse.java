@@ -15,6 +15,7 @@ public class FoodLogResponse {
     private Double protein;
     private Double carbs;
     private Double fat;
+    private Integer foodId;
 }
 
 
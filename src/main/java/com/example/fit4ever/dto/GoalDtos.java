@@ -34,7 +34,7 @@ public class GoalDtos {
         private Double targetValue;
         private String startDate;
         private String endDate;
-        private String status;           // ACTIVE/COMPLETED/CANCELLED
+        private String status;           // ACTIVE/COMPLETED/EXPIRED/CANCELLED
     }
 
     @Data
@@ -48,6 +48,7 @@ public class GoalDtos {
         private String startDate;
         private String endDate;
         private String status;
+        private Long version;
     }
 
     @Data
@@ -0,0 +1,18 @@
+package com.example.fit4ever.dto;
+
+import lombok.*;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class LiveEventDtos {
+    /** Data of a server-sent change event; the event name is {@link #type}. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ChangeEvent {
+        private String type;    // workout | foodLog | goal | bodyWeight
+        private Long id;        // the goal, for goal events
+        private String from;    // first day touched, or null for any day
+        private String to;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.fit4ever.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuickAddFoodResponse {
+    private String itemName;
+    private String mealType;     // meal it was last logged for
+    private Integer calories;    // last-used macros, ready to re-log as-is
+    private Double protein;
+    private Double carbs;
+    private Double fat;
+    private Long timesLogged;    // estimated (Space-Saving); only set for /frequent
+    private String lastLoggedOn;
+}
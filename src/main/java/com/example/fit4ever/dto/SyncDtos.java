@@ -0,0 +1,94 @@
+package com.example.fit4ever.dto;
+
+import com.example.fit4ever.dto.GoalDtos.GoalResponse;
+import com.example.fit4ever.dto.GoalDtos.UpdateGoalRequest;
+import com.example.fit4ever.dto.WorkoutDtos.CreateWorkoutRequest;
+import com.example.fit4ever.dto.WorkoutDtos.WorkoutDetail;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SyncDtos {
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SyncResponse {
+        private String token;                   // pass back as ?since= on the next pull
+        private boolean full;                   // true: everything the user has; replace local state
+        private List<WorkoutDetail> workouts;   // created or updated, each with all of its exercises
+        private List<FoodLogResponse> foodLogs;
+        private List<GoalResponse> goals;
+        private Deleted deleted;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Deleted {
+        private List<Long> workouts;
+        private List<Long> foodLogs;
+        private List<Long> goals;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SyncPushRequest {
+        @NotEmpty(message = "At least one op is required")
+        @Size(max = 500, message = "At most 500 ops per push")
+        private List<@Valid @NotNull SyncOp> ops;
+    }
+
+    /** One offline change. Ops are applied in order; a retried op id returns its first result. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SyncOp {
+        @NotBlank(message = "opId is required")
+        @Size(max = 64, message = "opId must be at most 64 characters")
+        private String opId;                    // client-generated, unique per user (e.g. a UUID)
+        @NotBlank
+        @Pattern(regexp = "^(workout|foodLog|goal)$", message = "entity must be workout, foodLog or goal")
+        private String entity;
+        @NotBlank
+        @Pattern(regexp = "^(upsert|delete)$", message = "action must be upsert or delete")
+        private String action;
+        private Long id;                        // server id; absent when upserting a new row
+        private Long baseVersion;               // version the client edited; a newer server version is a conflict
+        private CreateWorkoutRequest workout;
+        @Valid
+        private CreateFoodLogRequest foodLog;
+        private UpdateGoalRequest goal;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SyncOpResult {
+        private String opId;
+        private String status;                  // applied | duplicate | conflict | not_found | rejected
+        private Long id;
+        private Long version;
+        private String message;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class SyncPushResponse {
+        private List<SyncOpResult> results;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.fit4ever.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class TrendDtos {
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MetricTrend {
+        private String metric;                  // calories | protein | carbs | fat | volume
+        private Double latest;                  // value on the last completed day, null if nothing logged
+        private Map<Integer, Double> average;   // rolling mean by window size in days
+        private Map<Integer, Double> ema;       // exponential moving average by window size in days
+        private Double weekOverWeek;            // last 7 days' mean minus the previous 7 days'
+        private Double weekOverWeekPct;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TrendsResponse {
+        private String through;                 // last completed day included
+        private List<MetricTrend> metrics;
+    }
+}
@@ -74,6 +74,7 @@ public final class WorkoutDtos {
         private String notes;
         private LocalDate date;
         private List<ExerciseResponse> exercises;
+        private Long version;
     }
 
     @Data
@@ -86,6 +87,7 @@ public final class WorkoutDtos {
         private String notes;
         private LocalDate date;
         private List<ExerciseResponse> exercises;
+        private Long version;
     }
 }
 
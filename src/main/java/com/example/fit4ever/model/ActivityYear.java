@@ -0,0 +1,51 @@
+package com.example.fit4ever.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One user's activity days for one calendar year: per activity type, one bit per day of the year
+ * (bit {@code i} is day-of-year {@code i + 1}) packed into {@value #WORDS_PER_TYPE} longs, stored
+ * big-endian and back to back in {@link #bits}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@IdClass(ActivityYear.Key.class)
+@Table(name = "activity_years")
+public class ActivityYear {
+    public static final int WORKOUT = 0;
+    public static final int FOOD_LOG = 1;
+    public static final int TYPES = 2;
+    public static final int WORDS_PER_TYPE = 6; // 366 days fit in 6 x 64 bits
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "cal_year")
+    private Integer year;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false, length = TYPES * WORDS_PER_TYPE * Long.BYTES)
+    private byte[] bits;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Integer year;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.fit4ever.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "body_weights", indexes = {
+        @Index(name = "idx_bodyweight_user_date", columnList = "user_id,date,measured_at")
+})
+public class BodyWeight {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private LocalDate date; // Calendar day of measuredAt, for day-bounded queries
+
+    @Column(name = "measured_at", nullable = false)
+    private Instant measuredAt;
+
+    @Column(name = "weight_kg", nullable = false)
+    private Double weightKg;
+}
@@ -0,0 +1,43 @@
+package com.example.fit4ever.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Per-user "last modified" marker of one collection (workouts, goals, food logs). {@link #revision}
+ * is advanced in the same transaction as every change to the collection, so it can stand in for the
+ * list as its ETag without running the list query.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@IdClass(CollectionVersion.Key.class)
+@Table(name = "collection_versions")
+public class CollectionVersion {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(length = 32)
+    private String collection;
+
+    @Column(nullable = false)
+    private Long revision;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String collection;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
@@ -12,7 +13,11 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Builder
 @Table(name = "food_logs", indexes = {
-        @Index(name = "idx_foodlog_user_date", columnList = "user_id,date")
+        // Matches the diary order (date, meal, id) so range listings need no sort step. Named apart from
+        // the older (user_id, date) idx_foodlog_user_date, since ddl-auto=update matches indexes by name;
+        // databases created before this keep that one, now redundant and safe to drop
+        @Index(name = "idx_foodlog_user_date_meal_id", columnList = "user_id,date,meal_order,id"),
+        @Index(name = "idx_foodlog_user_updated", columnList = "user_id,updated_at")
 })
 public class FoodLog {
     @Id
@@ -25,6 +30,9 @@ public class FoodLog {
     @Column(nullable = false, length = 20)
     private String mealType; // Validated to be one of BREAKFAST/LUNCH/DINNER/SNACK
 
+    @Column(name = "meal_order")
+    private Integer mealOrder; // Position of mealType within a day, derived on save
+
     @NotBlank
     @Size(min = 2, max = 100)
     @Column(nullable = false, length = 100)
@@ -46,9 +54,33 @@ public class FoodLog {
     @Column(nullable = false)
     private Double fat;
 
+    private Integer foodId; // Built-in food database id, when logged from it
+
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
-}
 
+    @Version
+    private Long version;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt; // null on rows written before the column existed
+
+    /** Chronological position of a meal type within a day: BREAKFAST, LUNCH, DINNER, then SNACK. */
+    public static int mealOrderOf(String mealType) {
+        return switch (mealType) {
+            case "BREAKFAST" -> 0;
+            case "LUNCH" -> 1;
+            case "DINNER" -> 2;
+            default -> 3;
+        };
+    }
+
+    @PrePersist
+    @PreUpdate
+    void beforeWrite() {
+        if (mealType != null) mealOrder = mealOrderOf(mealType);
+        updatedAt = Instant.now();
+    }
+}
 
@@ -5,10 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity 
-@Table(name="goals")
+@Table(name="goals", indexes = {
+        @Index(name = "idx_goal_status_end", columnList = "status,end_date"),
+        @Index(name = "idx_goal_user_start", columnList = "user_id,start_date"),
+        @Index(name = "idx_goal_user_updated", columnList = "user_id,updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,7 +23,7 @@ public class Goal {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne 
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="user_id", nullable=false)
     private User user;
 
@@ -36,5 +41,17 @@ public class Goal {
     
     @Column(nullable=false) 
     @Builder.Default
-    private String status = "ACTIVE"; // ACTIVE | COMPLETED | CANCELLED
+    private String status = "ACTIVE"; // ACTIVE | COMPLETED | EXPIRED | CANCELLED
+
+    @Version
+    private Long version;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt; // null on rows written before the column existed
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.example.fit4ever.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/** Materialised progress counters for one goal, maintained from outbox events. */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "goal_progress")
+public class GoalProgress {
+    @Id
+    @Column(name = "goal_id")
+    private Long goalId;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    private long samples;
+
+    @Column(nullable = false)
+    private double total;
+
+    private Double baseline;
+
+    private Double latest;
+
+    @Column(name = "last_event_id")
+    private Long lastEventId; // highest outbox event projected so far
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
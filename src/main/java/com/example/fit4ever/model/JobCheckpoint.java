@@ -0,0 +1,41 @@
+package com.example.fit4ever.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/** Resume point of a chunked background job; one row per job name. */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Version
+    private Long version;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDate asOf; // the day the run evaluates against; kept when resuming
+
+    @Column(name = "last_end_date", nullable = false)
+    private LocalDate lastEndDate; // keyset position: everything up to (lastEndDate, lastId) is done
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "processed", nullable = false)
+    private long processed;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt; // null while a run is in progress
+}
@@ -0,0 +1,20 @@
+package com.example.fit4ever.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A row per cluster-wide singleton job. The node whose transaction holds the row lock does the work;
+ * the others skip it until that transaction ends.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "job_locks")
+public class JobLock {
+    @Id
+    @Column(length = 64)
+    private String name;
+}
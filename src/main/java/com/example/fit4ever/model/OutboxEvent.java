@@ -0,0 +1,58 @@
+package com.example.fit4ever.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A domain change recorded in the same transaction as the change itself and relayed to consumers
+ * after commit. Rows are kept for a while after processing so they can be replayed; parked rows are
+ * kept until they are replayed or removed by hand.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_processed", columnList = "processed_at,id")
+})
+public class OutboxEvent {
+    public static final String WORKOUT = "WORKOUT";
+    public static final String FOOD_LOG = "FOOD_LOG";
+    public static final String BODY_WEIGHT = "BODY_WEIGHT";
+    public static final String GOAL = "GOAL";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String type; // WORKOUT | FOOD_LOG | BODY_WEIGHT | GOAL
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "entity_id")
+    private Long entityId; // set when the change concerns one known row, e.g. a goal
+
+    @Column(name = "from_date")
+    private LocalDate fromDate; // affected days; both null means "any day"
+
+    @Column(name = "to_date")
+    private LocalDate toDate;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    @Column(name = "attempts")
+    private Integer attempts; // failed deliveries so far; null means none
+
+    @Column(name = "parked_at")
+    private Instant parkedAt; // set once delivery has failed too often; parked events are skipped until replayed
+}
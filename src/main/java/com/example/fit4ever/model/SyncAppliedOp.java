@@ -0,0 +1,38 @@
+package com.example.fit4ever.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/** A client sync operation that has been applied, keyed by the client's op id so retries are no-ops. */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sync_applied_ops", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sync_op_user_op", columnNames = {"user_id", "op_id"})
+})
+public class SyncAppliedOp {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "op_id", nullable = false, length = 64)
+    private String opId;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    private Long version;
+
+    @Column(name = "applied_at", nullable = false)
+    private Instant appliedAt;
+}
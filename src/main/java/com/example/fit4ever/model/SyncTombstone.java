@@ -0,0 +1,36 @@
+package com.example.fit4ever.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/** Records that a synced row was deleted, so delta sync can tell clients to drop it. */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "sync_tombstones", indexes = {
+        @Index(name = "idx_tombstone_user_deleted", columnList = "user_id,deleted_at")
+})
+public class SyncTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "entity_type", nullable = false, length = 32)
+    private String entityType; // OutboxEvent.WORKOUT | FOOD_LOG | GOAL
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+}
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,7 +16,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "workouts")
+@Table(name = "workouts", indexes = {
+        @Index(name = "idx_workout_user_date", columnList = "user_id,workout_date"),
+        @Index(name = "idx_workout_user_updated", columnList = "user_id,updated_at")
+})
 public class Workout {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,9 +38,21 @@ public class Workout {
     @Column(name = "workout_date", nullable = false)
     private LocalDate date;
 
+    @Version
+    private Long version;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt; // null on rows written before the column existed
+
     @OneToMany(mappedBy = "workout", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private List<Exercise> exercises = new ArrayList<>();
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
 
  
\ No newline at end of file
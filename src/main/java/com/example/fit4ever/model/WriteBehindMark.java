@@ -0,0 +1,36 @@
+package com.example.fit4ever.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Highest journal sequence number of a write-behind journal whose entry is in the database, plus the
+ * sequence numbers at or below it that were still pending at the time (held back by a range delete
+ * that had not ended). Written in the same transaction as the rows it covers, so replaying the journal
+ * after a crash skips everything flushed instead of inserting it twice, and loses nothing unflushed.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "write_behind_marks")
+public class WriteBehindMark {
+    public static final int MAX_PENDING_SEQS = 2000;
+
+    @Id
+    @Column(length = 64)
+    private String journal;
+
+    @Column(name = "flushed_seq", nullable = false)
+    private Long flushedSeq;
+
+    @Column(name = "pending_seqs", length = MAX_PENDING_SEQS)
+    private String pendingSeqs; // space-separated; null when none
+
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,10 @@
+package com.example.fit4ever.repository;
+
+import com.example.fit4ever.model.ActivityYear;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ActivityYearRepository extends JpaRepository<ActivityYear, ActivityYear.Key> {
+    List<ActivityYear> findByUserIdOrderByYearAsc(Long userId);
+}
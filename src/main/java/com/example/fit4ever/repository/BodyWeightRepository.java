@@ -0,0 +1,47 @@
+package com.example.fit4ever.repository;
+
+import com.example.fit4ever.model.BodyWeight;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/** Weigh-ins are insert-only: readings are appended and read back by (user, date) range, never updated. */
+public interface BodyWeightRepository extends JpaRepository<BodyWeight, Long> {
+
+    interface DailyWeight {
+        LocalDate getDate();
+        Double getMinKg();
+        Double getMaxKg();
+        Double getSumKg();
+        Long getSamples();
+    }
+
+    interface Reading {
+        LocalDate getDate();
+        Instant getMeasuredAt();
+        Double getWeightKg();
+    }
+
+    /** One row per day with readings in [from, to], aggregated in the database over idx_bodyweight_user_date. */
+    @Query("""
+            select b.date as date, min(b.weightKg) as minKg, max(b.weightKg) as maxKg,
+                   sum(b.weightKg) as sumKg, count(b.id) as samples
+            from BodyWeight b
+            where b.user.id = :userId and b.date between :from and :to
+            group by b.date
+            order by b.date
+            """)
+    List<DailyWeight> dailyStats(Long userId, LocalDate from, LocalDate to);
+
+    /** Raw readings from {@code from} on, oldest first, for the recent-window cache. */
+    @Query("""
+            select b.date as date, b.measuredAt as measuredAt, b.weightKg as weightKg
+            from BodyWeight b
+            where b.user.id = :userId and b.date >= :from
+            order by b.measuredAt
+            """)
+    List<Reading> readingsSince(Long userId, LocalDate from);
+}
@@ -0,0 +1,34 @@
+package com.example.fit4ever.repository;
+
+import com.example.fit4ever.model.CollectionVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface CollectionVersionRepository extends JpaRepository<CollectionVersion, CollectionVersion.Key> {
+
+    @Query("select c.revision from CollectionVersion c where c.userId = :userId and c.collection = :collection")
+    Optional<Long> findRevision(Long userId, String collection);
+
+    @Modifying
+    @Query("""
+            update CollectionVersion c set c.revision = c.revision + 1, c.updatedAt = :at
+            where c.userId = :userId and c.collection = :collection
+            """)
+    int increment(Long userId, String collection, Instant at);
+
+    /** Locks the user's row until the caller commits, so concurrent first writers create their rows one at a time. */
+    @Query(value = "select id from users where id = :userId for update", nativeQuery = true)
+    Optional<Long> lockUser(Long userId);
+
+    /** Plain insert (not a merge), so a concurrent creator makes it fail instead of resetting the row. */
+    @Modifying
+    @Query(value = """
+            insert into collection_versions (user_id, collection, revision, updated_at)
+            values (:userId, :collection, 0, :at)
+            """, nativeQuery = true)
+    int insert(Long userId, String collection, Instant at);
+}
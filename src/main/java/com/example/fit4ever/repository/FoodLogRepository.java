@@ -2,13 +2,108 @@ package com.example.fit4ever.repository;
 
 import com.example.fit4ever.model.FoodLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface FoodLogRepository extends JpaRepository<FoodLog, Long> {
     List<FoodLog> findByUserIdAndDateBetween(Long userId, LocalDate from, LocalDate to);
     List<FoodLog> findByUserIdAndDate(Long userId, LocalDate date);
+    List<FoodLog> findByUserIdAndDateOrderByMealOrderAscIdAsc(Long userId, LocalDate date);
+
+    /** Delta sync: the user's logs changed after {@code since}, via idx_foodlog_user_updated. */
+    List<FoodLog> findByUserIdAndUpdatedAtAfterOrderByIdAsc(Long userId, Instant since);
+    List<FoodLog> findAllByUserIdOrderByIdAsc(Long userId);
+
+    interface DiaryRow {
+        Long getId();
+        LocalDate getDate();
+        String getMealType();
+        Integer getMealOrder();
+        String getItemName();
+        Integer getCalories();
+        Double getProtein();
+        Double getCarbs();
+        Double getFat();
+        Integer getFoodId();
+    }
+
+    /**
+     * Keyset page over [from, to] in diary order, strictly after the (date, mealOrder, id) cursor. The
+     * row-value comparison lets idx_foodlog_user_date_meal_id seek straight to the cursor, and only the
+     * listed columns are read, not whole entities.
+     */
+    @Query(value = """
+            select id, date, meal_type as mealType, meal_order as mealOrder, item_name as itemName,
+                   calories, protein, carbs, fat, food_id as foodId
+            from food_logs
+            where user_id = :userId and date between :from and :to
+              and (date, meal_order, id) > (:afterDate, :afterMeal, :afterId)
+            order by date, meal_order, id
+            limit :limit
+            """, nativeQuery = true)
+    List<DiaryRow> findRangePage(Long userId, LocalDate from, LocalDate to,
+                                 LocalDate afterDate, int afterMeal, long afterId, int limit);
+
+    @Modifying
+    @Query("""
+            update FoodLog f set f.mealOrder = case f.mealType
+                when 'BREAKFAST' then 0 when 'LUNCH' then 1 when 'DINNER' then 2 else 3 end
+            where f.mealOrder is null
+            """)
+    int backfillMealOrder();
+
+    @Modifying
+    @Query("update FoodLog f set f.version = 0 where f.version is null")
+    int backfillVersion();
+    List<FoodLog> findTop200ByUserIdOrderByDateDescIdDesc(Long userId);
+
+    interface DailyNutrition {
+        LocalDate getDate();
+        Long getCalories();
+        Double getProtein();
+        Double getCarbs();
+        Double getFat();
+    }
+
+    /** Per-day totals over [from, to], one row per day with logs. */
+    @Query("""
+            select f.date as date, sum(f.calories) as calories, sum(f.protein) as protein,
+                   sum(f.carbs) as carbs, sum(f.fat) as fat
+            from FoodLog f
+            where f.user.id = :userId and f.date between :from and :to
+            group by f.date
+            """)
+    List<DailyNutrition> dailyTotals(Long userId, LocalDate from, LocalDate to);
+
+    interface DateSpan {
+        LocalDate getEarliest();
+        LocalDate getLatest();
+    }
+
+    /** Days spanned by those of {@code ids} that are the user's logs; both null when none are. */
+    @Query("select min(f.date) as earliest, max(f.date) as latest from FoodLog f where f.user.id = :userId and f.id in :ids")
+    DateSpan findDateSpanByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    @Query("select distinct f.date from FoodLog f where f.user.id = :userId and f.date between :from and :to")
+    List<LocalDate> findActiveDays(Long userId, LocalDate from, LocalDate to);
+
+    // Ownership-checked, set-based deletes: one statement each, no entity loading
+    @Modifying
+    @Query("delete from FoodLog f where f.id = :id and f.user.id = :userId")
+    int deleteByIdAndUserId(Long id, Long userId);
+
+    @Modifying
+    @Query("delete from FoodLog f where f.user.id = :userId and f.id in :ids")
+    int deleteByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from FoodLog f where f.user.id = :userId and f.date between :from and :to")
+    int deleteByUserIdAndDateBetween(Long userId, LocalDate from, LocalDate to);
 }
 
 
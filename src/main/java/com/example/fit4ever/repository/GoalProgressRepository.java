@@ -0,0 +1,7 @@
+package com.example.fit4ever.repository;
+
+import com.example.fit4ever.model.GoalProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface GoalProgressRepository extends JpaRepository<GoalProgress, Long> {
+}
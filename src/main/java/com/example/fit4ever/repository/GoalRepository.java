@@ -1,9 +1,114 @@
 package com.example.fit4ever.repository;
 
 import com.example.fit4ever.model.Goal;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface GoalRepository extends JpaRepository<Goal, Long> {
   List<Goal> findByUserIdOrderByStartDateDesc(Long userId);
+
+  /** Owner-scoped lookup: compares the user_id column, never loads the User. */
+  Optional<Goal> findByIdAndUserId(Long id, Long userId);
+
+  interface GoalSummary {
+    Long getId();
+    String getType();
+    Double getTargetValue();
+    LocalDate getStartDate();
+    LocalDate getEndDate();
+    String getStatus();
+    Long getVersion();
+  }
+
+  /** The user's goals, newest first, as flat rows served by idx_goal_user_start. */
+  @Query("""
+      select g.id as id, g.type as type, g.targetValue as targetValue,
+             g.startDate as startDate, g.endDate as endDate, g.status as status, g.version as version
+      from Goal g
+      where g.user.id = :userId
+      order by g.startDate desc
+      """)
+  List<GoalSummary> findSummariesByUserId(Long userId);
+  List<Goal> findByUserIdAndStatusOrderByStartDateDesc(Long userId, String status);
+  List<Goal> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+  List<Goal> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Limit limit);
+
+  /** Delta sync: the user's goals changed after {@code since}, via idx_goal_user_updated. */
+  List<Goal> findByUserIdAndUpdatedAtAfterOrderByIdAsc(Long userId, Instant since);
+
+  /** Keyset page of ACTIVE goals in (endDate, id) order, served by idx_goal_status_end. */
+  @Query("""
+      select g from Goal g
+      where g.status = 'ACTIVE'
+        and (g.endDate > :afterEnd or (g.endDate = :afterEnd and g.id > :afterId))
+      order by g.endDate, g.id
+      """)
+  List<Goal> findActivePage(LocalDate afterEnd, long afterId, Limit limit);
+
+  /** Changes status only for goals that are still ACTIVE, so a concurrent user edit wins. */
+  @Modifying
+  @Query("""
+      update Goal g set g.status = :status, g.version = g.version + 1, g.updatedAt = :at
+      where g.id in :ids and g.status = 'ACTIVE'
+      """)
+  int closeActive(Collection<Long> ids, String status, Instant at);
+
+  @Modifying
+  @Query("update Goal g set g.version = 0 where g.version is null")
+  int backfillVersion();
+
+  /** The user's goals of the given types whose window overlaps [from, to]. */
+  @Query("""
+      select g from Goal g
+      where g.user.id = :userId and g.type in :types and g.startDate <= :to and g.endDate >= :from
+      """)
+  List<Goal> findOverlapping(Long userId, Collection<String> types, LocalDate from, LocalDate to);
+
+  // Progress aggregates for many goals at once: one grouped statement per goal type, each goal
+  // joined to its owner's rows inside its own [startDate, endDate] window.
+
+  interface GoalTotals {
+    Long getGoalId();
+    Long getSamples();
+    Long getTotal();
+  }
+
+  interface GoalDailyWeight {
+    Long getGoalId();
+    LocalDate getDate();
+    Double getWeightKg();
+  }
+
+  @Query("""
+      select g.id as goalId, count(w.id) as samples, count(w.id) as total
+      from Goal g, Workout w
+      where g.id in :goalIds and w.user = g.user and w.date between g.startDate and g.endDate
+      group by g.id
+      """)
+  List<GoalTotals> countWorkoutsPerGoal(Collection<Long> goalIds);
+
+  @Query("""
+      select g.id as goalId, count(distinct f.date) as samples, sum(f.calories) as total
+      from Goal g, FoodLog f
+      where g.id in :goalIds and f.user = g.user and f.date between g.startDate and g.endDate
+      group by g.id
+      """)
+  List<GoalTotals> sumCaloriesPerGoal(Collection<Long> goalIds);
+
+  /** Average weigh-in per day inside each goal's window, one row per goal and day with readings. */
+  @Query("""
+      select g.id as goalId, b.date as date, avg(b.weightKg) as weightKg
+      from Goal g, BodyWeight b
+      where g.id in :goalIds and b.user = g.user and b.date between g.startDate and g.endDate
+      group by g.id, b.date
+      """)
+  List<GoalDailyWeight> dailyWeightPerGoal(Collection<Long> goalIds);
 }
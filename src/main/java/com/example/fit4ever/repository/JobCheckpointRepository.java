@@ -0,0 +1,7 @@
+package com.example.fit4ever.repository;
+
+import com.example.fit4ever.model.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -0,0 +1,24 @@
+package com.example.fit4ever.repository;
+
+import com.example.fit4ever.model.JobLock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Optional;
+
+public interface JobLockRepository extends JpaRepository<JobLock, String> {
+
+    /**
+     * Locks the job's row until the current transaction ends; empty when another transaction holds
+     * it (SKIP LOCKED, lock timeout -2) or the row does not exist. Dialects without SKIP LOCKED (H2)
+     * wait for the holder instead and fail with a lock timeout.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select l from JobLock l where l.name = :name")
+    Optional<JobLock> tryLock(String name);
+}
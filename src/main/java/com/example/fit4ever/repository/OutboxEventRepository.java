@@ -0,0 +1,46 @@
+package com.example.fit4ever.repository;
+
+import com.example.fit4ever.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findByProcessedAtIsNullAndParkedAtIsNullOrderByIdAsc(Limit limit);
+
+    @Query("select coalesce(max(e.id), 0) from OutboxEvent e")
+    long maxId();
+
+    /** The outbox tail after {@code afterId}, processed or not; every node reads it for live updates. */
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(long afterId, Limit limit);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.processedAt = :at where e.id in :ids")
+    int markProcessed(Collection<Long> ids, Instant at);
+
+    /** Puts already processed (or parked) events back in the queue, from {@code fromId} on. */
+    @Modifying
+    @Query("""
+            update OutboxEvent e set e.processedAt = null, e.parkedAt = null, e.attempts = null
+            where e.id >= :fromId and (e.processedAt is not null or e.parkedAt is not null)
+            """)
+    int markUnprocessedFrom(long fromId);
+
+    /** Counts a failed delivery and parks the event once it has failed {@code maxAttempts} times. */
+    @Modifying
+    @Query("""
+            update OutboxEvent e set e.attempts = coalesce(e.attempts, 0) + 1,
+                e.parkedAt = case when coalesce(e.attempts, 0) + 1 >= :maxAttempts then :at else null end
+            where e.id = :id
+            """)
+    int recordFailure(long id, int maxAttempts, Instant at);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.processedAt < :cutoff")
+    int deleteProcessedBefore(Instant cutoff);
+}
@@ -0,0 +1,17 @@
+package com.example.fit4ever.repository;
+
+import com.example.fit4ever.model.SyncAppliedOp;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface SyncAppliedOpRepository extends JpaRepository<SyncAppliedOp, Long> {
+    Optional<SyncAppliedOp> findByUserIdAndOpId(Long userId, String opId);
+
+    @Modifying
+    @Query("delete from SyncAppliedOp o where o.appliedAt < :cutoff")
+    int deleteAppliedBefore(Instant cutoff);
+}
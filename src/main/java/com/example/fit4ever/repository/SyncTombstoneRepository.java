@@ -0,0 +1,37 @@
+package com.example.fit4ever.repository;
+
+import com.example.fit4ever.model.SyncTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+    List<SyncTombstone> findByUserIdAndDeletedAtAfter(Long userId, Instant since);
+
+    // Tombstones for the food logs a set-based delete is about to remove: one statement, and only rows
+    // that really are the user's, whatever ids or range the caller named
+    @Modifying
+    @Query(value = """
+            insert into sync_tombstones (user_id, entity_type, entity_id, deleted_at)
+            select user_id, :type, id, :at from food_logs
+            where user_id = :userId and date between :from and :to
+            """, nativeQuery = true)
+    int insertForFoodLogsBetween(String type, Long userId, LocalDate from, LocalDate to, Instant at);
+
+    @Modifying
+    @Query(value = """
+            insert into sync_tombstones (user_id, entity_type, entity_id, deleted_at)
+            select user_id, :type, id, :at from food_logs
+            where user_id = :userId and id in :ids
+            """, nativeQuery = true)
+    int insertForFoodLogsIn(String type, Long userId, Collection<Long> ids, Instant at);
+
+    @Modifying
+    @Query("delete from SyncTombstone t where t.deletedAt < :cutoff")
+    int deleteDeletedBefore(Instant cutoff);
+}
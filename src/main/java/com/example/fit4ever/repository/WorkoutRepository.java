@@ -2,15 +2,58 @@ package com.example.fit4ever.repository;
 
 import com.example.fit4ever.model.Workout;
 import com.example.fit4ever.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 public interface WorkoutRepository extends JpaRepository<Workout, Long> {
+    /** The workout list, with exercises in the same query rather than one query per workout. */
+    @EntityGraph(attributePaths = "exercises")
     List<Workout> findByUserOrderByDateDesc(User user);
+    @EntityGraph(attributePaths = "exercises")
+    List<Workout> findByUserIdOrderByDateDesc(Long userId);
     Optional<Workout> findByIdAndUser(Long id, User user);
     void deleteByIdAndUser(Long id, User user);
+
+    /** Delta sync: the user's workouts changed after {@code since}, with their exercises, via idx_workout_user_updated. */
+    @EntityGraph(attributePaths = "exercises")
+    List<Workout> findByUserIdAndUpdatedAtAfterOrderByIdAsc(Long userId, Instant since);
+
+    @EntityGraph(attributePaths = "exercises")
+    List<Workout> findAllByUserIdOrderByIdAsc(Long userId);
+
+    @Modifying
+    @Query("update Workout w set w.version = 0 where w.version is null")
+    int backfillVersion();
+
+    interface DailyVolume {
+        LocalDate getDate();
+        Double getVolume();
+    }
+
+    /**
+     * Training volume (sets x reps x weight) per day over [from, to], one row per day with workouts.
+     * Exercises logged as ranges count at the middle of the range; bodyweight exercises count as zero.
+     */
+    @Query("""
+            select w.date as date,
+                   sum(coalesce(e.setsCount, 0)
+                       * coalesce(e.repsPerSet, (e.minReps + e.maxReps) / 2.0, 0)
+                       * coalesce(e.weight, (e.minWeight + e.maxWeight) / 2.0, 0)) as volume
+            from Workout w left join w.exercises e
+            where w.user.id = :userId and w.date between :from and :to
+            group by w.date
+            """)
+    List<DailyVolume> dailyVolume(Long userId, LocalDate from, LocalDate to);
+
+    @Query("select distinct w.date from Workout w where w.user.id = :userId and w.date between :from and :to")
+    List<LocalDate> findActiveDays(Long userId, LocalDate from, LocalDate to);
 }
 
 
@@ -0,0 +1,18 @@
+package com.example.fit4ever.repository;
+
+import com.example.fit4ever.model.WriteBehindMark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+
+public interface WriteBehindMarkRepository extends JpaRepository<WriteBehindMark, String> {
+
+    @Modifying
+    @Query("""
+            update WriteBehindMark m set m.flushedSeq = :seq, m.pendingSeqs = :pendingSeqs, m.updatedAt = :at
+            where m.journal = :journal
+            """)
+    int moveTo(String journal, long seq, String pendingSeqs, Instant at);
+}
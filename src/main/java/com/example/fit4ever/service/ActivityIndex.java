@@ -0,0 +1,265 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.dto.ActivityDtos.*;
+import com.example.fit4ever.model.ActivityYear;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.repository.ActivityYearRepository;
+import com.example.fit4ever.repository.FoodLogRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.repository.WorkoutRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Per-user activity calendar: which days had a workout and which had food logged, as one bit per
+ * day per type. Persisted as a small blob per user-year and maintained from the same outbox events
+ * as goal progress, so creates, edits, deletes and write-behind flushes all land here. Each event
+ * recomputes its days from source, which keeps redelivery harmless. Reads decode a user's years
+ * once into a {@link DayBitmap} per type and answer calendars and streaks from memory.
+ */
+@Service
+@Slf4j
+public class ActivityIndex implements OutboxConsumer {
+    private static final LocalDate ANY_FROM = LocalDate.of(1, 1, 1);
+    private static final LocalDate ANY_TO = LocalDate.of(9999, 12, 31);
+    private static final int DEFAULT_CALENDAR_DAYS = 365;
+    private static final int MAX_CALENDAR_DAYS = 366 * 5;
+    private static final int REBUILD_PAGE = 200;
+
+    private final ActivityYearRepository activityYearRepository;
+    private final WorkoutRepository workoutRepository;
+    private final FoodLogRepository foodLogRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Cache<Long, DayBitmap[]> byUser = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(6))
+            .build();
+
+    public ActivityIndex(ActivityYearRepository activityYearRepository, WorkoutRepository workoutRepository,
+                         FoodLogRepository foodLogRepository, UserRepository userRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.activityYearRepository = activityYearRepository;
+        this.workoutRepository = workoutRepository;
+        this.foodLogRepository = foodLogRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Applies a batch of outbox events; a user's events are coalesced into one day range per type. */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(List<OutboxEvent> events) {
+        Map<Long, Map<Integer, LocalDate[]>> ranges = new LinkedHashMap<>();
+        for (OutboxEvent e : events) {
+            int type;
+            if (OutboxEvent.WORKOUT.equals(e.getType())) type = ActivityYear.WORKOUT;
+            else if (OutboxEvent.FOOD_LOG.equals(e.getType())) type = ActivityYear.FOOD_LOG;
+            else continue;
+            LocalDate from = e.getFromDate() == null ? ANY_FROM : e.getFromDate();
+            LocalDate to = e.getToDate() == null ? ANY_TO : e.getToDate();
+            ranges.computeIfAbsent(e.getUserId(), k -> new HashMap<>())
+                    .merge(type, new LocalDate[]{from, to}, (a, b) -> new LocalDate[]{
+                            a[0].isBefore(b[0]) ? a[0] : b[0], a[1].isAfter(b[1]) ? a[1] : b[1]});
+        }
+        ranges.forEach(this::refresh);
+        evictAfterCommit(ranges.keySet());
+    }
+
+    /**
+     * Recomputes the whole index of every user, or only of {@code userId} when it is not null,
+     * with one transaction per page of {@value #REBUILD_PAGE} users.
+     *
+     * @return number of users rebuilt
+     */
+    public int rebuild(Long userId) {
+        Map<Integer, LocalDate[]> everything = Map.of(
+                ActivityYear.WORKOUT, new LocalDate[]{ANY_FROM, ANY_TO},
+                ActivityYear.FOOD_LOG, new LocalDate[]{ANY_FROM, ANY_TO});
+        if (userId != null) {
+            transactionTemplate.executeWithoutResult(status -> refresh(userId, everything));
+            byUser.invalidate(userId);
+            log.info("Rebuilt activity index of user {}", userId);
+            return 1;
+        }
+        int total = 0;
+        long after = 0;
+        while (true) {
+            long afterId = after;
+            List<Long> page = transactionTemplate.execute(status -> userRepository.findIdsAfter(afterId, Limit.of(REBUILD_PAGE)));
+            if (page.isEmpty()) break;
+            transactionTemplate.executeWithoutResult(status -> page.forEach(id -> refresh(id, everything)));
+            page.forEach(byUser::invalidate);
+            total += page.size();
+            after = page.get(page.size() - 1);
+        }
+        log.info("Rebuilt activity index for {} users", total);
+        return total;
+    }
+
+    @Transactional(readOnly = true)
+    public ActivityCalendarResponse calendar(String from, String to, String email) {
+        LocalDate toDate = (to == null || to.isBlank()) ? LocalDate.now() : LocalDate.parse(to);
+        LocalDate fromDate = (from == null || from.isBlank())
+                ? toDate.minusDays(DEFAULT_CALENDAR_DAYS - 1) : LocalDate.parse(from);
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_CALENDAR_DAYS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_CALENDAR_DAYS + " days");
+        }
+        DayBitmap[] bitmaps = load(email);
+        List<LocalDate> workoutDays = bitmaps[ActivityYear.WORKOUT].activeDays(fromDate, toDate);
+        List<LocalDate> foodDays = bitmaps[ActivityYear.FOOD_LOG].activeDays(fromDate, toDate);
+        TreeSet<LocalDate> active = new TreeSet<>(workoutDays);
+        active.addAll(foodDays);
+        Set<LocalDate> workouts = new HashSet<>(workoutDays);
+        Set<LocalDate> foods = new HashSet<>(foodDays);
+        List<ActivityDay> days = new ArrayList<>(active.size());
+        for (LocalDate d : active) {
+            days.add(new ActivityDay(d.toString(), workouts.contains(d), foods.contains(d)));
+        }
+        return ActivityCalendarResponse.builder()
+                .from(fromDate.toString())
+                .to(toDate.toString())
+                .workoutDays(workoutDays.size())
+                .foodLogDays(foodDays.size())
+                .days(days)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ActivityStreaksResponse streaks(String email) {
+        DayBitmap[] bitmaps = load(email);
+        LocalDate today = LocalDate.now();
+        return new ActivityStreaksResponse(
+                streak(bitmaps[ActivityYear.WORKOUT], today),
+                streak(bitmaps[ActivityYear.FOOD_LOG], today));
+    }
+
+    /** A streak is still current until a whole day passes without activity, so it may end yesterday. */
+    private static Streak streak(DayBitmap bitmap, LocalDate today) {
+        int current = bitmap.get(today) ? bitmap.runEndingOn(today) : bitmap.runEndingOn(today.minusDays(1));
+        return new Streak(current, bitmap.longestRun(), bitmap.get(today));
+    }
+
+    private DayBitmap[] load(String email) {
+        Long userId = userRepository.findIdByEmail(email)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+        return byUser.get(userId, this::decode);
+    }
+
+    private DayBitmap[] decode(Long userId) {
+        List<ActivityYear> years = activityYearRepository.findByUserIdOrderByYearAsc(userId);
+        DayBitmap[] out = new DayBitmap[ActivityYear.TYPES];
+        LocalDate origin = years.isEmpty() ? LocalDate.now() : LocalDate.of(years.get(0).getYear(), 1, 1);
+        int days = years.isEmpty() ? 0
+                : (int) ChronoUnit.DAYS.between(origin, LocalDate.of(years.get(years.size() - 1).getYear() + 1, 1, 1));
+        for (int type = 0; type < ActivityYear.TYPES; type++) {
+            out[type] = new DayBitmap(origin, days);
+            for (ActivityYear y : years) {
+                out[type].putYear(y.getYear(), words(y.getBits(), type));
+            }
+        }
+        return out;
+    }
+
+    /** Clears each type's bits over its range in the user's stored years, then sets the days found in source. */
+    private void refresh(Long userId, Map<Integer, LocalDate[]> rangesByType) {
+        Map<Integer, ActivityYear> years = new TreeMap<>();
+        activityYearRepository.findByUserIdOrderByYearAsc(userId).forEach(y -> years.put(y.getYear(), y));
+        Map<Integer, byte[]> bits = new HashMap<>();
+        years.forEach((year, row) -> bits.put(year, row.getBits().clone()));
+
+        rangesByType.forEach((type, range) -> {
+            LocalDate from = range[0];
+            LocalDate to = range[1];
+            bits.forEach((year, blob) -> {
+                LocalDate first = LocalDate.of(year, 1, 1);
+                LocalDate last = LocalDate.of(year, 12, 31);
+                for (LocalDate d = from.isAfter(first) ? from : first; !d.isAfter(to) && !d.isAfter(last); d = d.plusDays(1)) {
+                    setBit(blob, type, d.getDayOfYear() - 1, false);
+                }
+            });
+            List<LocalDate> active = type == ActivityYear.WORKOUT
+                    ? workoutRepository.findActiveDays(userId, from, to)
+                    : foodLogRepository.findActiveDays(userId, from, to);
+            for (LocalDate d : active) {
+                byte[] blob = bits.computeIfAbsent(d.getYear(), y -> new byte[ActivityYear.TYPES * ActivityYear.WORDS_PER_TYPE * Long.BYTES]);
+                setBit(blob, type, d.getDayOfYear() - 1, true);
+            }
+        });
+
+        Instant now = Instant.now();
+        List<ActivityYear> changed = new ArrayList<>();
+        bits.forEach((year, blob) -> {
+            ActivityYear row = years.get(year);
+            if (row == null) {
+                changed.add(ActivityYear.builder().userId(userId).year(year).bits(blob).updatedAt(now).build());
+            } else if (!Arrays.equals(row.getBits(), blob)) {
+                row.setBits(blob);
+                row.setUpdatedAt(now);
+                changed.add(row);
+            }
+        });
+        activityYearRepository.saveAll(changed);
+    }
+
+    private static long[] words(byte[] blob, int type) {
+        ByteBuffer buf = ByteBuffer.wrap(blob, type * ActivityYear.WORDS_PER_TYPE * Long.BYTES,
+                ActivityYear.WORDS_PER_TYPE * Long.BYTES);
+        long[] words = new long[ActivityYear.WORDS_PER_TYPE];
+        for (int i = 0; i < words.length; i++) words[i] = buf.getLong();
+        return words;
+    }
+
+    private static void setBit(byte[] blob, int type, int dayOfYear, boolean on) {
+        // Big-endian longs: byte 7 of each word holds its lowest 8 bits
+        int wordStart = (type * ActivityYear.WORDS_PER_TYPE + (dayOfYear >>> 6)) * Long.BYTES;
+        int bit = dayOfYear & 63;
+        int index = wordStart + 7 - (bit >>> 3);
+        byte mask = (byte) (1 << (bit & 7));
+        blob[index] = (byte) (on ? blob[index] | mask : blob[index] & ~mask);
+    }
+
+    private void evictAfterCommit(Set<Long> userIds) {
+        if (userIds.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            byUser.invalidateAll(userIds);
+            return;
+        }
+        Set<Long> ids = Set.copyOf(userIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                byUser.invalidateAll(ids);
+            }
+        });
+    }
+}
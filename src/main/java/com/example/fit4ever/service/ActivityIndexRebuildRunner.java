@@ -0,0 +1,34 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the activity calendar index at startup when asked to, e.g. to index history written
+ * before it existed: {@code --rebuild-activity-index=all} or {@code --rebuild-activity-index=<email>}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityIndexRebuildRunner implements ApplicationRunner {
+    static final String OPTION = "rebuild-activity-index";
+
+    private final ActivityIndex activityIndex;
+    private final UserRepository userRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) return;
+        String target = args.getOptionValues(OPTION).stream().findFirst().orElse("all");
+        if (target.isBlank() || target.equalsIgnoreCase("all")) {
+            activityIndex.rebuild(null);
+            return;
+        }
+        userRepository.findIdByEmail(target).ifPresentOrElse(activityIndex::rebuild,
+                () -> log.warn("Cannot rebuild activity index: no user {}", target));
+    }
+}
@@ -6,19 +6,39 @@ import com.example.fit4ever.exception.UserAlreadyExistsException;
 import com.example.fit4ever.model.User;
 import com.example.fit4ever.repository.UserRepository;
 import com.example.fit4ever.config.JwtUtil;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+
+    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil,
+                       MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.jwtUtil = jwtUtil;
+        // BCrypt dominates both auth calls; a rising p99 here means the pool is queueing on CPU
+        this.hashTimer = bcryptTimer(meterRegistry, "encode");
+        this.verifyTimer = bcryptTimer(meterRegistry, "matches");
+    }
+
+    private static Timer bcryptTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("fit4ever.auth.bcrypt")
+                .description("Password hashing and verification")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -32,7 +52,7 @@ public class AuthService {
         User user = User.builder()
                 .name(request.getName().trim())
                 .email(request.getEmail().toLowerCase().trim())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(hashTimer.record(() -> passwordEncoder.encode(request.getPassword())))
                 .provider("LOCAL")
                 .emailVerified(false)
                 .role("USER")
@@ -53,7 +73,7 @@ public class AuthService {
                     return new InvalidCredentialsException("Invalid email or password");
                 });
         
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!verifyTimer.record(() -> passwordEncoder.matches(request.getPassword(), user.getPassword()))) {
             log.warn("Login failed - invalid password for user: {}", request.getEmail());
             throw new InvalidCredentialsException("Invalid email or password");
         }
@@ -0,0 +1,254 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.dto.BodyWeightDtos.*;
+import com.example.fit4ever.model.BodyWeight;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.repository.BodyWeightRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Weigh-ins from manual entry and smart scales. Readings are only ever appended; range reads are
+ * downsampled to at most {@value #MAX_POINTS} daily, weekly or multi-week min/avg/max buckets.
+ * The last {@value #RECENT_DAYS} days of each active user's raw readings are kept in memory, so the
+ * usual "last few weeks" chart does not touch the database after the first read.
+ */
+@Service
+@RequiredArgsConstructor
+public class BodyWeightService {
+    static final int MAX_POINTS = 180;
+    static final int RECENT_DAYS = 35;
+    private static final int DEFAULT_RANGE_DAYS = 90;
+
+    private final BodyWeightRepository bodyWeightRepository;
+    private final UserRepository userRepository;
+    private final DomainEventPublisher events;
+
+    // Expires 30 minutes after loading; unlike expireAfterWrite, appends through compute do not push that back
+    private final Cache<Long, RecentWindow> recent = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfter(Expiry.creating((Long userId, RecentWindow window) -> Duration.ofMinutes(30)))
+            .build();
+
+    private record Reading(LocalDate date, double kg) {
+    }
+
+    /** Raw readings of one user from {@code since} on; grows with new weigh-ins, pruned as days pass. */
+    private static final class RecentWindow {
+        private LocalDate since;
+        private final List<Reading> readings;
+
+        RecentWindow(LocalDate since, List<Reading> readings) {
+            this.since = since;
+            this.readings = readings;
+        }
+
+        synchronized void add(List<Reading> fresh, LocalDate today) {
+            LocalDate windowStart = today.minusDays(RECENT_DAYS - 1);
+            if (windowStart.isAfter(since)) {
+                since = windowStart;
+                readings.removeIf(r -> r.date().isBefore(windowStart));
+            }
+            for (Reading r : fresh) {
+                if (!r.date().isBefore(since)) readings.add(r);
+            }
+        }
+
+        /** Per-day aggregates over [from, to], or null when the window does not reach back to {@code from}. */
+        synchronized List<Day> days(LocalDate from, LocalDate to) {
+            if (from.isBefore(since)) return null;
+            TreeMap<LocalDate, Day> byDate = new TreeMap<>();
+            for (Reading r : readings) {
+                if (r.date().isBefore(from) || r.date().isAfter(to)) continue;
+                byDate.merge(r.date(), new Day(r.date(), r.kg(), r.kg(), r.kg(), 1), Day::plus);
+            }
+            return new ArrayList<>(byDate.values());
+        }
+    }
+
+    /** Per-day aggregate, the unit both the database and the recent window downsample from. */
+    private record Day(LocalDate date, double min, double max, double sum, long samples) {
+        Day plus(Day o) {
+            return new Day(date, Math.min(min, o.min), Math.max(max, o.max), sum + o.sum, samples + o.samples);
+        }
+    }
+
+    @Transactional
+    public BodyWeightResponse record(BodyWeightRequest req, String userEmail) {
+        Long userId = userId(userEmail);
+        BodyWeight saved = bodyWeightRepository.save(toEntity(req, userId, Instant.now()));
+        events.publish(OutboxEvent.BODY_WEIGHT, userId, saved.getDate(), saved.getDate());
+        appendAfterCommit(userId, List.of(saved));
+        return BodyWeightResponse.builder()
+                .id(saved.getId())
+                .weightKg(saved.getWeightKg())
+                .measuredAt(saved.getMeasuredAt())
+                .date(saved.getDate().toString())
+                .build();
+    }
+
+    /** Stores a batch of readings (e.g. a smart-scale sync) in one transaction and one outbox event. */
+    @Transactional
+    public BulkBodyWeightResponse recordAll(BulkBodyWeightRequest req, String userEmail) {
+        Long userId = userId(userEmail);
+        Instant now = Instant.now();
+        List<BodyWeight> rows = new ArrayList<>(req.getReadings().size());
+        LocalDate from = null;
+        LocalDate to = null;
+        for (BodyWeightRequest r : req.getReadings()) {
+            BodyWeight row = toEntity(r, userId, now);
+            rows.add(row);
+            if (from == null || row.getDate().isBefore(from)) from = row.getDate();
+            if (to == null || row.getDate().isAfter(to)) to = row.getDate();
+        }
+        bodyWeightRepository.saveAll(rows);
+        events.publish(OutboxEvent.BODY_WEIGHT, userId, from, to);
+        appendAfterCommit(userId, rows);
+        return new BulkBodyWeightResponse(rows.size(), from.toString(), to.toString());
+    }
+
+    /**
+     * Min/avg/max weight over [from, to] (defaults: the last {@value #DEFAULT_RANGE_DAYS} days up to today).
+     * {@code resolution} DAY or WEEK sets the finest bucket wanted; either way ranges that would yield more
+     * than {@value #MAX_POINTS} points are coarsened to whole multiples of a week.
+     */
+    @Transactional(readOnly = true)
+    public WeightSeriesResponse series(String from, String to, String resolution, String userEmail) {
+        LocalDate toDate = (to == null || to.isBlank()) ? LocalDate.now() : LocalDate.parse(to);
+        LocalDate fromDate = (from == null || from.isBlank())
+                ? toDate.minusDays(DEFAULT_RANGE_DAYS - 1) : LocalDate.parse(from);
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        int bucketDays = bucketDays(fromDate, toDate, minimumBucket(resolution));
+        Long userId = userId(userEmail);
+
+        RecentWindow window = fromDate.isBefore(LocalDate.now().minusDays(RECENT_DAYS - 1))
+                ? null : recent.get(userId, this::loadRecent);
+        List<Day> days = window == null ? null : window.days(fromDate, toDate);
+        if (days == null) {
+            days = bodyWeightRepository.dailyStats(userId, fromDate, toDate).stream()
+                    .map(d -> new Day(d.getDate(), d.getMinKg(), d.getMaxKg(), d.getSumKg(), d.getSamples()))
+                    .toList();
+        }
+        return WeightSeriesResponse.builder()
+                .from(fromDate.toString())
+                .to(toDate.toString())
+                .bucketDays(bucketDays)
+                .points(downsample(days, origin(fromDate, bucketDays), bucketDays))
+                .build();
+    }
+
+    private static int minimumBucket(String resolution) {
+        if (resolution == null || resolution.isBlank()) return 1;
+        return switch (resolution.toUpperCase(Locale.ROOT)) {
+            case "DAY" -> 1;
+            case "WEEK" -> 7;
+            default -> throw new IllegalArgumentException("resolution must be DAY or WEEK");
+        };
+    }
+
+    /** Daily when that fits in {@value #MAX_POINTS} points, otherwise the smallest whole number of weeks that does. */
+    static int bucketDays(LocalDate from, LocalDate to, int minimum) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (minimum == 1 && days <= MAX_POINTS) return 1;
+        long weeks = (ChronoUnit.DAYS.between(origin(from, 7), to) + 7) / 7;
+        return (int) (7 * ((weeks + MAX_POINTS - 1) / MAX_POINTS));
+    }
+
+    /** Buckets of a week or more start on Mondays so weekly charts line up with calendar weeks. */
+    private static LocalDate origin(LocalDate from, int bucketDays) {
+        return bucketDays == 1 ? from : from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static List<WeightPoint> downsample(List<Day> days, LocalDate origin, int bucketDays) {
+        List<WeightPoint> points = new ArrayList<>();
+        Day acc = null;
+        long accBucket = -1;
+        for (Day d : days) {
+            long bucket = ChronoUnit.DAYS.between(origin, d.date()) / bucketDays;
+            if (acc != null && bucket != accBucket) {
+                points.add(toPoint(acc, origin, accBucket, bucketDays));
+                acc = null;
+            }
+            acc = acc == null ? d : acc.plus(d);
+            accBucket = bucket;
+        }
+        if (acc != null) points.add(toPoint(acc, origin, accBucket, bucketDays));
+        return points;
+    }
+
+    private static WeightPoint toPoint(Day d, LocalDate origin, long bucket, int bucketDays) {
+        return WeightPoint.builder()
+                .start(origin.plusDays(bucket * bucketDays).toString())
+                .minKg(d.min())
+                .avgKg(d.sum() / d.samples())
+                .maxKg(d.max())
+                .samples(d.samples())
+                .build();
+    }
+
+    private RecentWindow loadRecent(Long userId) {
+        LocalDate since = LocalDate.now().minusDays(RECENT_DAYS - 1);
+        List<Reading> readings = new ArrayList<>();
+        for (var r : bodyWeightRepository.readingsSince(userId, since)) {
+            readings.add(new Reading(r.getDate(), r.getWeightKg()));
+        }
+        return new RecentWindow(since, readings);
+    }
+
+    /** Feeds committed readings into a warm window; cold users are loaded on their next read instead. */
+    private void appendAfterCommit(Long userId, List<BodyWeight> rows) {
+        List<Reading> fresh = rows.stream().map(b -> new Reading(b.getDate(), b.getWeightKg())).toList();
+        // compute, unlike getIfPresent or computeIfPresent, waits for a load in flight, whose query may
+        // have run before this commit; an absent window stays absent
+        Runnable append = () -> recent.asMap().compute(userId, (id, window) -> {
+            if (window != null) window.add(fresh, LocalDate.now());
+            return window;
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append.run();
+                }
+            });
+        } else {
+            append.run();
+        }
+    }
+
+    private BodyWeight toEntity(BodyWeightRequest req, Long userId, Instant now) {
+        Instant at = req.getMeasuredAt() != null ? req.getMeasuredAt() : now;
+        return BodyWeight.builder()
+                .user(userRepository.getReferenceById(userId))
+                .measuredAt(at)
+                .date(at.atZone(ZoneOffset.UTC).toLocalDate())
+                .weightKg(req.getWeightKg())
+                .build();
+    }
+
+    private Long userId(String userEmail) {
+        return userRepository.findIdByEmail(userEmail)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+    }
+}
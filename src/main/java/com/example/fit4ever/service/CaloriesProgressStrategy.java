@@ -0,0 +1,54 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.model.Goal;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.repository.GoalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Daily calorie target: how close the average intake over logged days in the window is to
+ * {@code targetValue}; 1.0 is on target, falling linearly to 0 at 100% over or under.
+ */
+@Component
+@RequiredArgsConstructor
+public class CaloriesProgressStrategy implements GoalProgressStrategy {
+    private final GoalRepository goalRepository;
+
+    @Override
+    public String type() {
+        return "CALORIES";
+    }
+
+    @Override
+    public String source() {
+        return OutboxEvent.FOOD_LOG;
+    }
+
+    @Override
+    public Map<Long, ProgressCounters> collect(List<Goal> goals) {
+        Map<Long, ProgressCounters> out = new HashMap<>();
+        for (var row : goalRepository.sumCaloriesPerGoal(GoalProgressStrategy.ids(goals))) {
+            out.put(row.getGoalId(), new ProgressCounters(row.getSamples(), row.getTotal(), null, null));
+        }
+        return out;
+    }
+
+    @Override
+    public double score(Goal goal, ProgressCounters counters, LocalDate today) {
+        if (counters.samples() == 0 || goal.getTargetValue() <= 0) return 0.0;
+        double average = counters.total() / counters.samples();
+        return GoalProgressStrategy.clamp01(1.0 - Math.abs(average - goal.getTargetValue()) / goal.getTargetValue());
+    }
+
+    /** An average can only be judged once the window is over; within 10% of the target counts as met. */
+    @Override
+    public boolean targetMet(Goal goal, ProgressCounters counters, LocalDate today) {
+        return today.isAfter(goal.getEndDate()) && score(goal, counters, today) >= 0.9;
+    }
+}
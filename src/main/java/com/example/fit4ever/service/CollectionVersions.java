@@ -0,0 +1,55 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.repository.CollectionVersionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Per-user, per-collection change counters backing the list ETags. {@link #touch} runs in the
+ * writer's transaction, so a reader never sees a new revision before the change itself; a missing
+ * row reads as revision 0, and the first touch creates it in that same transaction. It never borrows a
+ * second connection: writers each holding one while waiting for another can exhaust a small pool.
+ */
+@Component
+public class CollectionVersions {
+    public static final String WORKOUTS = "workouts";
+    public static final String GOALS = "goals";
+    public static final String FOOD_LOGS = "food-logs";
+
+    private final CollectionVersionRepository repository;
+
+    public CollectionVersions(CollectionVersionRepository repository) {
+        this.repository = repository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void touch(Long userId, String collection) {
+        Instant now = Instant.now();
+        if (repository.increment(userId, collection, now) > 0) return;
+        // First touch: serialize on the user row, then re-check, since a writer that held the lock
+        // before us may have committed the row in the meantime
+        repository.lockUser(userId);
+        if (repository.increment(userId, collection, now) > 0) return;
+        repository.insert(userId, collection, now);
+        repository.increment(userId, collection, now);
+    }
+
+    @Transactional(readOnly = true)
+    public long current(Long userId, String collection) {
+        return repository.findRevision(userId, collection).orElse(0L);
+    }
+
+    /** The collection of a domain event type, or null when it has no list ETag. */
+    static String ofEventType(String type) {
+        return switch (type) {
+            case OutboxEvent.WORKOUT -> WORKOUTS;
+            case OutboxEvent.FOOD_LOG -> FOOD_LOGS;
+            case OutboxEvent.GOAL -> GOALS;
+            default -> null;
+        };
+    }
+}
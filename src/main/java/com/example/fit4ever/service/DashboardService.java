@@ -0,0 +1,163 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.dto.DashboardDtos.*;
+import com.example.fit4ever.dto.WorkoutDtos.WorkoutSummary;
+import com.example.fit4ever.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Composes the dashboard in one request: the caller's user id is resolved once, then each section is
+ * loaded concurrently on a bounded worker pool through the regular services, each in its own
+ * read-only transaction. All sections share one deadline measured from the start of the request;
+ * a section that fails, is rejected by a saturated pool or is still running at the deadline is
+ * left null and named in {@code unavailable}, and the rest is returned. A section's transaction
+ * times out at that deadline too, so its queries are cancelled by the database rather than left
+ * running for a response that has already gone out; sections still queued are not started.
+ */
+@Service
+@Slf4j
+public class DashboardService {
+    private static final int RECENT_WORKOUTS = 3;
+
+    private final WorkoutService workoutService;
+    private final NutritionService nutritionService;
+    private final GoalService goalService;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${fit4ever.dashboard.parallelism:4}")
+    private int parallelism;
+
+    @Value("${fit4ever.dashboard.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${fit4ever.dashboard.section-timeout-ms:1500}")
+    private long sectionTimeoutMs;
+
+    private ThreadPoolExecutor workers;
+    private Executor sections;
+
+    public DashboardService(WorkoutService workoutService, NutritionService nutritionService, GoalService goalService,
+                            UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.workoutService = workoutService;
+        this.nutritionService = nutritionService;
+        this.goalService = goalService;
+        this.userRepository = userRepository;
+        this.transactionManager = transactionManager;
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger n = new AtomicInteger();
+        workers = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "dashboard-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // Sections run as the caller, so replica routing can tell a user who has just written
+        sections = new DelegatingSecurityContextExecutor(workers);
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.shutdownNow();
+    }
+
+    public DashboardResponse dashboard(Authentication auth) {
+        String email = auth.getName();
+        LocalDate today = LocalDate.now();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs);
+        Long userId = userRepository.findIdByEmail(email)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+
+        var workouts = submit(() -> workoutsSection(userId, today), deadline);
+        var todayLogs = submit(() -> nutritionService.listByDate(today, userId), deadline);
+        var weekly = submit(() -> nutritionService.summary(today.minusDays(6), today, userId), deadline);
+        var goals = submit(() -> goalService.list(userId), deadline);
+        var progress = submit(() -> goalService.progressAll(null, userId), deadline);
+
+        List<String> unavailable = new ArrayList<>();
+        return DashboardResponse.builder()
+                .email(email)
+                .date(today.toString())
+                .workouts(await("workouts", workouts, deadline, unavailable))
+                .todayLogs(await("todayLogs", todayLogs, deadline, unavailable))
+                .weeklySummary(await("weeklySummary", weekly, deadline, unavailable))
+                .goals(await("goals", goals, deadline, unavailable))
+                .goalProgress(await("goalProgress", progress, deadline, unavailable))
+                .unavailable(unavailable)
+                .build();
+    }
+
+    private WorkoutsSection workoutsSection(Long userId, LocalDate today) {
+        List<WorkoutSummary> all = workoutService.list(userId);
+        LocalDate weekAgo = today.minusDays(6);
+        int lastSevenDays = (int) all.stream()
+                .filter(w -> w.getDate() != null && !w.getDate().isBefore(weekAgo) && !w.getDate().isAfter(today))
+                .count();
+        return WorkoutsSection.builder()
+                .total(all.size())
+                .lastSevenDays(lastSevenDays)
+                .recent(all.stream().limit(RECENT_WORKOUTS).toList())
+                .build();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> section, long deadline) {
+        try {
+            return CompletableFuture.supplyAsync(() -> withinDeadline(section, deadline), sections);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** Runs the section in a read-only transaction whose timeout (whole seconds, the JDBC granularity) ends at the deadline. */
+    private <T> T withinDeadline(Supplier<T> section, long deadline) {
+        long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs <= 0) {
+            throw new CancellationException("Dashboard deadline passed before the section started");
+        }
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.setTimeout((int) Math.max(1, (remainingMs + 999) / 1000));
+        return tx.execute(status -> section.get());
+    }
+
+    private <T> T await(String name, CompletableFuture<T> future, long deadline, List<String> unavailable) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            log.warn("Dashboard section {} missed its {} ms deadline", name, sectionTimeoutMs);
+        } catch (ExecutionException e) {
+            log.warn("Dashboard section {} failed", name, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        unavailable.add(name);
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.fit4ever.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One bit per calendar day from {@code origin} on, packed into longs (bit {@code i % 64} of word
+ * {@code i / 64} is day {@code origin + i}). Runs of active days are found with whole-word bit
+ * tricks, so streaks over years of history cost a few dozen word operations.
+ */
+final class DayBitmap {
+    private final LocalDate origin;
+    private final long[] words;
+    private final int days;
+
+    DayBitmap(LocalDate origin, int days) {
+        this.origin = origin;
+        this.days = days;
+        this.words = new long[(days + 63) >>> 6];
+    }
+
+    /** Copies a year's packed words, whose bit {@code i} is day-of-year {@code i + 1}, into place. */
+    void putYear(int year, long[] yearWords) {
+        int offset = index(LocalDate.of(year, 1, 1));
+        int length = LocalDate.of(year, 1, 1).lengthOfYear();
+        for (int i = 0; i < length; i++) {
+            if ((yearWords[i >>> 6] & (1L << i)) != 0) set(offset + i);
+        }
+    }
+
+    boolean get(LocalDate day) {
+        int i = index(day);
+        return i >= 0 && i < days && (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /** Active days in [from, to], oldest first. */
+    List<LocalDate> activeDays(LocalDate from, LocalDate to) {
+        List<LocalDate> out = new ArrayList<>();
+        int start = Math.max(0, index(from));
+        int end = Math.min(days - 1, index(to));
+        for (int w = start >>> 6; start <= end && w <= end >>> 6; w++) {
+            long word = words[w];
+            while (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                if (i >= start && i <= end) out.add(origin.plusDays(i));
+                word &= word - 1;
+            }
+        }
+        return out;
+    }
+
+    /** Consecutive active days ending on {@code day} (0 if it is not active). */
+    int runEndingOn(LocalDate day) {
+        int i = index(day);
+        if (i < 0 || i >= days) return 0;
+        int w = i >>> 6;
+        int off = i & 63;
+        // Shift the bits up to and including the day to the top; leading ones are the run
+        int run = Long.numberOfLeadingZeros(~(words[w] << (63 - off)));
+        if (run <= off) return run;
+        while (--w >= 0) {
+            int ones = Long.numberOfLeadingZeros(~words[w]);
+            run += ones;
+            if (ones < 64) break;
+        }
+        return run;
+    }
+
+    /** Longest run of consecutive active days anywhere in the bitmap. */
+    int longestRun() {
+        int best = 0;
+        int run = 0;
+        for (long word : words) {
+            if (word == -1L) {
+                run += 64;
+                best = Math.max(best, run);
+                continue;
+            }
+            int pos = 0;
+            while (pos < 64) {
+                long rest = word >>> pos;
+                if (rest == 0) {
+                    run = 0;
+                    break;
+                }
+                int zeros = Long.numberOfTrailingZeros(rest);
+                if (zeros > 0) {
+                    run = 0;
+                    pos += zeros;
+                    continue;
+                }
+                int ones = Long.numberOfTrailingZeros(~rest);
+                run += ones;
+                best = Math.max(best, run);
+                pos += ones;
+            }
+        }
+        return best;
+    }
+
+    private void set(int i) {
+        words[i >>> 6] |= 1L << i;
+    }
+
+    private int index(LocalDate day) {
+        long i = ChronoUnit.DAYS.between(origin, day);
+        return (int) Math.max(-1, Math.min(Integer.MAX_VALUE, i));
+    }
+}
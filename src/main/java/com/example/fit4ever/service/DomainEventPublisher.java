@@ -0,0 +1,72 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Records domain events in the transactional outbox. The event commits or rolls back with the change
+ * that caused it; once the transaction commits the relay and the live event streams are nudged so
+ * consumers and connected clients see it promptly.
+ * Events for listed collections also advance the user's {@link CollectionVersions} marker.
+ */
+@Component
+@RequiredArgsConstructor
+public class DomainEventPublisher {
+    private static final Object WAKE_REGISTERED = new Object();
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelay relay;
+    private final CollectionVersions collectionVersions;
+    private final LiveEventHub liveEvents;
+
+    /** Changes to {@code userId}'s rows of {@code type} on days [from, to]; null dates mean any day. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(String type, Long userId, LocalDate from, LocalDate to) {
+        save(type, userId, null, from, to);
+    }
+
+    /** A change to one goal (created, re-targeted or re-windowed). */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishGoal(Long userId, Long goalId) {
+        save(OutboxEvent.GOAL, userId, goalId, null, null);
+    }
+
+    private void save(String type, Long userId, Long entityId, LocalDate from, LocalDate to) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .type(type)
+                .userId(userId)
+                .entityId(entityId)
+                .fromDate(from)
+                .toDate(to)
+                .createdAt(Instant.now())
+                .build());
+        String collection = CollectionVersions.ofEventType(type);
+        if (collection != null) {
+            collectionVersions.touch(userId, collection);
+        }
+        if (!TransactionSynchronizationManager.hasResource(WAKE_REGISTERED)) {
+            TransactionSynchronizationManager.bindResource(WAKE_REGISTERED, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.wake();
+                    liveEvents.wake();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(WAKE_REGISTERED);
+                }
+            });
+        }
+    }
+}
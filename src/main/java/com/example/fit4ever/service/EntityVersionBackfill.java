@@ -0,0 +1,35 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.repository.FoodLogRepository;
+import com.example.fit4ever.repository.GoalRepository;
+import com.example.fit4ever.repository.WorkoutRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Sets the optimistic-lock {@code version} of workouts, goals and food logs written before the
+ * column existed, so they can be updated and tagged like new rows. A no-op afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EntityVersionBackfill {
+    private final WorkoutRepository workoutRepository;
+    private final GoalRepository goalRepository;
+    private final FoodLogRepository foodLogRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        int updated = workoutRepository.backfillVersion()
+                + goalRepository.backfillVersion()
+                + foodLogRepository.backfillVersion();
+        if (updated > 0) {
+            log.info("Backfilled version on {} workouts, goals and food logs", updated);
+        }
+    }
+}
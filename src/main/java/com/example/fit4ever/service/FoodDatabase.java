@@ -0,0 +1,251 @@
+package com.example.fit4ever.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Read-only food nutrient database memory-mapped from the compact binary file produced by
+ * {@link FoodDatabaseCompiler}. Lookups and prefix searches read straight from the mapping with
+ * absolute gets, so the table costs next to no heap and is safe to share between request threads.
+ *
+ * <pre>
+ * header  (32 B): magic, version, foodCount, tokenCount, foodsOffset, tokensOffset, stringsOffset, 0
+ * food    (32 B): id, nameOffset, nameLength(u16), labelLength(u16), servingGrams, kcal, protein, carbs, fat
+ *                 (label bytes follow the name; nutrients are floats per 100 g; sorted by id)
+ * token   (12 B): tokenOffset, tokenLength(u16), 0(u16), foodIndex   (sorted by token bytes, then name length)
+ * strings       : UTF-8 pool; food names/labels as given, tokens normalised and de-duplicated
+ * </pre>
+ */
+@Component
+@Slf4j
+public class FoodDatabase {
+    static final int MAGIC = 0x46344644; // "F4FD"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    static final int FOOD_BYTES = 32;
+    static final int TOKEN_BYTES = 12;
+    static final String CLASSPATH_LOCATION = "foods/foods.bin";
+
+    private static final int MAX_CANDIDATES = 5_000;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    @Value("${fit4ever.foods.database:}")
+    private String location;
+
+    private ByteBuffer data = ByteBuffer.allocate(0);
+    private int foodCount;
+    private int tokenCount;
+    private int foodsOffset;
+    private int tokensOffset;
+
+    public record Food(int id, String name, String servingLabel, double servingGrams,
+                       double kcalPer100g, double proteinPer100g, double carbsPer100g, double fatPer100g) {
+
+        public Portion portion(double grams) {
+            double f = grams / 100.0;
+            return new Portion(grams, (int) Math.round(kcalPer100g * f),
+                    round1(proteinPer100g * f), round1(carbsPer100g * f), round1(fatPer100g * f));
+        }
+
+        public Portion servings(double servings) {
+            return portion(servingGrams * servings);
+        }
+
+        private static double round1(double v) {
+            return Math.round(v * 10.0) / 10.0;
+        }
+    }
+
+    public record Portion(double grams, int calories, double protein, double carbs, double fat) {}
+
+    @PostConstruct
+    void load() {
+        try {
+            Path file = resolve();
+            if (file == null) {
+                log.warn("Food database {} not found; food search is empty", CLASSPATH_LOCATION);
+                return;
+            }
+            try (FileChannel ch = FileChannel.open(file)) {
+                ByteBuffer mapped = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                    throw new IllegalStateException("Not a v" + VERSION + " food database: " + file);
+                }
+                foodCount = mapped.getInt(8);
+                tokenCount = mapped.getInt(12);
+                foodsOffset = mapped.getInt(16);
+                tokensOffset = mapped.getInt(20);
+                data = mapped;
+            }
+            log.info("Mapped food database {} ({} foods, {} search tokens)", file, foodCount, tokenCount);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map food database", e);
+        }
+    }
+
+    private Path resolve() throws IOException {
+        if (location != null && !location.isBlank()) {
+            return Path.of(location);
+        }
+        URL url = FoodDatabase.class.getClassLoader().getResource(CLASSPATH_LOCATION);
+        if (url == null) return null;
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return Path.of(url.toURI());
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        // Packaged inside the jar: a zip entry cannot be mapped, so extract it once
+        Path tmp = Files.createTempFile("fit4ever-foods", ".bin");
+        tmp.toFile().deleteOnExit();
+        try (InputStream in = url.openStream()) {
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return tmp;
+    }
+
+    public int size() {
+        return foodCount;
+    }
+
+    public Optional<Food> findById(int id) {
+        int lo = 0, hi = foodCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midId = data.getInt(foodAt(mid));
+            if (midId < id) lo = mid + 1;
+            else if (midId > id) hi = mid - 1;
+            else return Optional.of(readFood(mid));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Foods whose name has a word starting with every word of {@code query}, e.g. "chi bre" finds
+     * "Chicken Breast Grilled". Names starting with the query come first, then shorter names.
+     */
+    public List<Food> search(String query, int limit) {
+        List<String> words = tokens(query);
+        if (words.isEmpty() || foodCount == 0) return List.of();
+
+        // Drive the scan with the longest (most selective) word and verify the others per candidate
+        String driver = words.stream().max(Comparator.comparingInt(String::length)).get();
+        byte[] prefix = driver.getBytes(StandardCharsets.UTF_8);
+        Set<Integer> candidates = new LinkedHashSet<>();
+        for (int t = lowerBound(prefix); t < tokenCount && candidates.size() < MAX_CANDIDATES; t++) {
+            if (!tokenStartsWith(t, prefix)) break;
+            candidates.add(data.getInt(tokenAt(t) + 8));
+        }
+
+        String normalizedQuery = String.join(" ", words);
+        List<Food> matches = new ArrayList<>();
+        for (int index : candidates) {
+            Food food = readFood(index);
+            List<String> nameWords = tokens(food.name());
+            boolean all = words.stream().allMatch(w -> nameWords.stream().anyMatch(n -> n.startsWith(w)));
+            if (all) matches.add(food);
+        }
+        // Stable sort keeps the token order (shorter names first) within each group
+        matches.sort(Comparator.comparingInt(f -> String.join(" ", tokens(f.name())).startsWith(normalizedQuery) ? 0 : 1));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    /** Lower-cased, accent-folded words of {@code text}; shared with the compiler so both sides agree. */
+    static List<String> tokens(String text) {
+        if (text == null) return List.of();
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return Arrays.stream(NON_WORD.split(folded.toLowerCase(Locale.ROOT)))
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    private int foodAt(int index) {
+        return foodsOffset + index * FOOD_BYTES;
+    }
+
+    private int tokenAt(int index) {
+        return tokensOffset + index * TOKEN_BYTES;
+    }
+
+    private Food readFood(int index) {
+        int p = foodAt(index);
+        int nameOffset = data.getInt(p + 4);
+        int nameLength = Short.toUnsignedInt(data.getShort(p + 8));
+        int labelLength = Short.toUnsignedInt(data.getShort(p + 10));
+        return new Food(
+                data.getInt(p),
+                string(nameOffset, nameLength),
+                string(nameOffset + nameLength, labelLength),
+                data.getFloat(p + 12),
+                data.getFloat(p + 16),
+                data.getFloat(p + 20),
+                data.getFloat(p + 24),
+                data.getFloat(p + 28));
+    }
+
+    private String string(int offset, int length) {
+        byte[] bytes = new byte[length];
+        data.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** First token index whose bytes are >= {@code prefix}. */
+    private int lowerBound(byte[] prefix) {
+        int lo = 0, hi = tokenCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareToken(mid, prefix) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private int compareToken(int index, byte[] key) {
+        int p = tokenAt(index);
+        int offset = data.getInt(p);
+        int length = Short.toUnsignedInt(data.getShort(p + 4));
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int c = Integer.compare(Byte.toUnsignedInt(data.get(offset + i)), Byte.toUnsignedInt(key[i]));
+            if (c != 0) return c;
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private boolean tokenStartsWith(int index, byte[] prefix) {
+        int p = tokenAt(index);
+        int offset = data.getInt(p);
+        int length = Short.toUnsignedInt(data.getShort(p + 4));
+        if (length < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (data.get(offset + i) != prefix[i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.fit4ever.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Build-time tool that turns the food CSV into the binary file mapped by {@link FoodDatabase}.
+ * Runs in the {@code process-classes} phase (see the exec-maven-plugin execution in pom.xml).
+ *
+ * <p>CSV columns: {@code id,name,serving_label,serving_grams,kcal_100g,protein_100g,carbs_100g,fat_100g}
+ */
+public final class FoodDatabaseCompiler {
+
+    private FoodDatabaseCompiler() {
+    }
+
+    private record Row(int id, String name, String label, float servingGrams,
+                       float kcal, float protein, float carbs, float fat) {}
+
+    private record TokenRef(byte[] bytes, int offset, int foodIndex, int nameLength) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            // Thrown rather than System.exit: the plugin runs this inside the Maven JVM
+            throw new IllegalArgumentException("usage: FoodDatabaseCompiler <foods.csv> <foods.bin>");
+        }
+        int count = compile(Path.of(args[0]), Path.of(args[1]));
+        System.out.println("Compiled " + count + " foods into " + args[1]);
+    }
+
+    static int compile(Path csv, Path out) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        for (int i = 1; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) continue;
+            List<String> f = parseCsvLine(line);
+            if (f.size() != 8) {
+                throw new IllegalArgumentException(csv + ":" + (i + 1) + ": expected 8 columns, got " + f.size());
+            }
+            rows.add(new Row(Integer.parseInt(f.get(0).trim()), f.get(1).trim(), f.get(2).trim(),
+                    Float.parseFloat(f.get(3)), Float.parseFloat(f.get(4)), Float.parseFloat(f.get(5)),
+                    Float.parseFloat(f.get(6)), Float.parseFloat(f.get(7))));
+        }
+        rows.sort(Comparator.comparingInt(Row::id));
+        Set<Integer> ids = new HashSet<>();
+        for (Row r : rows) {
+            if (!ids.add(r.id())) throw new IllegalArgumentException("Duplicate food id " + r.id());
+        }
+
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        int[] nameOffsets = new int[rows.size()];
+        int[] nameLengths = new int[rows.size()];
+        int[] labelLengths = new int[rows.size()];
+        Map<String, Integer> tokenOffsets = new HashMap<>();
+        List<TokenRef> tokens = new ArrayList<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            Row r = rows.get(i);
+            byte[] name = r.name().getBytes(StandardCharsets.UTF_8);
+            byte[] label = r.label().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF || label.length > 0xFFFF) {
+                throw new IllegalArgumentException("Name or label too long for food " + r.id());
+            }
+            nameOffsets[i] = strings.size();
+            nameLengths[i] = name.length;
+            labelLengths[i] = label.length;
+            strings.write(name);
+            strings.write(label);
+
+            for (String token : new HashSet<>(FoodDatabase.tokens(r.name()))) {
+                byte[] bytes = token.getBytes(StandardCharsets.UTF_8);
+                Integer offset = tokenOffsets.get(token);
+                if (offset == null) {
+                    offset = strings.size();
+                    strings.write(bytes);
+                    tokenOffsets.put(token, offset);
+                }
+                tokens.add(new TokenRef(bytes, offset, i, name.length));
+            }
+        }
+        tokens.sort(Comparator.comparing(TokenRef::bytes, Arrays::compareUnsigned)
+                .thenComparingInt(TokenRef::nameLength)
+                .thenComparingInt(TokenRef::foodIndex));
+
+        int foodsOffset = FoodDatabase.HEADER_BYTES;
+        int tokensOffset = foodsOffset + rows.size() * FoodDatabase.FOOD_BYTES;
+        int stringsOffset = tokensOffset + tokens.size() * FoodDatabase.TOKEN_BYTES;
+        ByteBuffer buf = ByteBuffer.allocate(stringsOffset + strings.size());
+
+        buf.putInt(FoodDatabase.MAGIC).putInt(FoodDatabase.VERSION)
+                .putInt(rows.size()).putInt(tokens.size())
+                .putInt(foodsOffset).putInt(tokensOffset).putInt(stringsOffset).putInt(0);
+        for (int i = 0; i < rows.size(); i++) {
+            Row r = rows.get(i);
+            buf.putInt(r.id()).putInt(stringsOffset + nameOffsets[i])
+                    .putShort((short) nameLengths[i]).putShort((short) labelLengths[i])
+                    .putFloat(r.servingGrams()).putFloat(r.kcal()).putFloat(r.protein())
+                    .putFloat(r.carbs()).putFloat(r.fat());
+        }
+        for (TokenRef t : tokens) {
+            buf.putInt(stringsOffset + t.offset()).putShort((short) t.bytes().length).putShort((short) 0)
+                    .putInt(t.foodIndex());
+        }
+        buf.put(strings.toByteArray());
+
+        Path parent = out.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Files.write(out, buf.array());
+        return rows.size();
+    }
+
+    /** Minimal RFC 4180 field splitter: handles quoted fields with commas and doubled quotes. */
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cur.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cur.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(c);
+            }
+        }
+        fields.add(cur.toString());
+        return fields;
+    }
+}
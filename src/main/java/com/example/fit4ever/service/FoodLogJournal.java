@@ -0,0 +1,176 @@
+package com.example.fit4ever.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Append-only, newline-delimited JSON journal backing the food-log write-behind buffer.
+ * Every append is forced to disk before it returns, so an acknowledged entry survives a crash.
+ * Entries that have since been flushed stay in the file until it is compacted; replay relies on the
+ * flushed sequence number recorded in the database to skip them.
+ * Not thread-safe; the owning buffer serialises access, except that {@link #writeSnapshot} only
+ * touches its own temporary file and may run alongside appends.
+ */
+@Slf4j
+class FoodLogJournal implements Closeable {
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private FileChannel channel;
+    private long lines;
+
+    /** Entries written to a temporary file by {@link #writeSnapshot}, waiting to replace the journal. */
+    record Snapshot(Path path, int entries) {
+    }
+
+    FoodLogJournal(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Identifies this journal in the database (its flushed sequence number), so nodes or volumes with
+     * journals of their own never share one. Created next to the journal the first time it is needed.
+     */
+    String id() {
+        Path idFile = file.resolveSibling(file.getFileName() + ".id");
+        try {
+            if (Files.exists(idFile)) {
+                return Files.readString(idFile, StandardCharsets.UTF_8).trim();
+            }
+            Path parent = idFile.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            String id = UUID.randomUUID().toString();
+            Files.writeString(idFile, id, StandardCharsets.UTF_8);
+            return id;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read or create food-log journal id " + idFile, e);
+        }
+    }
+
+    /** Reads back all complete entries. A torn trailing line from a crash mid-append is dropped. */
+    List<FoodLogWriteBehindBuffer.Entry> replay() {
+        List<FoodLogWriteBehindBuffer.Entry> entries = new ArrayList<>();
+        if (!Files.exists(file)) return entries;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                lines++;
+                try {
+                    entries.add(objectMapper.readValue(line, FoodLogWriteBehindBuffer.Entry.class));
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable food-log journal line in {}", file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replay food-log journal " + file, e);
+        }
+        return entries;
+    }
+
+    void append(FoodLogWriteBehindBuffer.Entry entry) {
+        try {
+            ensureOpen();
+            write(channel, entry);
+            channel.force(false);
+            lines++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to food-log journal " + file, e);
+        }
+    }
+
+    /** Entries in the journal file, flushed or not. */
+    long lines() {
+        return lines;
+    }
+
+    /** First half of a compaction: writes {@code entries} to a temporary file, leaving the journal as it is. */
+    Snapshot writeSnapshot(Collection<FoodLogWriteBehindBuffer.Entry> entries) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (var entry : entries) {
+                write(out, entry);
+            }
+            out.force(false);
+            return new Snapshot(tmp, entries.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact food-log journal " + file, e);
+        }
+    }
+
+    /**
+     * Second half of a compaction: appends {@code tail} (entries journaled since the snapshot was taken)
+     * to the snapshot and atomically moves it over the journal.
+     */
+    void replace(Snapshot snapshot, Collection<FoodLogWriteBehindBuffer.Entry> tail) {
+        try {
+            if (!tail.isEmpty()) {
+                try (FileChannel out = FileChannel.open(snapshot.path(), StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND)) {
+                    for (var entry : tail) {
+                        write(out, entry);
+                    }
+                    out.force(false);
+                }
+            }
+            close();
+            Files.move(snapshot.path(), file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lines = snapshot.entries() + tail.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact food-log journal " + file, e);
+        }
+    }
+
+    /** Removes the journal once nothing in it is waiting to be flushed. */
+    void delete() {
+        try {
+            close();
+            Files.deleteIfExists(file);
+            lines = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot remove food-log journal " + file, e);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel != null && channel.isOpen()) return;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void write(FileChannel target, FoodLogWriteBehindBuffer.Entry entry) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(entry);
+        ByteBuffer buf = ByteBuffer.allocate(json.length + 1);
+        buf.put(json).put((byte) '\n').flip();
+        while (buf.hasRemaining()) {
+            target.write(buf);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
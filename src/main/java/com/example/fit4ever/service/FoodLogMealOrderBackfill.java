@@ -0,0 +1,26 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.repository.FoodLogRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Fills {@code food_logs.meal_order} for rows written before the column existed. A no-op afterwards. */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FoodLogMealOrderBackfill {
+    private final FoodLogRepository foodLogRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        int updated = foodLogRepository.backfillMealOrder();
+        if (updated > 0) {
+            log.info("Backfilled meal_order on {} food logs", updated);
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.model.FoodLog;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.model.WriteBehindMark;
+import com.example.fit4ever.repository.FoodLogRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.repository.WriteBehindMarkRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Optional write-behind path for food logs. Validated writes are acknowledged once they are in the
+ * local journal and are inserted into the database in batches by a single background drainer, so a
+ * meal-time burst costs one pooled connection per batch instead of one per request.
+ * Each batch also moves the journal's {@link WriteBehindMark} in its transaction; replay skips entries
+ * at or below it that it does not list as pending, so a crash between a commit and the next compaction
+ * cannot insert a log twice, nor lose one a range delete was still holding back.
+ * Disabled unless {@code fit4ever.nutrition.write-behind.enabled=true}.
+ */
+@Component
+@Slf4j
+public class FoodLogWriteBehindBuffer {
+    private final FoodLogRepository foodLogRepository;
+    private final UserRepository userRepository;
+    private final WriteBehindMarkRepository marks;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final DomainEventPublisher events;
+
+    @Value("${fit4ever.nutrition.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fit4ever.nutrition.write-behind.journal-file:data/foodlog-journal.ndjson}")
+    private String journalFile;
+
+    @Value("${fit4ever.nutrition.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${fit4ever.nutrition.write-behind.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${fit4ever.nutrition.write-behind.max-pending:10000}")
+    private int maxPending;
+
+    private final Object lock = new Object(); // queue, pendingByUser and nextSeq; never held across I/O
+    private final Object journalLock = new Object(); // journal appends and file swaps; taken before lock
+    private final Object compactionLock = new Object();
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final LinkedHashMap<Long, Entry> queue = new LinkedHashMap<>();
+    private final Map<Long, List<Entry>> pendingByUser = new HashMap<>();
+    private final Set<Long> heldBack = new HashSet<>(); // seqs discarded by a transaction that has not ended yet
+    private final Cache<String, Long> userIds = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+    private long nextSeq = 1;
+    private long flushedSeq; // the mark as last committed; only the drainer moves it
+    private FoodLogJournal journal;
+    private String journalId;
+    private ScheduledExecutorService drainer;
+
+    public FoodLogWriteBehindBuffer(FoodLogRepository foodLogRepository, UserRepository userRepository,
+                                    WriteBehindMarkRepository marks, PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper, DomainEventPublisher events) {
+        this.foodLogRepository = foodLogRepository;
+        this.userRepository = userRepository;
+        this.marks = marks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.events = events;
+    }
+
+    /** Journal entry; {@code seq} orders entries and survives replay. */
+    record Entry(long seq, long userId, String date, String mealType, String itemName,
+                 int calories, double protein, double carbs, double fat, Integer foodId) {
+
+        static Entry of(long seq, long userId, FoodLog f) {
+            return new Entry(seq, userId, f.getDate().toString(), f.getMealType(), f.getItemName(),
+                    f.getCalories(), f.getProtein(), f.getCarbs(), f.getFat(), f.getFoodId());
+        }
+
+        FoodLog toFoodLog() {
+            return FoodLog.builder()
+                    .date(LocalDate.parse(date))
+                    .mealType(mealType)
+                    .itemName(itemName)
+                    .calories(calories)
+                    .protein(protein)
+                    .carbs(carbs)
+                    .fat(fat)
+                    .foodId(foodId)
+                    .build();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        journal = new FoodLogJournal(Path.of(journalFile), objectMapper);
+        journalId = journal.id();
+        WriteBehindMark mark = transactionTemplate.execute(status -> marks.findById(journalId)
+                .orElseGet(() -> marks.save(new WriteBehindMark(journalId, 0L, null, Instant.now()))));
+        long flushed = mark.getFlushedSeq();
+        Set<Long> pendingAtMark = parseSeqs(mark.getPendingSeqs());
+        flushedSeq = flushed;
+        int skipped = 0;
+        synchronized (lock) {
+            for (Entry e : journal.replay()) {
+                nextSeq = Math.max(nextSeq, e.seq() + 1);
+                if (e.seq() > flushed || pendingAtMark.contains(e.seq())) {
+                    enqueue(e);
+                } else {
+                    skipped++;
+                }
+            }
+            nextSeq = Math.max(nextSeq, flushed + 1);
+        }
+        if (!queue.isEmpty() || skipped > 0) {
+            log.info("Replayed {} unflushed food logs from {} ({} already flushed skipped)",
+                    queue.size(), journalFile, skipped);
+        }
+        drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "foodlog-drainer");
+            t.setDaemon(true);
+            return t;
+        });
+        drainer.scheduleWithFixedDelay(this::drainSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        if (drainer == null) return;
+        drainer.shutdown();
+        try {
+            drainer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainSafely();
+        synchronized (journalLock) {
+            journal.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Journals a validated, not-yet-persisted food log for the given user.
+     *
+     * @return false when write-behind is off or the backlog is full; the caller then writes synchronously
+     */
+    public boolean offer(String userEmail, FoodLog foodLog) {
+        if (!enabled) return false;
+        Long userId = userIds.get(userEmail, email -> userRepository.findIdByEmail(email).orElse(null));
+        if (userId == null) {
+            throw new IllegalStateException("Authenticated user not found");
+        }
+        boolean fullBatch;
+        synchronized (journalLock) {
+            Entry e;
+            synchronized (lock) {
+                if (queue.size() >= maxPending) return false;
+                e = Entry.of(nextSeq++, userId, foodLog);
+            }
+            // Forced to disk outside the state monitor, so reads and the drainer are not held up;
+            // the entry only becomes visible (and flushable) once it is durable
+            journal.append(e);
+            synchronized (lock) {
+                enqueue(e);
+                fullBatch = queue.size() >= batchSize;
+            }
+        }
+        if (fullBatch) {
+            drainer.execute(this::drainSafely);
+        }
+        return true;
+    }
+
+    /**
+     * Reads persisted logs through {@code persisted} and appends the user's unflushed logs within [from, to]
+     * (transient entities without ids). Holding the flush lock for the read means a batch that is being
+     * committed is seen exactly once, either in the database or in the buffer.
+     */
+    public List<FoodLog> withPending(Long userId, LocalDate from, LocalDate to, Supplier<List<FoodLog>> persisted) {
+        if (!enabled) return persisted.get();
+        flushLock.readLock().lock();
+        try {
+            List<FoodLog> result = new ArrayList<>(persisted.get());
+            synchronized (lock) {
+                for (Entry e : pendingByUser.getOrDefault(userId, List.of())) {
+                    LocalDate d = LocalDate.parse(e.date());
+                    if (!d.isBefore(from) && !d.isAfter(to)) {
+                        result.add(e.toFoodLog());
+                    }
+                }
+            }
+            return result;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@code persisted}'s version token with a fingerprint of the user's unflushed log sequence numbers
+     * appended, read under the flush lock like {@link #withPending} so a batch in flight is counted once.
+     * Sequence numbers are never reused, so any offer, flush or discard changes the result.
+     */
+    public String versionWithPending(Long userId, LongSupplier persisted) {
+        if (!enabled) return Long.toString(persisted.getAsLong());
+        flushLock.readLock().lock();
+        try {
+            long version = persisted.getAsLong();
+            long fingerprint = 0;
+            synchronized (lock) {
+                for (Entry e : pendingByUser.getOrDefault(userId, List.of())) {
+                    fingerprint = fingerprint * 0x9E3779B97F4A7C15L + e.seq();
+                }
+            }
+            return fingerprint == 0 ? Long.toString(version) : version + "." + Long.toHexString(fingerprint);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the user's unflushed logs within [from, to] so a range delete also covers them. Waits for an
+     * in-flight flush, so anything it wrote is already committed for the caller's DELETE to see.
+     * Inside a transaction the logs are only held back from flushing until it ends: they are dropped
+     * (and the journal compacted) once it commits, and released again if it rolls back, so readers see
+     * them exactly as long as they would see the rows the DELETE removes.
+     */
+    public int discard(Long userId, LocalDate from, LocalDate to) {
+        if (!enabled) return 0;
+        List<Entry> held;
+        flushLock.writeLock().lock();
+        try {
+            synchronized (lock) {
+                held = pendingByUser.getOrDefault(userId, List.of()).stream().filter(e -> {
+                    LocalDate d = LocalDate.parse(e.date());
+                    return !d.isBefore(from) && !d.isAfter(to) && !heldBack.contains(e.seq());
+                }).toList();
+                if (held.isEmpty()) return 0;
+                held.forEach(e -> heldBack.add(e.seq()));
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            drop(held);
+            return held.size();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                drop(held);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    synchronized (lock) {
+                        held.forEach(e -> heldBack.remove(e.seq()));
+                    }
+                }
+            }
+        });
+        return held.size();
+    }
+
+    private void drop(List<Entry> entries) {
+        synchronized (lock) {
+            for (Entry e : entries) {
+                heldBack.remove(e.seq());
+            }
+        }
+        remove(entries);
+        compact();
+    }
+
+    private void remove(List<Entry> entries) {
+        synchronized (lock) {
+            for (Entry e : entries) {
+                queue.remove(e.seq());
+                List<Entry> forUser = pendingByUser.get(e.userId());
+                if (forUser != null) {
+                    forUser.remove(e);
+                    if (forUser.isEmpty()) pendingByUser.remove(e.userId());
+                }
+            }
+        }
+    }
+
+    private void enqueue(Entry e) {
+        queue.put(e.seq(), e);
+        pendingByUser.computeIfAbsent(e.userId(), k -> new ArrayList<>()).add(e);
+    }
+
+    private void drainSafely() {
+        try {
+            while (drainOnce() == batchSize) {
+                // keep draining full batches until the backlog is below one batch
+            }
+            compactIfBloated();
+        } catch (RuntimeException e) {
+            log.error("Food-log write-behind flush failed; will retry", e);
+        }
+    }
+
+    private int drainOnce() {
+        List<Entry> batch;
+        synchronized (lock) {
+            batch = queue.values().stream().filter(e -> !heldBack.contains(e.seq())).limit(batchSize).toList();
+        }
+        if (batch.isEmpty()) return 0;
+
+        flushLock.writeLock().lock();
+        try {
+            flush(batch);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        return batch.size();
+    }
+
+    /** Compacts once the journal is empty of pending entries or mostly holds flushed ones. */
+    private void compactIfBloated() {
+        long lines;
+        synchronized (journalLock) {
+            lines = journal.lines();
+        }
+        int pending;
+        synchronized (lock) {
+            pending = queue.size();
+        }
+        if (lines > 0 && (pending == 0 || lines > 2L * pending + batchSize)) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the journal down to the pending entries. The snapshot is written without blocking offers;
+     * only the swap, which also copies over whatever was journaled meanwhile, holds the journal lock.
+     */
+    private void compact() {
+        synchronized (compactionLock) {
+            synchronized (journalLock) {
+                boolean empty;
+                synchronized (lock) {
+                    empty = queue.isEmpty();
+                }
+                if (empty) {
+                    journal.delete();
+                    return;
+                }
+            }
+            List<Entry> snapshot;
+            synchronized (lock) {
+                snapshot = new ArrayList<>(queue.values());
+            }
+            long last = snapshot.isEmpty() ? 0 : snapshot.get(snapshot.size() - 1).seq();
+            FoodLogJournal.Snapshot written = journal.writeSnapshot(snapshot);
+            synchronized (journalLock) {
+                List<Entry> tail;
+                synchronized (lock) {
+                    tail = queue.values().stream().filter(e -> e.seq() > last).toList();
+                }
+                journal.replace(written, tail);
+            }
+        }
+    }
+
+    /** Inserts the batch and removes what was settled from the buffer; called under the flush lock. */
+    private void flush(List<Entry> batch) {
+        try {
+            flushedSeq = transactionTemplate.execute(status -> insert(batch));
+            remove(batch);
+        } catch (DataIntegrityViolationException batchFailure) {
+            // Isolate the offending rows so one bad entry cannot block the journal forever;
+            // anything else (e.g. the database being down) propagates and the batch is retried.
+            for (Entry e : batch) {
+                try {
+                    flushedSeq = transactionTemplate.execute(status -> insert(List.of(e)));
+                } catch (DataIntegrityViolationException rowFailure) {
+                    log.error("Dropping unflushable journaled food log seq={} for user {}", e.seq(), e.userId(), rowFailure);
+                }
+                // Removed one by one, so the next row's mark does not list this one as pending
+                remove(List.of(e));
+            }
+        }
+    }
+
+    /** Inserts the entries and moves the mark past them; returns the new mark once committed. */
+    private long insert(List<Entry> entries) {
+        List<FoodLog> logs = new ArrayList<>(entries.size());
+        Map<Long, LocalDate[]> daysByUser = new HashMap<>();
+        for (Entry e : entries) {
+            FoodLog f = e.toFoodLog();
+            f.setUser(userRepository.getReferenceById(e.userId()));
+            logs.add(f);
+            daysByUser.merge(e.userId(), new LocalDate[]{f.getDate(), f.getDate()}, (a, b) -> new LocalDate[]{
+                    a[0].isBefore(b[0]) ? a[0] : b[0], a[1].isAfter(b[1]) ? a[1] : b[1]});
+        }
+        foodLogRepository.saveAll(logs);
+
+        // Held-back entries are skipped by the drainer, so a batch can pass over lower, still pending
+        // seqs; the mark names them so replay keeps them. Everything else at or below it is flushed or
+        // was dropped by a committed range delete.
+        Set<Long> inBatch = new HashSet<>();
+        long seq = flushedSeq;
+        for (Entry e : entries) {
+            inBatch.add(e.seq());
+            seq = Math.max(seq, e.seq());
+        }
+        long upTo = seq;
+        List<Long> pending;
+        synchronized (lock) {
+            pending = queue.keySet().stream().filter(s -> s <= upTo && !inBatch.contains(s)).sorted().toList();
+        }
+        String pendingSeqs = pending.isEmpty() ? null
+                : pending.stream().map(String::valueOf).collect(Collectors.joining(" "));
+        if (pendingSeqs != null && pendingSeqs.length() > WriteBehindMark.MAX_PENDING_SEQS) {
+            // Too many to list: fall back to just below the oldest pending entry, which never loses a
+            // log but may replay some flushed above it twice
+            seq = pending.get(0) - 1;
+            pendingSeqs = null;
+        }
+        marks.moveTo(journalId, seq, pendingSeqs, Instant.now());
+        daysByUser.forEach((userId, days) -> events.publish(OutboxEvent.FOOD_LOG, userId, days[0], days[1]));
+        return seq;
+    }
+
+    private static Set<Long> parseSeqs(String seqs) {
+        if (seqs == null || seqs.isBlank()) return Set.of();
+        return Arrays.stream(seqs.trim().split(" ")).map(Long::valueOf).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.dto.QuickAddFoodResponse;
+import com.example.fit4ever.model.FoodLog;
+import com.example.fit4ever.repository.FoodLogRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Per-user "frequent" and "recent" foods for one-tap re-logging. Served entirely from memory:
+ * a Space-Saving top-K sketch plus a small recent ring, fed by new food logs and rebuilt from the
+ * user's latest logs the first time they are asked for. Memory is bounded per user and in users.
+ */
+@Service
+@RequiredArgsConstructor
+public class FoodQuickAddService {
+    static final int TOP_K = 32;
+    static final int RECENT_SIZE = 15;
+    private static final int REBUILD_WINDOW = 200;
+
+    private final UserRepository userRepository;
+    private final FoodLogRepository foodLogRepository;
+    private final FoodLogWriteBehindBuffer writeBehind;
+
+    private final Cache<String, UserFoods> byUser = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(6))
+            .build();
+
+    private record Snapshot(String itemName, String mealType, int calories,
+                            double protein, double carbs, double fat, LocalDate date) {
+        static Snapshot of(FoodLog f) {
+            return new Snapshot(f.getItemName(), f.getMealType(), f.getCalories(),
+                    f.getProtein(), f.getCarbs(), f.getFat(), f.getDate());
+        }
+    }
+
+    private static final class UserFoods {
+        private final SpaceSavingTopK<Snapshot> frequent = new SpaceSavingTopK<>(TOP_K);
+        private final ArrayDeque<Snapshot> recent = new ArrayDeque<>(RECENT_SIZE);
+
+        synchronized void add(Snapshot s) {
+            String key = key(s.itemName());
+            frequent.offer(key, s);
+            // Most recent first, one entry per item
+            for (Iterator<Snapshot> it = recent.iterator(); it.hasNext(); ) {
+                if (key(it.next().itemName()).equals(key)) {
+                    it.remove();
+                    break;
+                }
+            }
+            recent.addFirst(s);
+            if (recent.size() > RECENT_SIZE) recent.removeLast();
+        }
+    }
+
+    private static int clamp(int limit, int max) {
+        return Math.max(1, Math.min(limit, max));
+    }
+
+    private static String key(String itemName) {
+        return itemName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Feeds a newly logged item; users without a warm entry are rebuilt on their next read instead. */
+    public void record(String userEmail, FoodLog log) {
+        add(userEmail, Snapshot.of(log));
+    }
+
+    /**
+     * Like {@link #record}, for a log saved in the current transaction: fed once it commits, so a rebuild
+     * that read before the commit still gets it and a rollback leaves no phantom food behind.
+     */
+    public void recordAfterCommit(String userEmail, FoodLog log) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(userEmail, log);
+            return;
+        }
+        Snapshot s = Snapshot.of(log);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(userEmail, s);
+            }
+        });
+    }
+
+    private void add(String userEmail, Snapshot s) {
+        // compute, unlike getIfPresent or computeIfPresent, waits for a rebuild in flight, whose query may
+        // have missed this log; an absent entry stays absent
+        byUser.asMap().compute(userEmail, (email, foods) -> {
+            if (foods != null) foods.add(s);
+            return foods;
+        });
+    }
+
+    /**
+     * Drops the user's entry once the current transaction commits, so deleted logs stop being offered.
+     * The sketch cannot subtract, so the next read rebuilds it from what is left.
+     */
+    public void forget(String userEmail) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            byUser.invalidate(userEmail);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                byUser.invalidate(userEmail);
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<QuickAddFoodResponse> frequent(String userEmail, int limit) {
+        UserFoods foods = load(userEmail);
+        synchronized (foods) {
+            List<QuickAddFoodResponse> out = new ArrayList<>();
+            for (var c : foods.frequent.top(clamp(limit, TOP_K))) {
+                out.add(toResponse(c.value(), c.count()));
+            }
+            return out;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<QuickAddFoodResponse> recent(String userEmail, int limit) {
+        UserFoods foods = load(userEmail);
+        synchronized (foods) {
+            return foods.recent.stream().limit(clamp(limit, RECENT_SIZE)).map(s -> toResponse(s, null)).toList();
+        }
+    }
+
+    private UserFoods load(String userEmail) {
+        return byUser.get(userEmail, this::rebuild);
+    }
+
+    private UserFoods rebuild(String userEmail) {
+        Long userId = userRepository.findIdByEmail(userEmail)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+        List<FoodLog> persisted = new ArrayList<>(REBUILD_WINDOW);
+        List<FoodLog> all = writeBehind.withPending(userId, LocalDate.MIN, LocalDate.MAX, () -> {
+            persisted.addAll(foodLogRepository.findTop200ByUserIdOrderByDateDescIdDesc(userId));
+            return persisted;
+        });
+        UserFoods foods = new UserFoods();
+        // Persisted rows arrive newest first; replay them oldest first, then any unflushed ones
+        for (int i = persisted.size() - 1; i >= 0; i--) {
+            foods.add(Snapshot.of(all.get(i)));
+        }
+        for (int i = persisted.size(); i < all.size(); i++) {
+            foods.add(Snapshot.of(all.get(i)));
+        }
+        return foods;
+    }
+
+    private static QuickAddFoodResponse toResponse(Snapshot s, Long count) {
+        return QuickAddFoodResponse.builder()
+                .itemName(s.itemName())
+                .mealType(s.mealType())
+                .calories(s.calories())
+                .protein(s.protein())
+                .carbs(s.carbs())
+                .fat(s.fat())
+                .timesLogged(count)
+                .lastLoggedOn(s.date().toString())
+                .build();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.model.Goal;
+import com.example.fit4ever.model.JobCheckpoint;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.repository.GoalRepository;
+import com.example.fit4ever.repository.JobCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closes ACTIVE goals: COMPLETED once their target is met, EXPIRED once their end date has passed
+ * without it. Walks ACTIVE goals in (endDate, id) keyset order in waves of {@code parallelism}
+ * chunks; each chunk is evaluated and updated in its own transaction on a bounded worker pool.
+ * The keyset position is checkpointed after every wave, so a crashed run resumes where it stopped
+ * (re-running at most one wave, which is harmless because only still-ACTIVE goals are updated).
+ */
+@Component
+@Slf4j
+public class GoalLifecycleJob {
+    static final String NAME = "goal-lifecycle";
+    private static final LocalDate KEYSET_START = LocalDate.of(1, 1, 1);
+
+    private final GoalRepository goalRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final GoalService goalService;
+    private final DomainEventPublisher events;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${fit4ever.goals.lifecycle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fit4ever.goals.lifecycle.initial-delay-seconds:60}")
+    private long initialDelaySeconds;
+
+    @Value("${fit4ever.goals.lifecycle.interval-minutes:60}")
+    private long intervalMinutes;
+
+    @Value("${fit4ever.goals.lifecycle.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${fit4ever.goals.lifecycle.parallelism:4}")
+    private int parallelism;
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService workers;
+
+    public GoalLifecycleJob(GoalRepository goalRepository, JobCheckpointRepository checkpointRepository,
+                            GoalService goalService, DomainEventPublisher events,
+                            PlatformTransactionManager transactionManager) {
+        this.goalRepository = goalRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.goalService = goalService;
+        this.events = events;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Outcome of one run; counts cover the part of the run done by this call. */
+    public record Result(int evaluated, int completed, int expired) {
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger n = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "goal-lifecycle-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        if (!enabled) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "goal-lifecycle");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runSafely, TimeUnit.SECONDS.toMillis(initialDelaySeconds),
+                TimeUnit.MINUTES.toMillis(intervalMinutes), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /** Runs (or resumes) a pass over all ACTIVE goals on the calling thread plus the worker pool. */
+    public synchronized Result run() {
+        JobCheckpoint checkpoint = transactionTemplate.execute(status -> checkpointRepository.findById(NAME)
+                .filter(c -> c.getFinishedAt() == null)
+                .map(c -> {
+                    log.info("Resuming goal lifecycle run for {} after goal {}", c.getAsOf(), c.getLastId());
+                    return c;
+                })
+                .orElseGet(() -> {
+                    JobCheckpoint c = checkpointRepository.findById(NAME).orElseGet(() -> JobCheckpoint.builder().name(NAME).build());
+                    c.setAsOf(LocalDate.now());
+                    c.setLastEndDate(KEYSET_START);
+                    c.setLastId(0L);
+                    c.setProcessed(0);
+                    c.setFinishedAt(null);
+                    c.setUpdatedAt(Instant.now());
+                    return checkpointRepository.save(c);
+                }));
+        LocalDate asOf = checkpoint.getAsOf();
+        int waveSize = chunkSize * parallelism;
+        int evaluated = 0, completed = 0, expired = 0;
+
+        while (true) {
+            LocalDate afterEnd = checkpoint.getLastEndDate();
+            long afterId = checkpoint.getLastId();
+            List<Goal> wave = transactionTemplate.execute(status ->
+                    goalRepository.findActivePage(afterEnd, afterId, Limit.of(waveSize)));
+            if (wave.isEmpty()) break;
+
+            List<CompletableFuture<int[]>> chunks = new ArrayList<>();
+            for (int i = 0; i < wave.size(); i += chunkSize) {
+                List<Goal> chunk = wave.subList(i, Math.min(i + chunkSize, wave.size()));
+                chunks.add(CompletableFuture.supplyAsync(
+                        () -> transactionTemplate.execute(status -> evaluate(chunk, asOf)), workers));
+            }
+            try {
+                for (var chunk : chunks) {
+                    int[] counts = chunk.join();
+                    completed += counts[0];
+                    expired += counts[1];
+                }
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+            evaluated += wave.size();
+
+            Goal last = wave.get(wave.size() - 1);
+            checkpoint.setLastEndDate(last.getEndDate());
+            checkpoint.setLastId(last.getId());
+            checkpoint.setProcessed(checkpoint.getProcessed() + wave.size());
+            checkpoint.setUpdatedAt(Instant.now());
+            checkpoint = save(checkpoint);
+            if (wave.size() < waveSize) break;
+        }
+
+        checkpoint.setFinishedAt(Instant.now());
+        save(checkpoint);
+        if (completed + expired > 0) {
+            log.info("Goal lifecycle as of {}: {} evaluated, {} completed, {} expired", asOf, evaluated, completed, expired);
+        }
+        return new Result(evaluated, completed, expired);
+    }
+
+    private JobCheckpoint save(JobCheckpoint checkpoint) {
+        return transactionTemplate.execute(status -> checkpointRepository.save(checkpoint));
+    }
+
+    /** @return {completed, expired} for the chunk */
+    private int[] evaluate(List<Goal> chunk, LocalDate asOf) {
+        var counters = goalService.counters(chunk);
+        List<Long> completed = new ArrayList<>();
+        List<Long> expired = new ArrayList<>();
+        Set<Long> owners = new HashSet<>();
+        for (Goal g : chunk) {
+            var strategy = goalService.strategy(g.getType());
+            var c = counters.getOrDefault(g.getId(), GoalProgressStrategy.ProgressCounters.EMPTY);
+            if (strategy != null && strategy.targetMet(g, c, asOf)) {
+                completed.add(g.getId());
+                owners.add(g.getUser().getId());
+            } else if (g.getEndDate().isBefore(asOf)) {
+                expired.add(g.getId());
+                owners.add(g.getUser().getId());
+            }
+        }
+        Instant now = Instant.now();
+        int done = completed.isEmpty() ? 0 : goalRepository.closeActive(completed, "COMPLETED", now);
+        int lapsed = expired.isEmpty() ? 0 : goalRepository.closeActive(expired, "EXPIRED", now);
+        // One status-change event per owner, committed with the chunk: advances their goals ETag and
+        // reaches live streams and other consumers like any other goal change
+        owners.forEach(userId -> events.publish(OutboxEvent.GOAL, userId, null, null));
+        return new int[]{done, lapsed};
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.error("Goal lifecycle run failed; it resumes from its checkpoint next time", e);
+        }
+    }
+}
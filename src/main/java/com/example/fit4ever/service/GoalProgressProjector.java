@@ -0,0 +1,141 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.model.Goal;
+import com.example.fit4ever.model.GoalProgress;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.repository.GoalProgressRepository;
+import com.example.fit4ever.repository.GoalRepository;
+import com.example.fit4ever.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@code goal_progress} up to date from outbox events. Each event only says which user's rows
+ * changed and on which days; the affected goals are recomputed from source with the strategies'
+ * grouped aggregates. Applying an event twice, out of order, or long after the fact therefore
+ * yields the same counters, which is what makes replay and rebuild safe.
+ */
+@Component
+@Slf4j
+public class GoalProgressProjector implements OutboxConsumer {
+    private static final LocalDate ANY_FROM = LocalDate.of(1, 1, 1);
+    private static final LocalDate ANY_TO = LocalDate.of(9999, 12, 31);
+    private static final int REBUILD_PAGE = 500;
+
+    private final GoalRepository goalRepository;
+    private final GoalProgressRepository goalProgressRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, GoalProgressStrategy> byType;
+    private final Map<String, List<String>> typesBySource;
+
+    public GoalProgressProjector(GoalRepository goalRepository, GoalProgressRepository goalProgressRepository,
+                                 OutboxEventRepository outboxEventRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 List<GoalProgressStrategy> strategies) {
+        this.goalRepository = goalRepository;
+        this.goalProgressRepository = goalProgressRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.byType = strategies.stream().collect(Collectors.toMap(GoalProgressStrategy::type, Function.identity()));
+        this.typesBySource = strategies.stream().collect(Collectors.groupingBy(GoalProgressStrategy::source,
+                Collectors.mapping(GoalProgressStrategy::type, Collectors.toList())));
+    }
+
+    /** Projects a batch of events; events of one user are coalesced into one recompute per goal. */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(List<OutboxEvent> events) {
+        Map<Long, List<OutboxEvent>> byUser = events.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getUserId, LinkedHashMap::new, Collectors.toList()));
+        byUser.forEach((userId, userEvents) -> {
+            Map<Long, Goal> affected = new LinkedHashMap<>();
+            List<Long> goalIds = new ArrayList<>();
+            Map<String, LocalDate[]> ranges = new HashMap<>();
+            for (OutboxEvent e : userEvents) {
+                if (OutboxEvent.GOAL.equals(e.getType())) {
+                    // Without a goal id it is a status change (e.g. the lifecycle job), which leaves counters alone
+                    if (e.getEntityId() != null) goalIds.add(e.getEntityId());
+                } else if (typesBySource.containsKey(e.getType())) {
+                    LocalDate from = e.getFromDate() == null ? ANY_FROM : e.getFromDate();
+                    LocalDate to = e.getToDate() == null ? ANY_TO : e.getToDate();
+                    ranges.merge(e.getType(), new LocalDate[]{from, to}, (a, b) -> new LocalDate[]{
+                            a[0].isBefore(b[0]) ? a[0] : b[0], a[1].isAfter(b[1]) ? a[1] : b[1]});
+                }
+            }
+            goalRepository.findAllById(goalIds).forEach(g -> affected.put(g.getId(), g));
+            ranges.forEach((source, range) -> goalRepository
+                    .findOverlapping(userId, typesBySource.get(source), range[0], range[1])
+                    .forEach(g -> affected.putIfAbsent(g.getId(), g)));
+            long lastEventId = userEvents.get(userEvents.size() - 1).getId();
+            project(new ArrayList<>(affected.values()), lastEventId);
+        });
+    }
+
+    /**
+     * Recomputes the counters of every goal, or only {@code userId}'s goals when it is not null,
+     * in pages of {@value #REBUILD_PAGE} goals with one transaction per page.
+     *
+     * @return number of goals recomputed
+     */
+    public int rebuild(Long userId) {
+        long lastEventId = transactionTemplate.execute(status -> outboxEventRepository.maxId());
+        int total = 0;
+        long after = 0;
+        while (true) {
+            long afterId = after;
+            List<Goal> page = transactionTemplate.execute(status -> {
+                List<Goal> goals = userId == null
+                        ? goalRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(REBUILD_PAGE))
+                        : goalRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, afterId, Limit.of(REBUILD_PAGE));
+                project(goals, lastEventId);
+                return goals;
+            });
+            if (page.isEmpty()) break;
+            total += page.size();
+            after = page.get(page.size() - 1).getId();
+        }
+        log.info("Rebuilt progress counters for {} goals{}", total, userId == null ? "" : " of user " + userId);
+        return total;
+    }
+
+    private void project(List<Goal> goals, long eventId) {
+        if (goals.isEmpty()) return;
+        Map<Long, GoalProgressStrategy.ProgressCounters> counters = new HashMap<>();
+        goals.stream().collect(Collectors.groupingBy(Goal::getType)).forEach((type, ofType) -> {
+            var strategy = byType.get(type);
+            if (strategy != null) counters.putAll(strategy.collect(ofType));
+        });
+        Map<Long, GoalProgress> existing = goalProgressRepository.findAllById(GoalProgressStrategy.ids(goals)).stream()
+                .collect(Collectors.toMap(GoalProgress::getGoalId, Function.identity()));
+        Instant now = Instant.now();
+        List<GoalProgress> rows = new ArrayList<>(goals.size());
+        for (Goal g : goals) {
+            var c = counters.getOrDefault(g.getId(), GoalProgressStrategy.ProgressCounters.EMPTY);
+            GoalProgress row = existing.getOrDefault(g.getId(), GoalProgress.builder().goalId(g.getId()).build());
+            row.setSamples(c.samples());
+            row.setTotal(c.total());
+            row.setBaseline(c.baseline());
+            row.setLatest(c.latest());
+            row.setLastEventId(row.getLastEventId() == null ? eventId : Math.max(row.getLastEventId(), eventId));
+            row.setUpdatedAt(now);
+            rows.add(row);
+        }
+        goalProgressRepository.saveAll(rows);
+    }
+}
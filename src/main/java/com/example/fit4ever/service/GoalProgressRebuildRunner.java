@@ -0,0 +1,34 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds materialised goal progress at startup when asked to:
+ * {@code --rebuild-goal-progress=all} for every user, or {@code --rebuild-goal-progress=<email>} for one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GoalProgressRebuildRunner implements ApplicationRunner {
+    static final String OPTION = "rebuild-goal-progress";
+
+    private final GoalProgressProjector projector;
+    private final UserRepository userRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(OPTION)) return;
+        String target = args.getOptionValues(OPTION).stream().findFirst().orElse("all");
+        if (target.isBlank() || target.equalsIgnoreCase("all")) {
+            projector.rebuild(null);
+            return;
+        }
+        userRepository.findIdByEmail(target).ifPresentOrElse(projector::rebuild,
+                () -> log.warn("Cannot rebuild goal progress: no user {}", target));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.model.Goal;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes progress for one goal type. Implementations are Spring beans picked up by
+ * {@link GoalService}, so a new goal type is a new bean rather than another switch branch.
+ * {@link #collect} must stay bounded in cost regardless of how much history a user has and
+ * regardless of how many goals are passed: one grouped aggregate statement for the whole list,
+ * never per-goal queries or entity lists.
+ */
+public interface GoalProgressStrategy {
+
+    /** Goal type handled, e.g. {@code WORKOUTS_PER_WEEK}. */
+    String type();
+
+    /** Outbox event type whose changes move this goal type's counters, e.g. {@code WORKOUT}. */
+    String source();
+
+    /** Reads the aggregates behind each goal's progress, keyed by goal id; goals without data may be absent. */
+    Map<Long, ProgressCounters> collect(List<Goal> goals);
+
+    /** Progress in [0, 1] from previously collected counters, as of {@code today}. */
+    double score(Goal goal, ProgressCounters counters, LocalDate today);
+
+    /**
+     * Whether the goal's target is reached as of {@code today}, for the lifecycle job. The default
+     * treats a full score as met; types scored against elapsed time must judge the whole window.
+     */
+    default boolean targetMet(Goal goal, ProgressCounters counters, LocalDate today) {
+        return score(goal, counters, today) >= 1.0;
+    }
+
+    default ProgressCounters collect(Goal goal) {
+        return collect(List.of(goal)).getOrDefault(goal.getId(), ProgressCounters.EMPTY);
+    }
+
+    /**
+     * Aggregates behind a goal's progress.
+     *
+     * @param samples  counted items (workouts, days with food logs, days with weigh-ins)
+     * @param total    summed quantity where relevant (calories)
+     * @param baseline value at the start of the goal window (smoothed weight)
+     * @param latest   most recent value in the goal window (smoothed weight)
+     */
+    record ProgressCounters(long samples, double total, Double baseline, Double latest) {
+        public static final ProgressCounters EMPTY = new ProgressCounters(0, 0, null, null);
+    }
+
+    static double clamp01(double v) {
+        return Math.max(0.0, Math.min(1.0, v));
+    }
+
+    static List<Long> ids(List<Goal> goals) {
+        return goals.stream().map(Goal::getId).toList();
+    }
+}
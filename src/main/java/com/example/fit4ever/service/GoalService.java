@@ -1,24 +1,52 @@
 package com.example.fit4ever.service;
 
 import com.example.fit4ever.dto.GoalDtos.*;
+import com.example.fit4ever.exception.PreconditionFailedException;
+import com.example.fit4ever.exception.ResourceNotFoundException;
 import com.example.fit4ever.model.Goal;
-import com.example.fit4ever.model.User;
+import com.example.fit4ever.model.GoalProgress;
+import com.example.fit4ever.repository.GoalProgressRepository;
 import com.example.fit4ever.repository.GoalRepository;
 import com.example.fit4ever.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @Service 
-@RequiredArgsConstructor
 public class GoalService {
     private final GoalRepository goalRepo;
     private final UserRepository userRepo;
+    private final GoalProgressRepository progressRepo;
+    private final DomainEventPublisher events;
+    private final CollectionVersions collectionVersions;
+    private final Map<String, GoalProgressStrategy> strategies = new TreeMap<>();
 
-    private User userByEmail(String email) {
-        return userRepo.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+    public GoalService(GoalRepository goalRepo, UserRepository userRepo, GoalProgressRepository progressRepo,
+                       DomainEventPublisher events, CollectionVersions collectionVersions,
+                       List<GoalProgressStrategy> strategies) {
+        this.goalRepo = goalRepo;
+        this.userRepo = userRepo;
+        this.progressRepo = progressRepo;
+        this.events = events;
+        this.collectionVersions = collectionVersions;
+        strategies.forEach(s -> this.strategies.put(s.type(), s));
+    }
+
+    private Long userId(String email) {
+        return userRepo.findIdByEmail(email)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+    }
+
+    /** The caller's goal by id; only the failure path pays for a second lookup, to tell "missing" from "not yours". */
+    private Goal ownedGoal(Long id, Long userId) {
+        return goalRepo.findByIdAndUserId(id, userId).orElseThrow(() -> goalRepo.existsById(id)
+                ? new SecurityException("Forbidden: cannot access others' goals")
+                : new ResourceNotFoundException("Goal not found"));
     }
     
     private static LocalDate d(String s){ 
@@ -28,9 +56,9 @@ public class GoalService {
     @Transactional
     public GoalResponse create(CreateGoalRequest r, String email) {
         validateType(r.getType());
-        var u = userByEmail(email);
+        Long userId = userId(email);
         var g = Goal.builder()
-                .user(u)
+                .user(userRepo.getReferenceById(userId))
                 .type(r.getType())
                 .targetValue(r.getTargetValue())
                 .startDate(d(r.getStartDate()))
@@ -38,22 +66,53 @@ public class GoalService {
                 .status("ACTIVE")
                 .build();
         g = goalRepo.save(g);
+        events.publishGoal(userId, g.getId());
         return toResp(g);
     }
 
+    /** Identifies the current state of the user's goal list without running the list query. */
+    @Transactional(readOnly = true)
+    public String listVersion(String email) {
+        return CollectionVersions.GOALS + "-" + collectionVersions.current(userId(email), CollectionVersions.GOALS);
+    }
+
     @Transactional(readOnly = true)
     public List<GoalResponse> list(String email) {
-        var u = userByEmail(email);
-        return goalRepo.findByUserIdOrderByStartDateDesc(u.getId())
-                .stream().map(this::toResp).toList();
+        return list(userId(email));
+    }
+
+    /** {@link #list(String)} for a caller that has already resolved the user's id. */
+    @Transactional(readOnly = true)
+    public List<GoalResponse> list(Long userId) {
+        return goalRepo.findSummariesByUserId(userId).stream()
+                .map(g -> GoalResponse.builder()
+                        .id(g.getId())
+                        .type(g.getType())
+                        .targetValue(g.getTargetValue())
+                        .startDate(g.getStartDate().toString())
+                        .endDate(g.getEndDate().toString())
+                        .status(g.getStatus())
+                        .version(g.getVersion())
+                        .build())
+                .toList();
     }
 
     @Transactional
     public GoalResponse update(Long id, UpdateGoalRequest r, String email) {
-        var u = userByEmail(email);
-        var g = goalRepo.findById(id).orElseThrow(() -> new RuntimeException("Goal not found"));
-        if (!g.getUser().getId().equals(u.getId())) throw new RuntimeException("Forbidden");
-        
+        return update(id, r, email, null);
+    }
+
+    /** Applies the update only if the goal is still at {@code expectedVersion} (null skips the check). */
+    @Transactional
+    public GoalResponse update(Long id, UpdateGoalRequest r, String email, Long expectedVersion) {
+        Long userId = userId(email);
+        var g = ownedGoal(id, userId);
+        if (expectedVersion != null && !expectedVersion.equals(g.getVersion())) {
+            throw new PreconditionFailedException("Goal was modified (now at version " + g.getVersion() + ")");
+        }
+
+        String oldType = g.getType();
+        LocalDate oldStart = g.getStartDate(), oldEnd = g.getEndDate();
         if (r.getType() != null) { 
             validateType(r.getType()); 
             g.setType(r.getType()); 
@@ -63,24 +122,75 @@ public class GoalService {
         if (r.getEndDate() != null) g.setEndDate(d(r.getEndDate()));
         if (r.getStatus() != null) g.setStatus(r.getStatus());
         
-        g = goalRepo.save(g);
+        g = goalRepo.saveAndFlush(g); // flushed so the response carries the new version
+        if (!g.getType().equals(oldType) || !g.getStartDate().equals(oldStart) || !g.getEndDate().equals(oldEnd)) {
+            // Stored counters describe the old window; read live until the projector catches up
+            progressRepo.findById(g.getId()).ifPresent(progressRepo::delete);
+            events.publishGoal(userId, g.getId());
+        } else {
+            collectionVersions.touch(userId, CollectionVersions.GOALS);
+        }
         return toResp(g);
     }
 
     @Transactional(readOnly = true)
     public GoalProgressResponse progress(Long id, String email) {
-        var u = userByEmail(email);
-        var g = goalRepo.findById(id).orElseThrow(() -> new RuntimeException("Goal not found"));
-        if (!g.getUser().getId().equals(u.getId())) throw new RuntimeException("Forbidden");
-        
-        // Simple demo progress calc (replace with real aggregation later):
-        double progress = switch (g.getType()) {
-            case "WEIGHT" -> 0.4;            // e.g., from latest weigh-ins
-            case "WORKOUTS_PER_WEEK" -> 0.6; // e.g., count workouts this week / target
-            case "CALORIES" -> 0.5;          // e.g., compare avg calories to target
-            default -> 0.0;
-        };
-        
+        var g = ownedGoal(id, userId(email));
+
+        var strategy = strategies.get(g.getType());
+        var counters = progressRepo.findById(g.getId()).map(GoalService::toCounters)
+                .orElseGet(() -> strategy == null ? GoalProgressStrategy.ProgressCounters.EMPTY : strategy.collect(g));
+        return toProgress(g, counters, LocalDate.now());
+    }
+
+    /**
+     * Progress for all of the user's goals (optionally only those with {@code status}) in a fixed
+     * number of statements: the goals, their stored counters, and one grouped aggregate per goal
+     * type only for goals the projector has not materialised yet.
+     */
+    @Transactional(readOnly = true)
+    public List<GoalProgressResponse> progressAll(String status, String email) {
+        return progressAll(status, userId(email));
+    }
+
+    /** {@link #progressAll(String, String)} for a caller that has already resolved the user's id. */
+    @Transactional(readOnly = true)
+    public List<GoalProgressResponse> progressAll(String status, Long userId) {
+        List<Goal> goals = status == null || status.isBlank()
+                ? goalRepo.findByUserIdOrderByStartDateDesc(userId)
+                : goalRepo.findByUserIdAndStatusOrderByStartDateDesc(userId, status);
+
+        Map<Long, GoalProgressStrategy.ProgressCounters> counters = counters(goals);
+        LocalDate today = LocalDate.now();
+        return goals.stream()
+                .map(g -> toProgress(g, counters.getOrDefault(g.getId(), GoalProgressStrategy.ProgressCounters.EMPTY), today))
+                .toList();
+    }
+
+    /** Stored counters where the projector has them, grouped live aggregates for the rest. */
+    Map<Long, GoalProgressStrategy.ProgressCounters> counters(List<Goal> goals) {
+        Map<Long, GoalProgressStrategy.ProgressCounters> counters = new HashMap<>();
+        progressRepo.findAllById(goals.stream().map(Goal::getId).toList())
+                .forEach(p -> counters.put(p.getGoalId(), toCounters(p)));
+        goals.stream().filter(g -> !counters.containsKey(g.getId()))
+                .collect(Collectors.groupingBy(Goal::getType)).forEach((type, ofType) -> {
+            var strategy = strategies.get(type);
+            if (strategy != null) counters.putAll(strategy.collect(ofType));
+        });
+        return counters;
+    }
+
+    GoalProgressStrategy strategy(String type) {
+        return strategies.get(type);
+    }
+
+    private static GoalProgressStrategy.ProgressCounters toCounters(GoalProgress p) {
+        return new GoalProgressStrategy.ProgressCounters(p.getSamples(), p.getTotal(), p.getBaseline(), p.getLatest());
+    }
+
+    private GoalProgressResponse toProgress(Goal g, GoalProgressStrategy.ProgressCounters counters, LocalDate today) {
+        var strategy = strategies.get(g.getType());
+        double progress = strategy == null ? 0.0 : strategy.score(g, counters, today);
         return GoalProgressResponse.builder()
                 .id(g.getId())
                 .type(g.getType())
@@ -91,11 +201,11 @@ public class GoalService {
     }
 
     private void validateType(String t) {
-        if (!( "WEIGHT".equals(t) || "WORKOUTS_PER_WEEK".equals(t) || "CALORIES".equals(t) ))
-            throw new IllegalArgumentException("type must be one of: WEIGHT | WORKOUTS_PER_WEEK | CALORIES");
+        if (!strategies.containsKey(t))
+            throw new IllegalArgumentException("type must be one of: " + String.join(" | ", strategies.keySet()));
     }
 
-    private GoalResponse toResp(Goal g) {
+    static GoalResponse toResp(Goal g) {
         return GoalResponse.builder()
                 .id(g.getId())
                 .type(g.getType())
@@ -103,6 +213,7 @@ public class GoalService {
                 .startDate(g.getStartDate().toString())
                 .endDate(g.getEndDate().toString())
                 .status(g.getStatus())
+                .version(g.getVersion())
                 .build();
     }
 }
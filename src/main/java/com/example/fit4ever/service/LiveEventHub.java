@@ -0,0 +1,282 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.dto.LiveEventDtos.ChangeEvent;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.repository.OutboxEventRepository;
+import com.example.fit4ever.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user server-sent event streams of workout, food-log, goal and weigh-in changes.
+ * <p>
+ * Changes are read from the tail of the outbox table rather than from the relay, so every node sees
+ * every committed event whichever node wrote it; the node that wrote it is woken right after the
+ * commit, the others pick it up on their next poll. Outbox ids are allocated before commit, so a
+ * lower id can become visible after a higher one: the tail position only moves past such a hole
+ * once it is older than any transaction should run, and events above it are delivered once each.
+ * <p>
+ * Connections live in {@value #BUCKETS} maps keyed by user id, each holding a small array of
+ * emitters, so an idle connection costs one array slot. Heartbeats go out one bucket per tick,
+ * spreading a full sweep over the heartbeat interval, with a single pre-built frame. Polling stops
+ * while the node has no connections.
+ */
+@Component
+@Slf4j
+public class LiveEventHub {
+    static final int BUCKETS = 32;
+    private static final Duration HOLE_GRACE = Duration.ofSeconds(10);
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("").build();
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${fit4ever.events.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${fit4ever.events.heartbeat-interval-ms:30000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${fit4ever.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${fit4ever.events.max-connections-per-user:8}")
+    private int maxPerUser;
+
+    @Value("${fit4ever.events.batch-size:500}")
+    private int batchSize;
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<Long, SseEmitter[]>[] buckets = new ConcurrentHashMap[BUCKETS];
+    private final AtomicInteger connections = new AtomicInteger();
+    private final TreeSet<Long> delivered = new TreeSet<>(); // ids above the tail position already sent
+    private long tail = -1;                                  // -1: not tailing (no connections)
+    private int heartbeatTick;
+    private ScheduledExecutorService executor;
+
+    public LiveEventHub(OutboxEventRepository outboxEventRepository, UserRepository userRepository,
+                        PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "live-events");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::pollSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        long tick = Math.max(1, heartbeatIntervalMs / BUCKETS);
+        executor.scheduleAtFixedRate(this::heartbeatOneBucket, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+        for (var bucket : buckets) {
+            bucket.values().forEach(emitters -> Arrays.stream(emitters).forEach(SseEmitter::complete));
+            bucket.clear();
+        }
+    }
+
+    /** Opens a stream for the user; the oldest of their streams is closed beyond the per-user limit. */
+    public SseEmitter connect(String userEmail) {
+        Long userId = userRepository.findIdByEmail(userEmail)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(userId, emitter));
+        register(userId, emitter);
+        return emitter;
+    }
+
+    /** Adds an emitter for the user and greets it with a {@code ready} event. */
+    public void register(Long userId, SseEmitter emitter) {
+        SseEmitter[] evicted = new SseEmitter[1];
+        bucket(userId).compute(userId, (id, current) -> {
+            if (current == null) return new SseEmitter[]{emitter};
+            SseEmitter[] next;
+            if (current.length >= maxPerUser) {
+                evicted[0] = current[0];
+                next = Arrays.copyOfRange(current, 1, current.length + 1);
+            } else {
+                next = Arrays.copyOf(current, current.length + 1);
+            }
+            next[next.length - 1] = emitter;
+            return next;
+        });
+        if (evicted[0] == null) {
+            connections.incrementAndGet();
+            startTailing();
+        } else {
+            evicted[0].complete();
+        }
+        try {
+            emitter.send(SseEmitter.event().name("ready").reconnectTime(pollIntervalMs).data("{}"));
+        } catch (IOException | IllegalStateException e) {
+            remove(userId, emitter);
+        }
+    }
+
+    public int connections() {
+        return connections.get();
+    }
+
+    public int connections(Long userId) {
+        SseEmitter[] emitters = bucket(userId).get(userId);
+        return emitters == null ? 0 : emitters.length;
+    }
+
+    /** Schedules an immediate poll; called after a transaction that published events commits. */
+    void wake() {
+        if (executor == null || connections.get() == 0) return;
+        try {
+            executor.execute(this::pollSafely);
+        } catch (RejectedExecutionException e) {
+            // shutting down
+        }
+    }
+
+    /**
+     * Sends every newly committed outbox event to its user's streams, on the calling thread.
+     *
+     * @return number of events sent
+     */
+    public synchronized int poll() {
+        if (connections.get() == 0) {
+            tail = -1;
+            delivered.clear();
+            return 0;
+        }
+        startTailing();
+        int sent = 0;
+        boolean more;
+        do {
+            long after = tail;
+            List<OutboxEvent> events = transactionTemplate.execute(status ->
+                    outboxEventRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(batchSize)));
+            for (OutboxEvent e : events) {
+                if (delivered.add(e.getId())) {
+                    dispatch(e);
+                    sent++;
+                }
+            }
+            // Move past contiguous ids, and past holes once the event after them is old enough
+            Instant settled = Instant.now().minus(HOLE_GRACE);
+            for (OutboxEvent e : events) {
+                if (e.getId() != tail + 1 && e.getCreatedAt().isAfter(settled)) break;
+                tail = e.getId();
+            }
+            delivered.headSet(tail, true).clear();
+            more = events.size() == batchSize && tail > after;
+        } while (more);
+        return sent;
+    }
+
+    /** Starts at the current end of the outbox, so a new stream only gets changes made after it opened. */
+    private synchronized void startTailing() {
+        if (tail < 0) {
+            tail = transactionTemplate.execute(status -> outboxEventRepository.maxId());
+        }
+    }
+
+    private void dispatch(OutboxEvent e) {
+        SseEmitter[] emitters = bucket(e.getUserId()).get(e.getUserId());
+        if (emitters == null) return;
+        ChangeEvent change = ChangeEvent.builder()
+                .type(typeName(e.getType()))
+                .id(e.getEntityId())
+                .from(e.getFromDate() == null ? null : e.getFromDate().toString())
+                .to(e.getToDate() == null ? null : e.getToDate().toString())
+                .build();
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(e.getId()))
+                        .name(change.getType())
+                        .data(change, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException ex) {
+                remove(e.getUserId(), emitter);
+            }
+        }
+    }
+
+    private void heartbeatOneBucket() {
+        var bucket = buckets[heartbeatTick];
+        heartbeatTick = (heartbeatTick + 1) % BUCKETS;
+        bucket.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(HEARTBEAT);
+                } catch (IOException | IllegalStateException e) {
+                    remove(userId, emitter);
+                }
+            }
+        });
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        boolean[] removed = new boolean[1];
+        bucket(userId).computeIfPresent(userId, (id, current) -> {
+            SseEmitter[] next = Arrays.stream(current).filter(e -> e != emitter).toArray(SseEmitter[]::new);
+            removed[0] = next.length < current.length;
+            return next.length == 0 ? null : next;
+        });
+        if (removed[0]) connections.decrementAndGet();
+    }
+
+    private ConcurrentHashMap<Long, SseEmitter[]> bucket(Long userId) {
+        return buckets[(int) Math.floorMod(userId, (long) BUCKETS)];
+    }
+
+    private static String typeName(String type) {
+        return switch (type) {
+            case OutboxEvent.WORKOUT -> "workout";
+            case OutboxEvent.FOOD_LOG -> "foodLog";
+            case OutboxEvent.GOAL -> "goal";
+            case OutboxEvent.BODY_WEIGHT -> "bodyWeight";
+            default -> type.toLowerCase(Locale.ROOT);
+        };
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.error("Live event poll failed; will retry", e);
+        }
+    }
+}
@@ -1,41 +1,65 @@
 package com.example.fit4ever.service;
 
 import com.example.fit4ever.dto.CreateFoodLogRequest;
+import com.example.fit4ever.dto.FoodLogPageResponse;
 import com.example.fit4ever.dto.FoodLogResponse;
 import com.example.fit4ever.dto.NutritionSummaryResponse;
+import com.example.fit4ever.exception.ResourceNotFoundException;
 import com.example.fit4ever.model.FoodLog;
+import com.example.fit4ever.model.OutboxEvent;
 import com.example.fit4ever.model.User;
 import com.example.fit4ever.repository.FoodLogRepository;
 import com.example.fit4ever.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.util.Base64;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class NutritionService {
+    private static final int MAX_BULK_DELETE_IDS = 1000;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final Comparator<FoodLog> DIARY_ORDER = Comparator.comparingInt(f -> FoodLog.mealOrderOf(f.getMealType()));
+
     private final UserRepository userRepository;
     private final FoodLogRepository foodLogRepository;
+    private final FoodLogWriteBehindBuffer writeBehind;
+    private final FoodQuickAddService quickAdd;
+    private final FoodDatabase foodDatabase;
+    private final DomainEventPublisher events;
+    private final CollectionVersions collectionVersions;
+    private final SyncTombstones tombstones;
 
     private User requireUser(String email) {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
     }
 
+    private Long requireUserId(String email) {
+        return userRepository.findIdByEmail(email)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+    }
+
     private static boolean isValidMealType(String mealType) {
         if (mealType == null) return false;
         String mt = mealType.toUpperCase(Locale.ROOT).trim();
         return mt.equals("BREAKFAST") || mt.equals("LUNCH") || mt.equals("DINNER") || mt.equals("SNACK");
     }
 
-    private static FoodLogResponse toResponse(FoodLog f) {
+    static FoodLogResponse toResponse(FoodLog f) {
         return FoodLogResponse.builder()
                 .id(f.getId())
                 .date(f.getDate().toString())
@@ -45,6 +69,21 @@ public class NutritionService {
                 .protein(f.getProtein())
                 .carbs(f.getCarbs())
                 .fat(f.getFat())
+                .foodId(f.getFoodId())
+                .build();
+    }
+
+    private static FoodLogResponse toResponse(FoodLogRepository.DiaryRow r) {
+        return FoodLogResponse.builder()
+                .id(r.getId())
+                .date(r.getDate().toString())
+                .mealType(r.getMealType())
+                .itemName(r.getItemName())
+                .calories(r.getCalories())
+                .protein(r.getProtein())
+                .carbs(r.getCarbs())
+                .fat(r.getFat())
+                .foodId(r.getFoodId())
                 .build();
     }
 
@@ -53,51 +92,225 @@ public class NutritionService {
         if (!isValidMealType(req.getMealType())) {
             throw new IllegalArgumentException("mealType must be one of BREAKFAST/LUNCH/DINNER/SNACK");
         }
-        User user = requireUser(userEmail);
         LocalDate date = LocalDate.parse(req.getDate());
 
         FoodLog log = FoodLog.builder()
                 .date(date)
                 .mealType(req.getMealType().toUpperCase(Locale.ROOT))
-                .itemName(req.getItemName())
-                .calories(req.getCalories())
-                .protein(req.getProtein())
-                .carbs(req.getCarbs())
-                .fat(req.getFat())
-                .user(user)
                 .build();
-        return toResponse(foodLogRepository.save(log));
+        if (req.getFoodId() != null) {
+            FoodDatabase.Food food = foodDatabase.findById(req.getFoodId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Food not found"));
+            FoodDatabase.Portion portion = food.servings(req.getServings() == null ? 1.0 : req.getServings());
+            String name = (req.getItemName() == null || req.getItemName().isBlank()) ? food.name() : req.getItemName();
+            log.setFoodId(food.id());
+            log.setItemName(name.length() > 100 ? name.substring(0, 100) : name);
+            log.setCalories(portion.calories());
+            log.setProtein(portion.protein());
+            log.setCarbs(portion.carbs());
+            log.setFat(portion.fat());
+        } else {
+            if (req.getItemName() == null || req.getItemName().isBlank() || req.getCalories() == null
+                    || req.getProtein() == null || req.getCarbs() == null || req.getFat() == null) {
+                throw new IllegalArgumentException("itemName, calories, protein, carbs and fat are required unless foodId is given");
+            }
+            log.setItemName(req.getItemName());
+            log.setCalories(req.getCalories());
+            log.setProtein(req.getProtein());
+            log.setCarbs(req.getCarbs());
+            log.setFat(req.getFat());
+        }
+
+        // Write-behind: acknowledged once journaled, persisted by the background drainer (id assigned later);
+        // nothing here waits on this transaction, so quick-add sees it straight away
+        if (writeBehind.offer(userEmail, log)) {
+            quickAdd.record(userEmail, log);
+            return toResponse(log);
+        }
+        log.setUser(requireUser(userEmail));
+        FoodLog saved = foodLogRepository.save(log);
+        events.publish(OutboxEvent.FOOD_LOG, saved.getUser().getId(), date, date);
+        quickAdd.recordAfterCommit(userEmail, saved);
+        return toResponse(saved);
+    }
+
+    /** Identifies the current state of the user's logs, unflushed write-behind entries included. */
+    @Transactional(readOnly = true)
+    public String logsVersion(String userEmail) {
+        Long userId = requireUserId(userEmail);
+        return CollectionVersions.FOOD_LOGS + "-" + writeBehind.versionWithPending(userId,
+                () -> collectionVersions.current(userId, CollectionVersions.FOOD_LOGS));
     }
 
     @Transactional(readOnly = true)
     public List<FoodLogResponse> listByDate(String date, String userEmail) {
         User user = requireUser(userEmail);
-        LocalDate d = LocalDate.parse(date);
-        return foodLogRepository.findByUserIdAndDate(user.getId(), d).stream()
-                .sorted(Comparator.comparing(FoodLog::getMealType))
+        return listByDate(LocalDate.parse(date), user.getId());
+    }
+
+    /** {@link #listByDate(String, String)} for a caller that has already resolved the user's id. */
+    @Transactional(readOnly = true)
+    public List<FoodLogResponse> listByDate(LocalDate d, Long userId) {
+        List<FoodLog> logs = writeBehind.withPending(userId, d, d,
+                () -> foodLogRepository.findByUserIdAndDateOrderByMealOrderAscIdAsc(userId, d));
+        if (logs.size() > 1 && logs.get(logs.size() - 1).getId() == null) {
+            // Unflushed write-behind entries were appended; slot them into meal order (stable for the rest)
+            logs.sort(DIARY_ORDER);
+        }
+        return logs.stream()
                 .map(NutritionService::toResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Logs in [from, to] in diary order (date, meal, id), ordered and paged by the database with a
+     * keyset cursor. Unflushed write-behind entries are added to the last page.
+     */
+    @Transactional(readOnly = true)
+    public FoodLogPageResponse listRange(String from, String to, Integer limit, String cursor, String userEmail) {
+        LocalDate fromDate = LocalDate.parse(from);
+        LocalDate toDate = LocalDate.parse(to);
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Long userId = requireUserId(userEmail);
+
+        // Start just before the range when no cursor is given
+        LocalDate afterDate = fromDate.minusDays(1);
+        int afterMeal = -1;
+        long afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor after = decodeCursor(cursor);
+            afterDate = after.date();
+            afterMeal = after.mealOrder();
+            afterId = after.id();
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        List<FoodLogRepository.DiaryRow> rows = foodLogRepository.findRangePage(userId, fromDate, toDate,
+                afterDate, afterMeal, afterId, pageSize + 1);
+        boolean more = rows.size() > pageSize;
+        List<FoodLogRepository.DiaryRow> page = more ? rows.subList(0, pageSize) : rows;
+
+        List<FoodLogResponse> items = page.stream().map(NutritionService::toResponse).collect(Collectors.toList());
+        String next = null;
+        if (more) {
+            FoodLogRepository.DiaryRow last = page.get(page.size() - 1);
+            next = encodeCursor(last.getDate(), last.getMealOrder(), last.getId());
+        } else {
+            writeBehind.withPending(userId, fromDate, toDate, List::of).stream()
+                    .sorted(Comparator.comparing(FoodLog::getDate).thenComparing(DIARY_ORDER))
+                    .map(NutritionService::toResponse)
+                    .forEach(items::add);
+        }
+        return FoodLogPageResponse.builder().items(items).nextCursor(next).build();
+    }
+
+    private static String encodeCursor(LocalDate date, int mealOrder, long id) {
+        String raw = date + "." + mealOrder + "." + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record Cursor(LocalDate date, int mealOrder, long id) {
+    }
+
+    private static Cursor decodeCursor(String cursor) {
+        // Every field is parsed here, so any malformed cursor is a 400 rather than a stray parse error
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\.");
+            if (parts.length != 3) throw new IllegalArgumentException();
+            return new Cursor(LocalDate.parse(parts[0]), Integer.parseInt(parts[1]), Long.parseLong(parts[2]));
+        } catch (DateTimeException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Deletes one persisted log. Logs still waiting in the write-behind buffer have no id yet, so they
+     * cannot be named here until they are flushed; only {@link #deleteByDateRange} reaches them.
+     */
     @Transactional
     public void deleteById(Long id, String userEmail) {
-        User user = requireUser(userEmail);
-        FoodLog log = foodLogRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("FoodLog not found"));
-        if (!log.getUser().getId().equals(user.getId())) {
-            throw new SecurityException("Forbidden: cannot delete others' logs");
+        Long userId = requireUserId(userEmail);
+        // The day is read with the ownership predicate first, so the event names it instead of every day
+        FoodLogRepository.DateSpan span = foodLogRepository.findDateSpanByUserIdAndIdIn(userId, List.of(id));
+        if (span.getEarliest() == null || foodLogRepository.deleteByIdAndUserId(id, userId) == 0) {
+            // Only the failure path pays for a second lookup, to tell "missing" from "not yours"
+            if (foodLogRepository.existsById(id)) {
+                throw new SecurityException("Forbidden: cannot delete others' logs");
+            }
+            throw new ResourceNotFoundException("FoodLog not found");
         }
-        foodLogRepository.delete(log);
+        tombstones.record(OutboxEvent.FOOD_LOG, userId, List.of(id));
+        events.publish(OutboxEvent.FOOD_LOG, userId, span.getEarliest(), span.getLatest());
+        quickAdd.forget(userEmail);
     }
 
+    /** Deletes persisted logs by id; like {@link #deleteById}, it cannot reach unflushed write-behind logs. */
+    @Transactional
+    public int deleteByIds(List<Long> ids, String userEmail) {
+        if (ids == null || ids.isEmpty()) return 0;
+        if (ids.size() > MAX_BULK_DELETE_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_DELETE_IDS + " ids per request");
+        }
+        // Ids of other users' logs are silently skipped; the count says what was removed
+        Long userId = requireUserId(userEmail);
+        Set<Long> requested = Set.copyOf(ids);
+        // Span, tombstones and delete share one predicate, so only rows that were the caller's count
+        FoodLogRepository.DateSpan span = foodLogRepository.findDateSpanByUserIdAndIdIn(userId, requested);
+        if (span.getEarliest() == null) return 0;
+        tombstones.recordFoodLogsIn(userId, requested);
+        int deleted = foodLogRepository.deleteByUserIdAndIdIn(userId, requested);
+        if (deleted > 0) {
+            events.publish(OutboxEvent.FOOD_LOG, userId, span.getEarliest(), span.getLatest());
+            quickAdd.forget(userEmail);
+        }
+        return deleted;
+    }
+
+    @Transactional
+    public int deleteByDateRange(String from, String to, String userEmail) {
+        LocalDate fromDate = LocalDate.parse(from);
+        LocalDate toDate = LocalDate.parse(to);
+        if (toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        Long userId = requireUserId(userEmail);
+        // Unflushed logs in the range are held back now and dropped once this transaction commits
+        int discarded = writeBehind.discard(userId, fromDate, toDate);
+        // Two set-based statements whatever the range holds: tombstones, then the delete, same predicate
+        tombstones.recordFoodLogsBetween(userId, fromDate, toDate);
+        int deleted = foodLogRepository.deleteByUserIdAndDateBetween(userId, fromDate, toDate);
+        if (deleted > 0) {
+            events.publish(OutboxEvent.FOOD_LOG, userId, fromDate, toDate);
+        }
+        if (discarded + deleted > 0) {
+            quickAdd.forget(userEmail);
+        }
+        return discarded + deleted;
+    }
+
+    @Timed(value = "fit4ever.nutrition.summary", histogram = true)
     @Transactional(readOnly = true)
     public NutritionSummaryResponse summary(String from, String to, String userEmail) {
         User user = requireUser(userEmail);
         LocalDate toDate = (to == null || to.isBlank()) ? LocalDate.now() : LocalDate.parse(to);
         LocalDate fromDate = (from == null || from.isBlank()) ? toDate.minusDays(6) : LocalDate.parse(from);
+        return summary(fromDate, toDate, user.getId());
+    }
 
-        List<FoodLog> logs = foodLogRepository.findByUserIdAndDateBetween(user.getId(), fromDate, toDate);
+    /** {@link #summary(String, String, String)} for a caller that has already resolved the user's id. */
+    @Transactional(readOnly = true)
+    public NutritionSummaryResponse summary(LocalDate fromDate, LocalDate toDate, Long userId) {
+        List<FoodLog> logs = writeBehind.withPending(userId, fromDate, toDate,
+                () -> foodLogRepository.findByUserIdAndDateBetween(userId, fromDate, toDate));
+        return summarize(fromDate, toDate, logs);
+    }
 
+    /** Totals and per-day sums of the given logs; the part of {@link #summary} that is pure computation. */
+    static NutritionSummaryResponse summarize(LocalDate fromDate, LocalDate toDate, List<FoodLog> logs) {
         Map<LocalDate, List<FoodLog>> byDate = logs.stream().collect(Collectors.groupingBy(FoodLog::getDate));
 
         int totalCalories = logs.stream().mapToInt(FoodLog::getCalories).sum();
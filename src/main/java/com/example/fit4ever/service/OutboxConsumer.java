@@ -0,0 +1,14 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Receives committed outbox events from {@link OutboxRelay}, inside the transaction that marks them
+ * processed. Events may be redelivered, so implementations must be idempotent.
+ */
+public interface OutboxConsumer {
+
+    void apply(List<OutboxEvent> events);
+}
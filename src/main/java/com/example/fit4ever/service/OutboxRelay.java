@@ -0,0 +1,229 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.model.JobLock;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.repository.JobLockRepository;
+import com.example.fit4ever.repository.OutboxEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Delivers committed outbox events to every {@link OutboxConsumer} (goal progress, activity index, trends) in id order. Runs on its own
+ * thread: woken right after a publishing transaction commits, and polling as a fallback for events
+ * committed elsewhere or left behind by a failure. A batch is projected and marked processed in one
+ * transaction, so a crash means redelivery, which the idempotent consumers tolerate.
+ * <p>
+ * Every batch transaction first takes the {@code outbox-relay} {@link JobLock} row (SKIP LOCKED), so
+ * with several nodes only one projects at a time and the others skip the round. A batch that fails is
+ * retried one event at a time; an event that keeps failing is parked after
+ * {@code fit4ever.outbox.relay.max-attempts} deliveries instead of blocking the queue, until
+ * {@link #replayFrom} puts it back.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    static final String LOCK_NAME = "outbox-relay";
+    private static final int NOT_HOLDER = -1;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JobLockRepository jobLocks;
+    private final List<OutboxConsumer> consumers;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${fit4ever.outbox.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fit4ever.outbox.relay.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${fit4ever.outbox.relay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${fit4ever.outbox.relay.retention-hours:168}")
+    private long retentionHours;
+
+    @Value("${fit4ever.outbox.relay.max-attempts:10}")
+    private int maxAttempts;
+
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private ScheduledExecutorService executor;
+    private Instant lastPurge = Instant.EPOCH;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, JobLockRepository jobLocks,
+                       List<OutboxConsumer> consumers, PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.jobLocks = jobLocks;
+        this.consumers = consumers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void start() {
+        // Created even where the relay thread is off, so drain() can still be called on this node
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!jobLocks.existsById(LOCK_NAME)) jobLocks.save(new JobLock(LOCK_NAME));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another node created the lock row at the same time
+        }
+        if (!enabled) return;
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "outbox-relay");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::drainSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor == null) return;
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Schedules an immediate drain; called after a transaction that published events commits. */
+    void wake() {
+        if (executor == null) return;
+        try {
+            executor.execute(this::drainSafely);
+        } catch (RejectedExecutionException e) {
+            // shutting down; the next start picks the events up
+        }
+    }
+
+    /**
+     * Projects all pending events now, on the calling thread.
+     *
+     * @return number of events processed
+     */
+    public int drain() {
+        drainLock.lock();
+        try {
+            int total = 0;
+            int processed;
+            do {
+                processed = drainBatch();
+                total += Math.max(processed, 0);
+            } while (processed == batchSize);
+            if (processed != NOT_HOLDER) {
+                purgeOccasionally();
+            }
+            return total;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /** @return events delivered or parked, or {@link #NOT_HOLDER} when another node is relaying */
+    private int drainBatch() {
+        List<OutboxEvent> events;
+        try {
+            return transactionTemplate.execute(status -> {
+                // An idle poll costs one query and takes no lock
+                if (outboxEventRepository.findByProcessedAtIsNullAndParkedAtIsNullOrderByIdAsc(Limit.of(1)).isEmpty()) return 0;
+                if (jobLocks.tryLock(LOCK_NAME).isEmpty()) return NOT_HOLDER;
+                List<OutboxEvent> batch = outboxEventRepository.findByProcessedAtIsNullAndParkedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+                if (batch.isEmpty()) return 0;
+                deliver(batch);
+                return batch.size();
+            });
+        } catch (PessimisticLockingFailureException contended) {
+            // Without SKIP LOCKED (e.g. H2) a node waits for the lock instead and times out
+            return NOT_HOLDER;
+        } catch (RuntimeException batchFailure) {
+            log.warn("Outbox batch failed; delivering its events one at a time", batchFailure);
+            events = transactionTemplate.execute(status ->
+                    outboxEventRepository.findByProcessedAtIsNullAndParkedAtIsNullOrderByIdAsc(Limit.of(batchSize)));
+        }
+        int handled = 0;
+        for (OutboxEvent event : events) {
+            try {
+                Integer done = transactionTemplate.execute(status -> {
+                    if (jobLocks.tryLock(LOCK_NAME).isEmpty()) return NOT_HOLDER;
+                    deliver(List.of(event));
+                    return 1;
+                });
+                if (done == NOT_HOLDER) return NOT_HOLDER;
+                handled++;
+            } catch (PessimisticLockingFailureException contended) {
+                return NOT_HOLDER;
+            } catch (RuntimeException failure) {
+                if (recordFailure(event, failure)) handled++;
+            }
+        }
+        // Anything short of the full batch ends this drain; what still fails is retried on the next poll
+        return handled;
+    }
+
+    private void deliver(List<OutboxEvent> events) {
+        consumers.forEach(c -> c.apply(events));
+        outboxEventRepository.markProcessed(events.stream().map(OutboxEvent::getId).toList(), Instant.now());
+    }
+
+    /** @return true when the event has now been parked */
+    private boolean recordFailure(OutboxEvent event, RuntimeException failure) {
+        int attempts = (event.getAttempts() == null ? 0 : event.getAttempts()) + 1;
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.recordFailure(event.getId(), maxAttempts, Instant.now()));
+        if (attempts >= maxAttempts) {
+            log.error("Parking outbox event {} ({} for user {}) after {} failed deliveries",
+                    event.getId(), event.getType(), event.getUserId(), attempts, failure);
+            return true;
+        }
+        log.warn("Outbox event {} failed delivery {} of {}", event.getId(), attempts, maxAttempts, failure);
+        return false;
+    }
+
+    /**
+     * Marks events from {@code fromEventId} on as unprocessed, unparks them and redelivers them.
+     *
+     * @return number of events requeued
+     */
+    public int replayFrom(long fromEventId) {
+        int requeued = transactionTemplate.execute(status -> outboxEventRepository.markUnprocessedFrom(fromEventId));
+        wake();
+        return requeued;
+    }
+
+    private void drainSafely() {
+        try {
+            drain();
+        } catch (RuntimeException e) {
+            log.error("Outbox relay failed; will retry", e);
+        }
+    }
+
+    private void purgeOccasionally() {
+        Instant now = Instant.now();
+        if (Duration.between(lastPurge, now).toHours() < 1) return;
+        lastPurge = now;
+        int purged = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteProcessedBefore(now.minus(Duration.ofHours(retentionHours))));
+        if (purged > 0) {
+            log.info("Purged {} processed outbox events", purged);
+        }
+    }
+}
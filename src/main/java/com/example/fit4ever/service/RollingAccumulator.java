@@ -0,0 +1,113 @@
+package com.example.fit4ever.service;
+
+/**
+ * Sliding-window statistics over a daily series, advanced one day at a time in O(windows).
+ * Keeps the last {@value #MAX_WINDOW} days in a ring, a running sum and count of days with data
+ * per window, and an exponential moving average per window (alpha = 2 / (n + 1)).
+ * Missing days ({@code null}) either count as zero or are skipped, depending on the metric:
+ * an unlogged day is not a zero-calorie day, but a day without a workout is a rest day.
+ */
+final class RollingAccumulator {
+    static final int[] WINDOWS = {7, 14, 30};
+    static final int MAX_WINDOW = 30;
+    private static final int RESUM_EVERY = 256;
+
+    private final boolean skipMissing;
+    private final double[] ring = new double[MAX_WINDOW];
+    private final boolean[] present = new boolean[MAX_WINDOW];
+    private final double[] sums = new double[WINDOWS.length];
+    private final int[] counts = new int[WINDOWS.length];
+    private final double[] emas = new double[WINDOWS.length];
+    private boolean emaSeeded;
+    private long days;
+
+    RollingAccumulator(boolean skipMissing) {
+        this.skipMissing = skipMissing;
+    }
+
+    void push(Double value) {
+        boolean has = value != null || !skipMissing;
+        double v = value == null ? 0.0 : value;
+        int slot = (int) (days % MAX_WINDOW);
+        for (int i = 0; i < WINDOWS.length; i++) {
+            long out = days - WINDOWS[i];
+            if (out >= 0) {
+                int o = (int) (out % MAX_WINDOW);
+                sums[i] -= ring[o];
+                if (present[o]) counts[i]--;
+            }
+        }
+        ring[slot] = has ? v : 0.0;
+        present[slot] = has;
+        for (int i = 0; i < WINDOWS.length; i++) {
+            sums[i] += ring[slot];
+            if (has) counts[i]++;
+            if (has) {
+                double alpha = 2.0 / (WINDOWS[i] + 1);
+                emas[i] = emaSeeded ? emas[i] + alpha * (v - emas[i]) : v;
+            }
+        }
+        if (has) emaSeeded = true;
+        days++;
+        if (days % RESUM_EVERY == 0) resum();
+    }
+
+    /** Mean over the days with data among the last {@code window}, or null when there are none. */
+    Double average(int window) {
+        int i = slot(window);
+        return counts[i] == 0 ? null : sums[i] / counts[i];
+    }
+
+    Double ema(int window) {
+        return emaSeeded ? emas[slot(window)] : null;
+    }
+
+    /** The most recent day's value, or null if it had no data. */
+    Double latest() {
+        if (days == 0) return null;
+        int s = (int) ((days - 1) % MAX_WINDOW);
+        return present[s] ? ring[s] : null;
+    }
+
+    /** Mean of the last 7 days minus the mean of the 7 before them, or null if either week had no data. */
+    Double weekOverWeek() {
+        int w7 = slot(7);
+        int w14 = slot(14);
+        int previousCount = counts[w14] - counts[w7];
+        if (counts[w7] == 0 || previousCount == 0) return null;
+        return sums[w7] / counts[w7] - (sums[w14] - sums[w7]) / previousCount;
+    }
+
+    /** Mean of the 7 days before the last 7, the base for week-over-week percentages. */
+    Double previousWeek() {
+        int w7 = slot(7);
+        int w14 = slot(14);
+        int previousCount = counts[w14] - counts[w7];
+        return previousCount == 0 ? null : (sums[w14] - sums[w7]) / previousCount;
+    }
+
+    static boolean supports(int window) {
+        for (int w : WINDOWS) {
+            if (w == window) return true;
+        }
+        return false;
+    }
+
+    private static int slot(int window) {
+        for (int i = 0; i < WINDOWS.length; i++) {
+            if (WINDOWS[i] == window) return i;
+        }
+        throw new IllegalArgumentException("Unsupported window " + window);
+    }
+
+    /** Recomputes the running sums from the ring so floating-point drift cannot build up. */
+    private void resum() {
+        for (int i = 0; i < WINDOWS.length; i++) {
+            double sum = 0;
+            for (int k = 1; k <= Math.min(WINDOWS[i], days); k++) {
+                sum += ring[(int) ((days - k) % MAX_WINDOW)];
+            }
+            sums[i] = sum;
+        }
+    }
+}
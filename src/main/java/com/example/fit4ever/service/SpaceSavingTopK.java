@@ -0,0 +1,66 @@
+package com.example.fit4ever.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch (Metwally et al.) holding at most {@code capacity} counters.
+ * Any key seen more than N/capacity times out of N offers is guaranteed to be tracked; counts of
+ * keys that displaced another may be overestimated by at most {@link Counter#error()}.
+ * Each counter also keeps the latest value offered for its key. Not thread-safe.
+ */
+class SpaceSavingTopK<V> {
+    private final int capacity;
+    private final Map<String, Counter<V>> counters;
+
+    SpaceSavingTopK(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    static final class Counter<V> {
+        private final String key;
+        private long count;
+        private long error;
+        private V value;
+
+        private Counter(String key) {
+            this.key = key;
+        }
+
+        String key() { return key; }
+        long count() { return count; }
+        long error() { return error; }
+        V value() { return value; }
+    }
+
+    void offer(String key, V value) {
+        Counter<V> c = counters.get(key);
+        if (c == null) {
+            c = new Counter<>(key);
+            if (counters.size() >= capacity) {
+                // Replace the minimum; capacity is small so a linear scan beats maintaining a heap
+                Counter<V> min = null;
+                for (Counter<V> candidate : counters.values()) {
+                    if (min == null || candidate.count < min.count) min = candidate;
+                }
+                counters.remove(min.key);
+                c.count = min.count;
+                c.error = min.count;
+            }
+            counters.put(key, c);
+        }
+        c.count++;
+        c.value = value;
+    }
+
+    /** Tracked keys ordered by estimated count, highest first. */
+    List<Counter<V>> top(int limit) {
+        List<Counter<V>> all = new ArrayList<>(counters.values());
+        all.sort(Comparator.comparingLong((Counter<V> c) -> c.count).reversed());
+        return all.size() > limit ? all.subList(0, limit) : all;
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.dto.CreateFoodLogRequest;
+import com.example.fit4ever.dto.FoodLogResponse;
+import com.example.fit4ever.dto.GoalDtos.CreateGoalRequest;
+import com.example.fit4ever.dto.GoalDtos.GoalResponse;
+import com.example.fit4ever.dto.GoalDtos.UpdateGoalRequest;
+import com.example.fit4ever.dto.SyncDtos.*;
+import com.example.fit4ever.dto.WorkoutDtos.CreateWorkoutRequest;
+import com.example.fit4ever.dto.WorkoutDtos.UpdateWorkoutRequest;
+import com.example.fit4ever.dto.WorkoutDtos.WorkoutDetail;
+import com.example.fit4ever.exception.PreconditionFailedException;
+import com.example.fit4ever.exception.ResourceNotFoundException;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.model.SyncAppliedOp;
+import com.example.fit4ever.model.SyncTombstone;
+import com.example.fit4ever.repository.FoodLogRepository;
+import com.example.fit4ever.repository.GoalRepository;
+import com.example.fit4ever.repository.SyncAppliedOpRepository;
+import com.example.fit4ever.repository.SyncTombstoneRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.repository.WorkoutRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Delta sync for offline clients. A pull returns the workouts, food logs and goals whose
+ * {@code updated_at} is after the token, plus tombstones of rows deleted since. The token is the
+ * pull's start time; the next pull reads back {@code fit4ever.sync.overlap-seconds} before it, so a
+ * row stamped just before a slow transaction committed is not missed (clients apply rows as upserts,
+ * so seeing one twice is harmless). A token older than the tombstone retention gets a full answer.
+ * A push applies each client op in its own transaction together with a record of its op id, so a
+ * retried batch changes nothing twice.
+ */
+@Service
+@Slf4j
+public class SyncService {
+    private final UserRepository userRepository;
+    private final WorkoutRepository workoutRepository;
+    private final FoodLogRepository foodLogRepository;
+    private final GoalRepository goalRepository;
+    private final SyncTombstoneRepository tombstoneRepository;
+    private final SyncAppliedOpRepository appliedOpRepository;
+    private final WorkoutService workoutService;
+    private final NutritionService nutritionService;
+    private final GoalService goalService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${fit4ever.sync.overlap-seconds:30}")
+    private long overlapSeconds;
+
+    @Value("${fit4ever.sync.retention-days:90}")
+    private long retentionDays;
+
+    private volatile Instant lastPurge = Instant.EPOCH;
+
+    public SyncService(UserRepository userRepository, WorkoutRepository workoutRepository,
+                       FoodLogRepository foodLogRepository, GoalRepository goalRepository,
+                       SyncTombstoneRepository tombstoneRepository, SyncAppliedOpRepository appliedOpRepository,
+                       WorkoutService workoutService, NutritionService nutritionService, GoalService goalService,
+                       PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.workoutRepository = workoutRepository;
+        this.foodLogRepository = foodLogRepository;
+        this.goalRepository = goalRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.appliedOpRepository = appliedOpRepository;
+        this.workoutService = workoutService;
+        this.nutritionService = nutritionService;
+        this.goalService = goalService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private Long userId(String email) {
+        return userRepository.findIdByEmail(email)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public SyncResponse pull(String since, String email) {
+        Long userId = userId(email);
+        Instant now = Instant.now();
+        Instant from = since == null || since.isBlank() ? null : decodeToken(since).minusSeconds(overlapSeconds);
+        boolean full = from == null || from.isBefore(now.minus(Duration.ofDays(retentionDays)));
+
+        Deleted deleted = new Deleted(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        if (!full) {
+            for (SyncTombstone t : tombstoneRepository.findByUserIdAndDeletedAtAfter(userId, from)) {
+                switch (t.getEntityType()) {
+                    case OutboxEvent.WORKOUT -> deleted.getWorkouts().add(t.getEntityId());
+                    case OutboxEvent.FOOD_LOG -> deleted.getFoodLogs().add(t.getEntityId());
+                    case OutboxEvent.GOAL -> deleted.getGoals().add(t.getEntityId());
+                    default -> { }
+                }
+            }
+        }
+        return SyncResponse.builder()
+                .token(encodeToken(now))
+                .full(full)
+                .workouts((full ? workoutRepository.findAllByUserIdOrderByIdAsc(userId)
+                        : workoutRepository.findByUserIdAndUpdatedAtAfterOrderByIdAsc(userId, from))
+                        .stream().map(WorkoutService::toDetail).toList())
+                .foodLogs((full ? foodLogRepository.findAllByUserIdOrderByIdAsc(userId)
+                        : foodLogRepository.findByUserIdAndUpdatedAtAfterOrderByIdAsc(userId, from))
+                        .stream().map(NutritionService::toResponse).toList())
+                .goals((full ? goalRepository.findByUserIdOrderByStartDateDesc(userId)
+                        : goalRepository.findByUserIdAndUpdatedAtAfterOrderByIdAsc(userId, from))
+                        .stream().map(GoalService::toResp).toList())
+                .deleted(deleted)
+                .build();
+    }
+
+    /** Applies the ops in order; each result says what happened to the op with the same index. */
+    public SyncPushResponse push(SyncPushRequest request, Authentication auth) {
+        Long userId = userId(auth.getName());
+        purgeOccasionally();
+        List<SyncOpResult> results = new ArrayList<>(request.getOps().size());
+        for (SyncOp op : request.getOps()) {
+            results.add(applyOnce(op, userId, auth));
+        }
+        return new SyncPushResponse(results);
+    }
+
+    private SyncOpResult applyOnce(SyncOp op, Long userId, Authentication auth) {
+        try {
+            return transactionTemplate.execute(status -> {
+                var previous = appliedOpRepository.findByUserIdAndOpId(userId, op.getOpId());
+                if (previous.isPresent()) {
+                    return result(op, "duplicate", previous.get().getEntityId(), previous.get().getVersion(), null);
+                }
+                // Claimed before applying: a concurrent retry of the same op waits on the unique key
+                SyncAppliedOp claim = appliedOpRepository.saveAndFlush(SyncAppliedOp.builder()
+                        .userId(userId)
+                        .opId(op.getOpId())
+                        .appliedAt(Instant.now())
+                        .build());
+                SyncOpResult applied = apply(op, auth);
+                claim.setEntityId(applied.getId());
+                claim.setVersion(applied.getVersion());
+                return applied;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Either a concurrent push applied this op id first, or the op itself broke a constraint
+            return transactionTemplate.execute(status -> appliedOpRepository.findByUserIdAndOpId(userId, op.getOpId()))
+                    .map(p -> result(op, "duplicate", p.getEntityId(), p.getVersion(), null))
+                    .orElseGet(() -> result(op, "rejected", op.getId(), null, "Violates a data constraint"));
+        } catch (PreconditionFailedException e) {
+            return result(op, "conflict", op.getId(), null, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return result(op, "conflict", op.getId(), null, "Changed concurrently; pull and retry");
+        } catch (ResourceNotFoundException | SecurityException e) {
+            return result(op, "not_found", op.getId(), null, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return result(op, "rejected", op.getId(), null, e.getMessage());
+        }
+    }
+
+    private SyncOpResult apply(SyncOp op, Authentication auth) {
+        String email = auth.getName();
+        boolean delete = "delete".equals(op.getAction());
+        switch (op.getEntity()) {
+            case "workout" -> {
+                if (delete) {
+                    workoutService.delete(auth, requireId(op));
+                    return result(op, "applied", op.getId(), null, null);
+                }
+                CreateWorkoutRequest w = require(op.getWorkout(), "workout");
+                WorkoutDetail saved;
+                if (op.getId() == null) {
+                    if (w.getTitle() == null || w.getDate() == null) {
+                        throw new IllegalArgumentException("workout.title and workout.date are required to create");
+                    }
+                    saved = workoutService.create(auth, w);
+                } else {
+                    saved = workoutService.update(auth, op.getId(), op.getBaseVersion(), UpdateWorkoutRequest.builder()
+                            .title(w.getTitle())
+                            .notes(w.getNotes())
+                            .date(w.getDate())
+                            .exercises(w.getExercises())
+                            .build());
+                }
+                return result(op, "applied", saved.getId(), saved.getVersion(), null);
+            }
+            case "foodLog" -> {
+                if (delete) {
+                    nutritionService.deleteById(requireId(op), email);
+                    return result(op, "applied", op.getId(), null, null);
+                }
+                if (op.getId() != null) {
+                    throw new IllegalArgumentException("Food logs cannot be edited; delete and re-create them");
+                }
+                CreateFoodLogRequest log = require(op.getFoodLog(), "foodLog");
+                // With write-behind on, the id is assigned at flush and arrives with a later pull
+                FoodLogResponse saved = nutritionService.createFoodLog(log, email);
+                return result(op, "applied", saved.getId(), null, null);
+            }
+            case "goal" -> {
+                if (delete) {
+                    throw new IllegalArgumentException("Goals cannot be deleted; upsert them with status CANCELLED");
+                }
+                UpdateGoalRequest g = require(op.getGoal(), "goal");
+                GoalResponse saved;
+                if (op.getId() == null) {
+                    if (g.getType() == null || g.getTargetValue() == null || g.getStartDate() == null || g.getEndDate() == null) {
+                        throw new IllegalArgumentException("goal.type, targetValue, startDate and endDate are required to create");
+                    }
+                    saved = goalService.create(new CreateGoalRequest(g.getType(), g.getTargetValue(),
+                            g.getStartDate(), g.getEndDate()), email);
+                } else {
+                    saved = goalService.update(op.getId(), g, email, op.getBaseVersion());
+                }
+                return result(op, "applied", saved.getId(), saved.getVersion(), null);
+            }
+            default -> throw new IllegalArgumentException("Unknown entity " + op.getEntity());
+        }
+    }
+
+    private static Long requireId(SyncOp op) {
+        if (op.getId() == null) throw new IllegalArgumentException("id is required to delete");
+        return op.getId();
+    }
+
+    private static <T> T require(T payload, String name) {
+        if (payload == null) throw new IllegalArgumentException(name + " is required to upsert");
+        return payload;
+    }
+
+    private static SyncOpResult result(SyncOp op, String status, Long id, Long version, String message) {
+        return SyncOpResult.builder()
+                .opId(op.getOpId())
+                .status(status)
+                .id(id)
+                .version(version)
+                .message(message)
+                .build();
+    }
+
+    private static String encodeToken(Instant at) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(at.toEpochMilli()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Instant decodeToken(String token) {
+        try {
+            return Instant.ofEpochMilli(Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+    }
+
+    private void purgeOccasionally() {
+        Instant now = Instant.now();
+        if (Duration.between(lastPurge, now).toHours() < 1) return;
+        lastPurge = now;
+        Instant cutoff = now.minus(Duration.ofDays(retentionDays));
+        int purged = transactionTemplate.execute(status ->
+                tombstoneRepository.deleteDeletedBefore(cutoff) + appliedOpRepository.deleteAppliedBefore(cutoff));
+        if (purged > 0) {
+            log.info("Purged {} sync tombstones and applied-op records", purged);
+        }
+    }
+}
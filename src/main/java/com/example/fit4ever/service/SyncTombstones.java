@@ -0,0 +1,44 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.model.SyncTombstone;
+import com.example.fit4ever.repository.SyncTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/** Writes delete tombstones for delta sync in the same transaction as the delete itself. */
+@Component
+@RequiredArgsConstructor
+public class SyncTombstones {
+    private final SyncTombstoneRepository repository;
+
+    /** Rows of {@code type} (an {@link com.example.fit4ever.model.OutboxEvent} type) the user no longer has. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String type, Long userId, Collection<Long> ids) {
+        Instant now = Instant.now();
+        repository.saveAll(ids.stream().map(id -> SyncTombstone.builder()
+                .userId(userId)
+                .entityType(type)
+                .entityId(id)
+                .deletedAt(now)
+                .build()).toList());
+    }
+
+    /** Tombstones the user's food logs dated within [from, to]; call it just before deleting them. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int recordFoodLogsBetween(Long userId, LocalDate from, LocalDate to) {
+        return repository.insertForFoodLogsBetween(OutboxEvent.FOOD_LOG, userId, from, to, Instant.now());
+    }
+
+    /** Tombstones those of {@code ids} that are the user's food logs; call it just before deleting them. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int recordFoodLogsIn(Long userId, Collection<Long> ids) {
+        return repository.insertForFoodLogsIn(OutboxEvent.FOOD_LOG, userId, ids, Instant.now());
+    }
+}
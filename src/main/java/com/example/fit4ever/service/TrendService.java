@@ -0,0 +1,159 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.dto.TrendDtos.*;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.repository.FoodLogRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.repository.WorkoutRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rolling averages, EMAs and week-over-week deltas of daily nutrition and training volume, over
+ * completed days (through yesterday). Each user's accumulators are cached and advanced only by the
+ * days that have completed since the last read, one grouped query per source for just those days.
+ * Outbox events for days already folded in drop the cached state, which is then rebuilt from the
+ * last {@value #SEED_DAYS} days; events for today only affect tomorrow's advance.
+ */
+@Service
+@RequiredArgsConstructor
+public class TrendService implements OutboxConsumer {
+    static final List<String> METRICS = List.of("calories", "protein", "carbs", "fat", "volume");
+    static final int SEED_DAYS = 180; // enough history for the 30-day EMA to forget its seed
+    private static final List<Integer> DEFAULT_WINDOWS = List.of(7, 30);
+
+    private final FoodLogRepository foodLogRepository;
+    private final WorkoutRepository workoutRepository;
+    private final UserRepository userRepository;
+
+    private final Cache<Long, UserTrends> byUser = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(6))
+            .build();
+
+    private static final class UserTrends {
+        // Not a monitor: advance() queries under it, which would pin a virtual thread to its carrier
+        private final ReentrantLock lock = new ReentrantLock();
+        private LocalDate through;
+        private final Map<String, RollingAccumulator> byMetric = new LinkedHashMap<>();
+
+        UserTrends(LocalDate through) {
+            this.through = through;
+            for (String metric : METRICS) {
+                // Unlogged days are unknown intake; days without a workout are rest days
+                byMetric.put(metric, new RollingAccumulator(!metric.equals("volume")));
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public TrendsResponse trends(List<String> metrics, List<Integer> windows, String email) {
+        List<String> selected = metrics == null || metrics.isEmpty() ? METRICS
+                : metrics.stream().map(m -> m.trim().toLowerCase(Locale.ROOT)).distinct().toList();
+        for (String m : selected) {
+            if (!METRICS.contains(m)) {
+                throw new IllegalArgumentException("metrics must be among: " + String.join(", ", METRICS));
+            }
+        }
+        List<Integer> sizes = windows == null || windows.isEmpty() ? DEFAULT_WINDOWS : windows.stream().distinct().toList();
+        for (int w : sizes) {
+            if (!RollingAccumulator.supports(w)) {
+                throw new IllegalArgumentException("windows must be among: 7, 14, 30");
+            }
+        }
+
+        Long userId = userRepository.findIdByEmail(email)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate seedStart = yesterday.minusDays(SEED_DAYS);
+        UserTrends state = byUser.get(userId, id -> new UserTrends(seedStart));
+        if (state.through.isBefore(seedStart)) {
+            // Idle for longer than the seed window: start over rather than replay every missed day
+            byUser.invalidate(userId);
+            state = byUser.get(userId, id -> new UserTrends(seedStart));
+        }
+        state.lock.lock();
+        try {
+            if (state.through.isBefore(yesterday)) {
+                advance(userId, state, state.through.plusDays(1), yesterday);
+            }
+            List<MetricTrend> out = new ArrayList<>(selected.size());
+            for (String m : selected) {
+                out.add(toTrend(m, state.byMetric.get(m), sizes));
+            }
+            return new TrendsResponse(state.through.toString(), out);
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    /** Drops cached state that already includes a day the events changed. */
+    @Override
+    public void apply(List<OutboxEvent> events) {
+        for (OutboxEvent e : events) {
+            if (!OutboxEvent.WORKOUT.equals(e.getType()) && !OutboxEvent.FOOD_LOG.equals(e.getType())) continue;
+            UserTrends state = byUser.getIfPresent(e.getUserId());
+            if (state == null) continue;
+            state.lock.lock();
+            try {
+                if (e.getFromDate() == null || !e.getFromDate().isAfter(state.through)) {
+                    byUser.invalidate(e.getUserId());
+                }
+            } finally {
+                state.lock.unlock();
+            }
+        }
+    }
+
+    private void advance(Long userId, UserTrends state, LocalDate from, LocalDate to) {
+        Map<LocalDate, FoodLogRepository.DailyNutrition> nutrition = new HashMap<>();
+        foodLogRepository.dailyTotals(userId, from, to).forEach(d -> nutrition.put(d.getDate(), d));
+        Map<LocalDate, Double> volume = new HashMap<>();
+        workoutRepository.dailyVolume(userId, from, to).forEach(d -> volume.put(d.getDate(), d.getVolume()));
+
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        for (long i = 0; i < days; i++) {
+            LocalDate day = from.plusDays(i);
+            var n = nutrition.get(day);
+            state.byMetric.get("calories").push(n == null ? null : n.getCalories().doubleValue());
+            state.byMetric.get("protein").push(n == null ? null : n.getProtein());
+            state.byMetric.get("carbs").push(n == null ? null : n.getCarbs());
+            state.byMetric.get("fat").push(n == null ? null : n.getFat());
+            state.byMetric.get("volume").push(volume.get(day));
+        }
+        state.through = to;
+    }
+
+    private static MetricTrend toTrend(String metric, RollingAccumulator acc, List<Integer> windows) {
+        Map<Integer, Double> averages = new LinkedHashMap<>();
+        Map<Integer, Double> emas = new LinkedHashMap<>();
+        for (int w : windows) {
+            averages.put(w, acc.average(w));
+            emas.put(w, acc.ema(w));
+        }
+        Double delta = acc.weekOverWeek();
+        Double previous = acc.previousWeek();
+        return MetricTrend.builder()
+                .metric(metric)
+                .latest(acc.latest())
+                .average(averages)
+                .ema(emas)
+                .weekOverWeek(delta)
+                .weekOverWeekPct(delta == null || previous == null || previous == 0 ? null : 100.0 * delta / previous)
+                .build();
+    }
+}
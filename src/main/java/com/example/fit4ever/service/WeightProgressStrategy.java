@@ -0,0 +1,76 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.model.Goal;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.repository.GoalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Target body weight: share of the distance from the starting weight of the window to
+ * {@code targetValue} covered by the current one. Works for losing and gaining alike.
+ * Both ends are smoothed: readings are averaged per day, then over the first and last
+ * {@value #SMOOTHING_DAYS} days with readings, so one heavy morning does not swing progress.
+ */
+@Component
+@RequiredArgsConstructor
+public class WeightProgressStrategy implements GoalProgressStrategy {
+    static final int SMOOTHING_DAYS = 3;
+
+    private final GoalRepository goalRepository;
+
+    @Override
+    public String type() {
+        return "WEIGHT";
+    }
+
+    @Override
+    public String source() {
+        return OutboxEvent.BODY_WEIGHT;
+    }
+
+    @Override
+    public Map<Long, ProgressCounters> collect(List<Goal> goals) {
+        Map<Long, List<GoalRepository.GoalDailyWeight>> byGoal = new HashMap<>();
+        for (var row : goalRepository.dailyWeightPerGoal(GoalProgressStrategy.ids(goals))) {
+            byGoal.computeIfAbsent(row.getGoalId(), k -> new ArrayList<>()).add(row);
+        }
+        Map<Long, ProgressCounters> out = new HashMap<>();
+        byGoal.forEach((goalId, days) -> {
+            days.sort(Comparator.comparing(GoalRepository.GoalDailyWeight::getDate));
+            LocalDate first = days.get(0).getDate();
+            LocalDate last = days.get(days.size() - 1).getDate();
+            out.put(goalId, new ProgressCounters(days.size(), 0,
+                    mean(days, first, first.plusDays(SMOOTHING_DAYS - 1)),
+                    mean(days, last.minusDays(SMOOTHING_DAYS - 1), last)));
+        });
+        return out;
+    }
+
+    private static double mean(List<GoalRepository.GoalDailyWeight> days, LocalDate from, LocalDate to) {
+        double sum = 0;
+        int n = 0;
+        for (var d : days) {
+            if (!d.getDate().isBefore(from) && !d.getDate().isAfter(to)) {
+                sum += d.getWeightKg();
+                n++;
+            }
+        }
+        return sum / n;
+    }
+
+    @Override
+    public double score(Goal goal, ProgressCounters counters, LocalDate today) {
+        if (counters.baseline() == null || counters.latest() == null) return 0.0;
+        double distance = counters.baseline() - goal.getTargetValue();
+        if (distance == 0) return counters.latest().equals(goal.getTargetValue()) ? 1.0 : 0.0;
+        return GoalProgressStrategy.clamp01((counters.baseline() - counters.latest()) / distance);
+    }
+}
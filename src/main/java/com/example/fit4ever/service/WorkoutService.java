@@ -1,16 +1,21 @@
 package com.example.fit4ever.service;
 
 import com.example.fit4ever.dto.WorkoutDtos.*;
+import com.example.fit4ever.exception.PreconditionFailedException;
 import com.example.fit4ever.model.Exercise;
+import com.example.fit4ever.model.OutboxEvent;
 import com.example.fit4ever.model.User;
 import com.example.fit4ever.model.Workout;
 import com.example.fit4ever.repository.UserRepository;
 import com.example.fit4ever.repository.WorkoutRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,6 +24,9 @@ import java.util.stream.Collectors;
 public class WorkoutService {
     private final WorkoutRepository workoutRepository;
     private final UserRepository userRepository;
+    private final DomainEventPublisher events;
+    private final CollectionVersions collectionVersions;
+    private final SyncTombstones tombstones;
 
     private User getCurrentUser(Authentication authentication) {
         String email = authentication.getName();
@@ -54,18 +62,39 @@ public class WorkoutService {
         }
 
         Workout saved = workoutRepository.save(workout);
+        events.publish(OutboxEvent.WORKOUT, user.getId(), saved.getDate(), saved.getDate());
         return toDetail(saved);
     }
 
+    /** Identifies the current state of the user's workout list without running the list query. */
+    @Transactional(readOnly = true)
+    public String listVersion(Authentication authentication) {
+        Long userId = userRepository.findIdByEmail(authentication.getName())
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found"));
+        return CollectionVersions.WORKOUTS + "-" + collectionVersions.current(userId, CollectionVersions.WORKOUTS);
+    }
+
+    @Timed(value = "fit4ever.workouts.list", histogram = true)
     @Transactional(readOnly = true)
     public List<WorkoutSummary> list(Authentication authentication) {
         User user = getCurrentUser(authentication);
-        return workoutRepository.findByUserOrderByDateDesc(user).stream()
+        return toSummaries(workoutRepository.findByUserOrderByDateDesc(user));
+    }
+
+    /** {@link #list(Authentication)} for a caller that has already resolved the user's id. */
+    @Transactional(readOnly = true)
+    public List<WorkoutSummary> list(Long userId) {
+        return toSummaries(workoutRepository.findByUserIdOrderByDateDesc(userId));
+    }
+
+    private static List<WorkoutSummary> toSummaries(List<Workout> workouts) {
+        return workouts.stream()
                 .map(w -> WorkoutSummary.builder()
                         .id(w.getId())
                         .title(w.getTitle())
                         .notes(w.getNotes())
                         .date(w.getDate())
+                        .version(w.getVersion())
                         .exercises(w.getExercises().stream().map(e -> ExerciseResponse.builder()
                                 .id(e.getId())
                                 .name(e.getName())
@@ -91,16 +120,30 @@ public class WorkoutService {
 
     @Transactional
     public WorkoutDetail update(Authentication authentication, Long id, UpdateWorkoutRequest request) {
+        return update(authentication, id, null, request);
+    }
+
+    /**
+     * Applies the update only if the workout is still at {@code expectedVersion} (null skips the check).
+     * An edit that commits between our read and our write fails the version check at flush instead.
+     */
+    @Transactional
+    public WorkoutDetail update(Authentication authentication, Long id, Long expectedVersion, UpdateWorkoutRequest request) {
         User user = getCurrentUser(authentication);
         Workout workout = workoutRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new IllegalArgumentException("Workout not found"));
+        if (expectedVersion != null && !expectedVersion.equals(workout.getVersion())) {
+            throw new PreconditionFailedException("Workout was modified (now at version " + workout.getVersion() + ")");
+        }
 
+        LocalDate previousDate = workout.getDate();
         if (request.getTitle() != null) workout.setTitle(request.getTitle());
         if (request.getNotes() != null) workout.setNotes(request.getNotes());
         if (request.getDate() != null) workout.setDate(request.getDate());
 
         // Replace exercises if provided
         if (request.getExercises() != null) {
+            workout.setUpdatedAt(Instant.now()); // a collection-only change does not dirty the row itself
             workout.getExercises().clear();
             for (var ex : request.getExercises()) {
                 Exercise e = Exercise.builder()
@@ -118,7 +161,15 @@ public class WorkoutService {
             }
         }
 
-        Workout saved = workoutRepository.save(workout);
+        Workout saved = workoutRepository.saveAndFlush(workout); // flushed so the response carries the new version
+        if (!previousDate.equals(saved.getDate())) {
+            LocalDate newDate = saved.getDate();
+            events.publish(OutboxEvent.WORKOUT, user.getId(),
+                    previousDate.isBefore(newDate) ? previousDate : newDate,
+                    previousDate.isBefore(newDate) ? newDate : previousDate);
+        } else {
+            collectionVersions.touch(user.getId(), CollectionVersions.WORKOUTS);
+        }
         return toDetail(saved);
     }
 
@@ -128,14 +179,17 @@ public class WorkoutService {
         Workout workout = workoutRepository.findByIdAndUser(id, user)
                 .orElseThrow(() -> new IllegalArgumentException("Workout not found"));
         workoutRepository.delete(workout);
+        tombstones.record(OutboxEvent.WORKOUT, user.getId(), List.of(workout.getId()));
+        events.publish(OutboxEvent.WORKOUT, user.getId(), workout.getDate(), workout.getDate());
     }
 
-    private static WorkoutDetail toDetail(Workout w) {
+    static WorkoutDetail toDetail(Workout w) {
         return WorkoutDetail.builder()
                 .id(w.getId())
                 .title(w.getTitle())
                 .notes(w.getNotes())
                 .date(w.getDate())
+                .version(w.getVersion())
                 .exercises(w.getExercises().stream().map(e -> ExerciseResponse.builder()
                         .id(e.getId())
                         .name(e.getName())
@@ -0,0 +1,56 @@
+package com.example.fit4ever.service;
+
+import com.example.fit4ever.model.Goal;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.repository.GoalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Workouts logged in the goal window against {@code targetValue} workouts per week elapsed so far. */
+@Component
+@RequiredArgsConstructor
+public class WorkoutsPerWeekProgressStrategy implements GoalProgressStrategy {
+    private final GoalRepository goalRepository;
+
+    @Override
+    public String type() {
+        return "WORKOUTS_PER_WEEK";
+    }
+
+    @Override
+    public String source() {
+        return OutboxEvent.WORKOUT;
+    }
+
+    @Override
+    public Map<Long, ProgressCounters> collect(List<Goal> goals) {
+        Map<Long, ProgressCounters> out = new HashMap<>();
+        for (var row : goalRepository.countWorkoutsPerGoal(GoalProgressStrategy.ids(goals))) {
+            out.put(row.getGoalId(), new ProgressCounters(row.getSamples(), row.getTotal(), null, null));
+        }
+        return out;
+    }
+
+    @Override
+    public double score(Goal goal, ProgressCounters counters, LocalDate today) {
+        if (goal.getTargetValue() <= 0) return 1.0;
+        LocalDate asOf = today.isAfter(goal.getEndDate()) ? goal.getEndDate() : today;
+        long days = ChronoUnit.DAYS.between(goal.getStartDate(), asOf) + 1;
+        if (days <= 0) return 0.0;
+        double expected = goal.getTargetValue() * days / 7.0;
+        return GoalProgressStrategy.clamp01(counters.samples() / expected);
+    }
+
+    /** Met once the workouts for the whole window are logged, even if it has not ended yet. */
+    @Override
+    public boolean targetMet(Goal goal, ProgressCounters counters, LocalDate today) {
+        long windowDays = ChronoUnit.DAYS.between(goal.getStartDate(), goal.getEndDate()) + 1;
+        return counters.samples() >= goal.getTargetValue() * windowDays / 7.0;
+    }
+}
@@ -10,6 +10,9 @@ class Fit4EverApp {
         this.user = null;
         this.currentSection = 'dashboard';
         this.editingWorkoutId = null; // Track which workout is being edited
+        this.goalProgress = {}; // goal id -> progress (0..1), from /goals/progress
+        this.eventStream = null; // AbortController of the open /events stream
+        this.refreshTimer = null;
         
         this.init();
     }
@@ -44,6 +47,62 @@ class Fit4EverApp {
         document.getElementById('landingNavbar').style.display = 'none';
         document.getElementById('appContent').style.display = 'block';
         document.getElementById('appNavbar').style.display = 'flex';
+        this.subscribeToChanges();
+    }
+
+    // Live updates: /events is read with fetch rather than EventSource so the token stays in a header
+    async subscribeToChanges() {
+        if (this.eventStream || !this.token) return;
+        const controller = new AbortController();
+        this.eventStream = controller;
+        let delay = 1000;
+        while (!controller.signal.aborted) {
+            try {
+                const response = await fetch(`${this.baseURL}/events`, {
+                    headers: { 'Authorization': `Bearer ${this.token}`, 'Accept': 'text/event-stream' },
+                    signal: controller.signal
+                });
+                if (!response.ok) throw new Error(`HTTP ${response.status}`);
+                delay = 1000;
+                const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+                let buffer = '';
+                for (;;) {
+                    const { value, done } = await reader.read();
+                    if (done) break;
+                    buffer += value;
+                    const frames = buffer.split('\n\n');
+                    buffer = frames.pop();
+                    frames.forEach(frame => this.handleChangeFrame(frame));
+                }
+            } catch (error) {
+                if (controller.signal.aborted) return;
+            }
+            // Reconnect with backoff; anything missed meanwhile is picked up by the refresh
+            await new Promise(resolve => setTimeout(resolve, delay));
+            delay = Math.min(delay * 2, 30000);
+            this.scheduleRefresh();
+        }
+    }
+
+    handleChangeFrame(frame) {
+        const event = frame.split('\n').find(line => line.startsWith('event:'));
+        if (event && event.slice(6).trim() !== 'ready') {
+            this.scheduleRefresh();
+        }
+    }
+
+    // Coalesce bursts of changes (e.g. a bulk delete) into one reload of the visible section
+    scheduleRefresh() {
+        clearTimeout(this.refreshTimer);
+        this.refreshTimer = setTimeout(() => {
+            if (this.token) this.loadSectionData(this.currentSection);
+        }, 300);
+    }
+
+    unsubscribeFromChanges() {
+        if (this.eventStream) this.eventStream.abort();
+        this.eventStream = null;
+        clearTimeout(this.refreshTimer);
     }
 
     setupEventListeners() {
@@ -154,6 +213,7 @@ class Fit4EverApp {
     }
 
     logout() {
+        this.unsubscribeFromChanges();
         localStorage.removeItem('fit4ever_token');
         this.token = null;
         this.user = null;
@@ -203,21 +263,21 @@ class Fit4EverApp {
         try {
             this.showLoading();
             
-            // Load stats
-            const [workouts, nutrition, goals] = await Promise.all([
-                this.apiCall('/workouts', 'GET'),
-                this.loadTodayNutrition(),
-                this.apiCall('/goals', 'GET')
-            ]);
+            // One round trip; sections the server could not load in time come back null
+            const dashboard = await this.apiCall('/dashboard', 'GET');
+            const workouts = dashboard.workouts || { total: 0, lastSevenDays: 0, recent: [] };
+            const nutrition = this.calculateNutritionTotals(dashboard.todayLogs || []);
+            const goals = dashboard.goals || [];
+            this.goalProgress = Object.fromEntries((dashboard.goalProgress || []).map(p => [p.id, p.progress]));
             
             // Update stats
-            document.getElementById('totalWorkouts').textContent = workouts.length;
+            document.getElementById('totalWorkouts').textContent = workouts.total;
             document.getElementById('todayCalories').textContent = nutrition.totalCalories || 0;
             document.getElementById('activeGoals').textContent = goals.filter(g => g.status === 'ACTIVE').length;
-            document.getElementById('weekStreak').textContent = this.calculateWeekStreak(workouts);
+            document.getElementById('weekStreak').textContent = workouts.lastSevenDays;
             
             // Load recent workouts
-            this.displayRecentWorkouts(workouts.slice(0, 3));
+            this.displayRecentWorkouts(workouts.recent);
             
             // Load goal progress
             this.displayGoalProgress(goals.slice(0, 3));
@@ -229,15 +289,6 @@ class Fit4EverApp {
         }
     }
 
-    calculateWeekStreak(workouts) {
-        if (workouts.length === 0) return 0;
-        
-        const today = new Date();
-        const oneWeekAgo = new Date(today.getTime() - 7 * 24 * 60 * 60 * 1000);
-        
-        return workouts.filter(w => new Date(w.date) >= oneWeekAgo).length;
-    }
-
     displayRecentWorkouts(workouts) {
         const container = document.getElementById('recentWorkouts');
         
@@ -293,9 +344,14 @@ class Fit4EverApp {
         `).join('');
     }
 
+    async loadGoalProgress() {
+        // One call for every goal instead of one /goals/{id}/progress per goal
+        const progress = await this.apiCall('/goals/progress', 'GET');
+        this.goalProgress = Object.fromEntries(progress.map(p => [p.id, p.progress]));
+    }
+
     calculateGoalProgress(goal) {
-        // Simple progress calculation - can be enhanced with real data
-        const progress = Math.random() * 100;
+        const progress = (this.goalProgress[goal.id] || 0) * 100;
         return Math.min(progress, 100);
     }
 
@@ -776,7 +832,10 @@ class Fit4EverApp {
     async loadGoals() {
         try {
             this.showLoading();
-            const goals = await this.apiCall('/goals', 'GET');
+            const [goals] = await Promise.all([
+                this.apiCall('/goals', 'GET'),
+                this.loadGoalProgress()
+            ]);
             this.displayGoals(goals);
         } catch (error) {
             console.error('Failed to load goals:', error);
@@ -0,0 +1,109 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.ActivityDtos.*;
+import com.example.fit4ever.dto.CreateFoodLogRequest;
+import com.example.fit4ever.dto.WorkoutDtos.CreateWorkoutRequest;
+import com.example.fit4ever.dto.WorkoutDtos.WorkoutDetail;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.repository.ActivityYearRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.ActivityIndex;
+import com.example.fit4ever.service.NutritionService;
+import com.example.fit4ever.service.OutboxRelay;
+import com.example.fit4ever.service.WorkoutService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ActivityIndexTest {
+
+    @Autowired
+    private ActivityIndex activityIndex;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private NutritionService nutritionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActivityYearRepository activityYearRepository;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Test
+    public void writesMaintainCalendarAndStreaks() {
+        User user = userRepository.save(User.builder()
+                .name("Streak User")
+                .email("streak@example.com")
+                .password("password")
+                .role("USER")
+                .build());
+        Authentication auth = new UsernamePasswordAuthenticationToken(user.getEmail(), null, List.of());
+        LocalDate today = LocalDate.now();
+
+        // A five-day run crossing New Year, then yesterday and the day before
+        LocalDate newYear = LocalDate.of(today.getYear() - 1, 1, 1);
+        for (int d = -2; d <= 2; d++) {
+            workout(auth, newYear.plusDays(d));
+        }
+        workout(auth, today.minusDays(2));
+        WorkoutDetail yesterday = workout(auth, today.minusDays(1));
+        CreateFoodLogRequest salad = new CreateFoodLogRequest();
+        salad.setDate(today.toString());
+        salad.setMealType("LUNCH");
+        salad.setItemName("Salad");
+        salad.setCalories(300);
+        salad.setProtein(10.0);
+        salad.setCarbs(20.0);
+        salad.setFat(5.0);
+        nutritionService.createFoodLog(salad, user.getEmail());
+        relay.drain();
+
+        ActivityStreaksResponse streaks = activityIndex.streaks(user.getEmail());
+        assertEquals(2, streaks.getWorkouts().getCurrent());     // still alive until today ends
+        assertFalse(streaks.getWorkouts().isActiveToday());
+        assertEquals(5, streaks.getWorkouts().getLongest());
+        assertEquals(1, streaks.getFoodLogs().getCurrent());
+        assertTrue(streaks.getFoodLogs().isActiveToday());
+
+        ActivityCalendarResponse calendar = activityIndex.calendar(
+                today.minusDays(6).toString(), today.toString(), user.getEmail());
+        assertEquals(2, calendar.getWorkoutDays());
+        assertEquals(1, calendar.getFoodLogDays());
+        assertEquals(List.of(today.minusDays(2).toString(), today.minusDays(1).toString(), today.toString()),
+                calendar.getDays().stream().map(ActivityDay::getDate).toList());
+
+        // A delete clears its day after the next delivery; redelivery changes nothing
+        workoutService.delete(auth, yesterday.getId());
+        relay.drain();
+        assertEquals(0, activityIndex.streaks(user.getEmail()).getWorkouts().getCurrent());
+        relay.replayFrom(1);
+        relay.drain();
+        assertEquals(5, activityIndex.streaks(user.getEmail()).getWorkouts().getLongest());
+
+        // A rebuild recreates the index from source
+        activityYearRepository.deleteAll(activityYearRepository.findByUserIdOrderByYearAsc(user.getId()));
+        assertEquals(1, activityIndex.rebuild(user.getId()));
+        assertEquals(1, activityIndex.calendar(today.minusDays(6).toString(), today.toString(), user.getEmail())
+                .getWorkoutDays());
+    }
+
+    private WorkoutDetail workout(Authentication auth, LocalDate date) {
+        return workoutService.create(auth, CreateWorkoutRequest.builder().title("Run").date(date).build());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.BodyWeightDtos.*;
+import com.example.fit4ever.model.Goal;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.repository.GoalRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.BodyWeightService;
+import com.example.fit4ever.service.GoalService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class BodyWeightServiceTest {
+
+    @Autowired
+    private BodyWeightService bodyWeightService;
+
+    @Autowired
+    private GoalService goalService;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        user = userRepository.save(User.builder()
+                .name("Scale User")
+                .email("scale@example.com")
+                .password("password")
+                .role("USER")
+                .build());
+    }
+
+    private static BodyWeightRequest reading(LocalDate day, int hour, double kg) {
+        return new BodyWeightRequest(kg, day.atTime(hour, 0).toInstant(ZoneOffset.UTC));
+    }
+
+    @Test
+    public void bulkIngestIsDownsampledToDailyMinAvgMax() {
+        LocalDate day = LocalDate.of(2025, 3, 3);
+        BulkBodyWeightResponse written = bodyWeightService.recordAll(new BulkBodyWeightRequest(List.of(
+                reading(day, 7, 80.0), reading(day, 12, 81.0), reading(day, 21, 82.0),
+                reading(day.plusDays(2), 7, 79.0))), user.getEmail());
+        assertEquals(4, written.getRecorded());
+        assertEquals("2025-03-03", written.getFrom());
+        assertEquals("2025-03-05", written.getTo());
+
+        WeightSeriesResponse series = bodyWeightService.series("2025-03-01", "2025-03-10", null, user.getEmail());
+        assertEquals(1, series.getBucketDays());
+        assertEquals(2, series.getPoints().size());
+        WeightPoint first = series.getPoints().get(0);
+        assertEquals("2025-03-03", first.getStart());
+        assertEquals(80.0, first.getMinKg(), 1e-9);
+        assertEquals(81.0, first.getAvgKg(), 1e-9);
+        assertEquals(82.0, first.getMaxKg(), 1e-9);
+        assertEquals(3, first.getSamples());
+
+        WeightSeriesResponse weekly = bodyWeightService.series("2025-03-01", "2025-03-10", "WEEK", user.getEmail());
+        assertEquals(7, weekly.getBucketDays());
+        assertEquals("2025-03-03", weekly.getPoints().get(0).getStart()); // Monday-aligned
+        assertEquals(4, weekly.getPoints().get(0).getSamples());
+    }
+
+    @Test
+    public void longRangesStayWithinPointBudget() {
+        List<BodyWeightRequest> readings = new ArrayList<>();
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (int d = 0; d < 5 * 365; d += 3) {
+            readings.add(reading(start.plusDays(d), 7, 90.0 - d / 200.0));
+        }
+        bodyWeightService.recordAll(new BulkBodyWeightRequest(readings), user.getEmail());
+
+        WeightSeriesResponse series = bodyWeightService.series("2020-01-01", "2024-12-31", "DAY", user.getEmail());
+        assertEquals(0, series.getBucketDays() % 7);
+        assertTrue(series.getPoints().size() <= 180);
+        assertEquals(readings.size(), series.getPoints().stream().mapToLong(WeightPoint::getSamples).sum());
+    }
+
+    @Test
+    public void recentRangeReflectsNewReadingsAndRejectsBadResolution() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        bodyWeightService.record(new BodyWeightRequest(70.0, Instant.now()), user.getEmail());
+        WeightSeriesResponse series = bodyWeightService.series(today.minusDays(6).toString(), today.toString(), null, user.getEmail());
+        assertEquals(1, series.getPoints().size());
+        assertEquals(70.0, series.getPoints().get(0).getAvgKg(), 1e-9);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bodyWeightService.series(null, null, "HOUR", user.getEmail()));
+    }
+
+    @Test
+    public void weightProgressUsesSmoothedEnds() {
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        bodyWeightService.recordAll(new BulkBodyWeightRequest(List.of(
+                reading(start, 7, 80.0), reading(start, 20, 82.0),          // day average 81
+                reading(start.plusDays(1), 7, 80.0),                        // baseline (81 + 80) / 2
+                reading(start.plusDays(20), 7, 77.0),
+                reading(start.plusDays(21), 7, 76.0),
+                reading(start.plusDays(22), 7, 78.0))), user.getEmail());    // latest (77 + 76 + 78) / 3
+        Goal goal = goalRepository.save(Goal.builder().user(user).type("WEIGHT").targetValue(75.5)
+                .startDate(start).endDate(start.plusDays(60)).status("ACTIVE").build());
+
+        double progress = goalService.progress(goal.getId(), user.getEmail()).getProgress();
+        assertEquals((80.5 - 77.0) / (80.5 - 75.5), progress, 1e-9);
+    }
+}
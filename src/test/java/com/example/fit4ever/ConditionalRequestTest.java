@@ -0,0 +1,108 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.CreateFoodLogRequest;
+import com.example.fit4ever.dto.GoalDtos.CreateGoalRequest;
+import com.example.fit4ever.dto.GoalDtos.GoalResponse;
+import com.example.fit4ever.dto.GoalDtos.UpdateGoalRequest;
+import com.example.fit4ever.dto.WorkoutDtos.CreateWorkoutRequest;
+import com.example.fit4ever.dto.WorkoutDtos.UpdateWorkoutRequest;
+import com.example.fit4ever.dto.WorkoutDtos.WorkoutDetail;
+import com.example.fit4ever.exception.PreconditionFailedException;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.GoalService;
+import com.example.fit4ever.service.NutritionService;
+import com.example.fit4ever.service.WorkoutService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ConditionalRequestTest {
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private GoalService goalService;
+
+    @Autowired
+    private NutritionService nutritionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void workoutVersionsAndListMarker() {
+        User user = user("etag-workouts@example.com");
+        Authentication auth = new UsernamePasswordAuthenticationToken(user.getEmail(), null, List.of());
+        String empty = workoutService.listVersion(auth);
+
+        WorkoutDetail created = workoutService.create(auth,
+                CreateWorkoutRequest.builder().title("Run").date(LocalDate.now()).build());
+        assertEquals(0L, created.getVersion());
+        String afterCreate = workoutService.listVersion(auth);
+        assertNotEquals(empty, afterCreate);
+        assertEquals(afterCreate, workoutService.listVersion(auth)); // unchanged list, same tag
+
+        // An edit that moves no day still changes the list tag and the workout's version
+        WorkoutDetail renamed = workoutService.update(auth, created.getId(), 0L,
+                UpdateWorkoutRequest.builder().title("Long run").build());
+        assertEquals(1L, renamed.getVersion());
+        assertNotEquals(afterCreate, workoutService.listVersion(auth));
+
+        // A client still holding version 0 is refused rather than overwriting the rename
+        assertThrows(PreconditionFailedException.class, () -> workoutService.update(auth, created.getId(), 0L,
+                UpdateWorkoutRequest.builder().title("Tempo").build()));
+        assertEquals("Long run", workoutService.get(auth, created.getId()).getTitle());
+    }
+
+    @Test
+    public void goalAndFoodLogListMarkers() {
+        User user = user("etag-goals@example.com");
+        GoalResponse goal = goalService.create(CreateGoalRequest.builder().type("CALORIES").targetValue(2000.0)
+                .startDate("2025-01-01").endDate("2025-01-31").build(), user.getEmail());
+        String goals = goalService.listVersion(user.getEmail());
+        assertEquals(goal.getVersion(), goalService.list(user.getEmail()).get(0).getVersion());
+
+        UpdateGoalRequest retarget = new UpdateGoalRequest();
+        retarget.setTargetValue(1800.0);
+        GoalResponse updated = goalService.update(goal.getId(), retarget, user.getEmail(), goal.getVersion());
+        assertEquals(goal.getVersion() + 1, updated.getVersion());
+        assertNotEquals(goals, goalService.listVersion(user.getEmail()));
+        assertThrows(PreconditionFailedException.class,
+                () -> goalService.update(goal.getId(), retarget, user.getEmail(), goal.getVersion()));
+
+        String logs = nutritionService.logsVersion(user.getEmail());
+        CreateFoodLogRequest salad = new CreateFoodLogRequest();
+        salad.setDate(LocalDate.now().toString());
+        salad.setMealType("LUNCH");
+        salad.setItemName("Salad");
+        salad.setCalories(300);
+        salad.setProtein(10.0);
+        salad.setCarbs(20.0);
+        salad.setFat(5.0);
+        nutritionService.createFoodLog(salad, user.getEmail());
+        assertNotEquals(logs, nutritionService.logsVersion(user.getEmail()));
+    }
+
+    private User user(String email) {
+        return userRepository.save(User.builder()
+                .name("ETag User")
+                .email(email)
+                .password("password")
+                .role("USER")
+                .build());
+    }
+}
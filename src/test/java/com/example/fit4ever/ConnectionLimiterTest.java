@@ -0,0 +1,41 @@
+package com.example.fit4ever;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "fit4ever.datasource.limiter.enabled=true",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=250",
+        "fit4ever.datasource.replica.url="
+})
+@ActiveProfiles("test")
+public class ConnectionLimiterTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void callersBeyondThePoolWaitForAClose() throws Exception {
+        assertInstanceOf(DelegatingDataSource.class, dataSource);
+        Connection first = dataSource.getConnection();
+        try (Connection second = dataSource.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            first.close();
+            first.close(); // a second close must not hand out an extra permit
+            try (Connection third = dataSource.getConnection()) {
+                assertTrue(third.isValid(1));
+                assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            }
+        }
+    }
+}
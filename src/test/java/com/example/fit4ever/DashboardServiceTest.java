@@ -0,0 +1,69 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.DashboardDtos.DashboardResponse;
+import com.example.fit4ever.dto.GoalDtos.CreateGoalRequest;
+import com.example.fit4ever.dto.WorkoutDtos.CreateWorkoutRequest;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.DashboardService;
+import com.example.fit4ever.service.GoalService;
+import com.example.fit4ever.service.WorkoutService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: sections run on worker threads and only see committed data
+@SpringBootTest
+@ActiveProfiles("test")
+public class DashboardServiceTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private GoalService goalService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void composesAllSectionsInOneCall() {
+        User user = userRepository.save(User.builder()
+                .name("Dashboard User")
+                .email("dashboard@example.com")
+                .password("password")
+                .role("USER")
+                .build());
+        Authentication auth = new UsernamePasswordAuthenticationToken(user.getEmail(), null, List.of());
+        LocalDate today = LocalDate.now();
+        for (int daysAgo : List.of(0, 3, 10, 20)) {
+            workoutService.create(auth, CreateWorkoutRequest.builder().title("Run").date(today.minusDays(daysAgo)).build());
+        }
+        goalService.create(CreateGoalRequest.builder().type("WORKOUTS_PER_WEEK").targetValue(3.0)
+                .startDate(today.minusDays(13).toString()).endDate(today.toString()).build(), user.getEmail());
+
+        DashboardResponse dashboard = dashboardService.dashboard(auth);
+
+        assertEquals(List.of(), dashboard.getUnavailable());
+        assertEquals(user.getEmail(), dashboard.getEmail());
+        assertEquals(4, dashboard.getWorkouts().getTotal());
+        assertEquals(2, dashboard.getWorkouts().getLastSevenDays());
+        assertEquals(3, dashboard.getWorkouts().getRecent().size());
+        assertEquals(today, dashboard.getWorkouts().getRecent().get(0).getDate());
+        assertTrue(dashboard.getTodayLogs().isEmpty());
+        assertEquals(today.toString(), dashboard.getWeeklySummary().getTo());
+        assertEquals(1, dashboard.getGoals().size());
+        assertEquals(1, dashboard.getGoalProgress().size());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.NutritionSummaryResponse;
+import com.example.fit4ever.dto.WorkoutDtos.WorkoutSummary;
+import com.example.fit4ever.model.FoodLog;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.NutritionService;
+import com.example.fit4ever.service.WorkoutService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Latency and allocation budgets on one heavy user's history; see performance-budgets.properties.
+// Wall-clock assertions need a quiet machine, so these run only with mvn -Pperformance test.
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("performance")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class DataScalePerformanceTest {
+    private static final int DAYS = 3 * 365;
+    private static final String[] MEALS = {"BREAKFAST", "LUNCH", "DINNER", "SNACK"};
+
+    @Autowired
+    private NutritionService nutritionService;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final PerformanceBudgets budgets = new PerformanceBudgets();
+    private final LocalDate today = LocalDate.now();
+    private String email;
+    private int workouts;
+
+    @BeforeAll
+    public void threeYearsOfHistory() {
+        email = "scale-" + UUID.randomUUID() + "@example.com";
+        Long userId = userRepository.save(User.builder().name("Scale User").email(email).password("password").role("USER").build()).getId();
+        Random random = new Random(42);
+        Timestamp now = Timestamp.from(Instant.now());
+
+        List<Object[]> workoutRows = new ArrayList<>();
+        List<Object[]> foodLogRows = new ArrayList<>();
+        for (int d = DAYS - 1; d >= 0; d--) {
+            Date day = Date.valueOf(today.minusDays(d));
+            if (random.nextInt(2) == 0) {
+                workoutRows.add(new Object[]{userId, "Workout", null, day, now});
+            }
+            for (int l = 0; l < 6; l++) {
+                String meal = MEALS[l * MEALS.length / 6];
+                foodLogRows.add(new Object[]{userId, day, meal, FoodLog.mealOrderOf(meal), "Item " + l,
+                        80 + random.nextInt(700), random.nextInt(400) / 10.0, random.nextInt(900) / 10.0,
+                        random.nextInt(300) / 10.0, now});
+            }
+        }
+        // Pooled connections do not auto-commit, so plain JdbcTemplate writes would be rolled back on return
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("insert into workouts (user_id, title, notes, workout_date, version, updated_at) values (?, ?, ?, ?, 0, ?)", workoutRows);
+            jdbcTemplate.batchUpdate("insert into food_logs (user_id, date, meal_type, meal_order, item_name, calories, protein, carbs, fat, version, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)", foodLogRows);
+
+            List<Object[]> exerciseRows = new ArrayList<>();
+            for (Long workoutId : jdbcTemplate.queryForList("select id from workouts where user_id = ?", Long.class, userId)) {
+                for (int e = 0; e < 4; e++) {
+                    exerciseRows.add(new Object[]{workoutId, "Exercise " + e, 3 + random.nextInt(3), 5 + random.nextInt(8), 20.0 + random.nextInt(120)});
+                }
+            }
+            jdbcTemplate.batchUpdate("insert into exercises (workout_id, name, sets_count, reps_per_set, weight) values (?, ?, ?, ?, ?)", exerciseRows);
+        });
+        workouts = workoutRows.size();
+    }
+
+    @Test
+    public void yearSummaryStaysWithinBudget() {
+        NutritionSummaryResponse summary = budgets.assertWithin("nutrition.summary.year",
+                () -> nutritionService.summary(today.minusDays(364).toString(), today.toString(), email));
+        assertEquals(365, summary.getByDay().size());
+    }
+
+    @Test
+    public void workoutListStaysWithinBudget() {
+        Authentication auth = new UsernamePasswordAuthenticationToken(email, null, List.of());
+        List<WorkoutSummary> list = budgets.assertWithin("workouts.list", () -> workoutService.list(auth));
+        assertEquals(workouts, list.size());
+        assertEquals(4, list.get(0).getExercises().size());
+    }
+
+    @Test
+    public void oneDayOfLogsStaysWithinBudget() {
+        assertEquals(6, budgets.assertWithin("nutrition.logs.day",
+                () -> nutritionService.listByDate(today.minusDays(100).toString(), email)).size());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.service.FoodDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class FoodDatabaseTest {
+
+    @Autowired
+    private FoodDatabase foodDatabase;
+
+    @Test
+    void bundledDatabaseIsMappedAndSearchableByWordPrefixes() {
+        assertThat(foodDatabase.size()).isGreaterThan(100);
+
+        List<FoodDatabase.Food> hits = foodDatabase.search("chi bre", 10);
+        assertThat(hits).extracting(FoodDatabase.Food::name).containsExactly("Chicken Breast Grilled");
+
+        List<FoodDatabase.Food> bananas = foodDatabase.search("BANANA", 10);
+        assertThat(bananas).extracting(FoodDatabase.Food::name).startsWith("Banana");
+
+        assertThat(foodDatabase.search("zzzz", 10)).isEmpty();
+    }
+
+    @Test
+    void lookupScalesPer100gValuesToServings() {
+        FoodDatabase.Food banana = foodDatabase.findById(2).orElseThrow();
+        assertThat(banana.servingGrams()).isEqualTo(118.0);
+
+        FoodDatabase.Portion two = banana.servings(2);
+        assertThat(two.grams()).isEqualTo(236.0);
+        assertThat(two.calories()).isEqualTo(210);   // 89 kcal/100 g * 2.36
+        assertThat(two.carbs()).isEqualTo(53.8);
+
+        assertThat(foodDatabase.findById(999_999)).isEmpty();
+    }
+}
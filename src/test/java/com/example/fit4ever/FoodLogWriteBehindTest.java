@@ -0,0 +1,154 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.CreateFoodLogRequest;
+import com.example.fit4ever.dto.FoodLogResponse;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.repository.FoodLogRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.repository.WriteBehindMarkRepository;
+import com.example.fit4ever.model.FoodLog;
+import com.example.fit4ever.service.DomainEventPublisher;
+import com.example.fit4ever.service.FoodLogWriteBehindBuffer;
+import com.example.fit4ever.service.NutritionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "fit4ever.nutrition.write-behind.enabled=true",
+        "fit4ever.nutrition.write-behind.journal-file=target/test-journal/foodlog-journal.ndjson",
+        "fit4ever.nutrition.write-behind.flush-interval-ms=50"
+})
+@ActiveProfiles("test")
+public class FoodLogWriteBehindTest {
+
+    @Autowired
+    private NutritionService nutritionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FoodLogRepository foodLogRepository;
+
+    @Autowired
+    private FoodLogWriteBehindBuffer writeBehind;
+
+    @Autowired
+    private WriteBehindMarkRepository marks;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DomainEventPublisher events;
+
+    @Test
+    void journaledWriteIsVisibleBeforeAndAfterFlush() throws InterruptedException {
+        User user = userRepository.save(User.builder()
+                .name("Write Behind")
+                .email("write-behind@example.com")
+                .password("x")
+                .role("USER")
+                .build());
+
+        CreateFoodLogRequest req = new CreateFoodLogRequest();
+        req.setDate("2025-09-03");
+        req.setMealType("BREAKFAST");
+        req.setItemName("Oatmeal");
+        req.setCalories(300);
+        req.setProtein(10.0);
+        req.setCarbs(54.0);
+        req.setFat(5.0);
+
+        FoodLogResponse created = nutritionService.createFoodLog(req, user.getEmail());
+        assertThat(created.getItemName()).isEqualTo("Oatmeal");
+
+        // Own writes are readable whether or not the drainer has flushed them yet
+        List<FoodLogResponse> logs = nutritionService.listByDate("2025-09-03", user.getEmail());
+        assertThat(logs).extracting(FoodLogResponse::getItemName).containsExactly("Oatmeal");
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (foodLogRepository.findByUserIdAndDate(user.getId(), LocalDate.of(2025, 9, 3)).isEmpty()
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(25);
+        }
+        assertThat(foodLogRepository.findByUserIdAndDate(user.getId(), LocalDate.of(2025, 9, 3))).hasSize(1);
+        assertThat(nutritionService.listByDate("2025-09-03", user.getEmail())).hasSize(1);
+        assertThat(Files.exists(Path.of("target/test-journal/foodlog-journal.ndjson"))).isFalse();
+    }
+
+    @Test
+    void logHeldBackByAnOpenRangeDeleteIsReplayedAfterALaterOneFlushes() {
+        User user = userRepository.save(User.builder()
+                .name("Write Behind Replay")
+                .email("write-behind-replay@example.com")
+                .password("x")
+                .role("USER")
+                .build());
+        LocalDate heldDay = LocalDate.of(2025, 9, 10);
+        LocalDate laterDay = LocalDate.of(2025, 9, 20);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(writeBehind.offer(user.getEmail(), log(heldDay, "Held"))).isTrue();
+            assertThat(writeBehind.discard(user.getId(), heldDay, heldDay)).isEqualTo(1);
+            assertThat(writeBehind.offer(user.getEmail(), log(laterDay, "Later"))).isTrue();
+            awaitRows(user.getId(), laterDay, 1);
+
+            // A node restarting now (the delete still open) must replay the held log but not the flushed one
+            FoodLogWriteBehindBuffer restarted = new FoodLogWriteBehindBuffer(foodLogRepository, userRepository,
+                    marks, transactionManager, objectMapper, events);
+            ReflectionTestUtils.setField(restarted, "enabled", true);
+            ReflectionTestUtils.setField(restarted, "journalFile", "target/test-journal/foodlog-journal.ndjson");
+            ReflectionTestUtils.setField(restarted, "batchSize", 200);
+            ReflectionTestUtils.setField(restarted, "flushIntervalMs", 3_600_000L);
+            ReflectionTestUtils.setField(restarted, "maxPending", 10_000);
+            ReflectionTestUtils.invokeMethod(restarted, "start");
+            try {
+                assertThat(restarted.withPending(user.getId(), heldDay, laterDay, List::of))
+                        .extracting(FoodLog::getItemName).containsExactly("Held");
+            } finally {
+                ((ScheduledExecutorService) ReflectionTestUtils.getField(restarted, "drainer")).shutdownNow();
+            }
+            status.setRollbackOnly();
+        });
+
+        // The rollback released the held log, so this node flushes it after all
+        awaitRows(user.getId(), heldDay, 1);
+        assertThat(foodLogRepository.findByUserIdAndDate(user.getId(), heldDay)).hasSize(1);
+    }
+
+    private static FoodLog log(LocalDate date, String itemName) {
+        return FoodLog.builder().date(date).mealType("LUNCH").itemName(itemName)
+                .calories(200).protein(10.0).carbs(20.0).fat(5.0).build();
+    }
+
+    private void awaitRows(Long userId, LocalDate date, int rows) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (foodLogRepository.findByUserIdAndDate(userId, date).size() < rows && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(25);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        assertThat(foodLogRepository.findByUserIdAndDate(userId, date)).hasSize(rows);
+    }
+}
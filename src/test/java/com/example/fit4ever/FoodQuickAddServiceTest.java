@@ -0,0 +1,124 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.QuickAddFoodResponse;
+import com.example.fit4ever.model.FoodLog;
+import com.example.fit4ever.repository.FoodLogRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.FoodLogWriteBehindBuffer;
+import com.example.fit4ever.service.FoodQuickAddService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+public class FoodQuickAddServiceTest {
+
+    private FoodLogRepository foodLogRepository;
+    private FoodQuickAddService quickAdd;
+
+    @BeforeEach
+    void setup() {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        foodLogRepository = Mockito.mock(FoodLogRepository.class);
+        FoodLogWriteBehindBuffer writeBehind = Mockito.mock(FoodLogWriteBehindBuffer.class);
+        when(writeBehind.withPending(anyLong(), any(), any(), any())).thenAnswer(inv -> {
+            Supplier<List<FoodLog>> persisted = inv.getArgument(3);
+            return persisted.get();
+        });
+        when(userRepository.findIdByEmail("u@example.com")).thenReturn(Optional.of(1L));
+        quickAdd = new FoodQuickAddService(userRepository, foodLogRepository, writeBehind);
+    }
+
+    private static FoodLog log(String item, int calories, int day) {
+        return FoodLog.builder().itemName(item).mealType("LUNCH").calories(calories)
+                .protein(1.0).carbs(2.0).fat(3.0).date(LocalDate.of(2025, 9, day)).build();
+    }
+
+    @Test
+    void rebuildsOnceFromLatestLogsThenServesFromMemory() {
+        // Newest first, as the repository returns them
+        when(foodLogRepository.findTop200ByUserIdOrderByDateDescIdDesc(1L)).thenReturn(List.of(
+                log("Banana", 105, 4), log("Oatmeal", 300, 3), log("Banana", 100, 2), log("Banana", 90, 1)));
+
+        List<QuickAddFoodResponse> frequent = quickAdd.frequent("u@example.com", 10);
+        assertThat(frequent).extracting(QuickAddFoodResponse::getItemName).containsExactly("Banana", "Oatmeal");
+        assertThat(frequent.get(0).getTimesLogged()).isEqualTo(3L);
+        assertThat(frequent.get(0).getCalories()).isEqualTo(105); // last-used macros win
+
+        quickAdd.record("u@example.com", log("Oatmeal", 320, 5));
+        List<QuickAddFoodResponse> recent = quickAdd.recent("u@example.com", 10);
+        assertThat(recent).extracting(QuickAddFoodResponse::getItemName).containsExactly("Oatmeal", "Banana");
+        assertThat(recent.get(0).getCalories()).isEqualTo(320);
+
+        verify(foodLogRepository, times(1)).findTop200ByUserIdOrderByDateDescIdDesc(1L);
+    }
+
+    @Test
+    void keepsLogRecordedWhileRebuilding() throws InterruptedException {
+        Thread[] recorder = new Thread[1];
+        when(foodLogRepository.findTop200ByUserIdOrderByDateDescIdDesc(1L)).thenAnswer(inv -> {
+            // A log committed after this query ran must still reach the entry being built
+            recorder[0] = new Thread(() -> quickAdd.record("u@example.com", log("Apple", 95, 5)));
+            recorder[0].start();
+            while (recorder[0].getState() != Thread.State.BLOCKED && recorder[0].getState() != Thread.State.WAITING
+                    && recorder[0].getState() != Thread.State.TERMINATED) {
+                Thread.onSpinWait();
+            }
+            return List.of(log("Banana", 105, 4));
+        });
+
+        quickAdd.frequent("u@example.com", 10);
+        recorder[0].join();
+
+        assertThat(quickAdd.recent("u@example.com", 10)).extracting(QuickAddFoodResponse::getItemName)
+                .containsExactly("Apple", "Banana");
+    }
+
+    @Test
+    void forgetRebuildsWithoutDeletedLogs() {
+        when(foodLogRepository.findTop200ByUserIdOrderByDateDescIdDesc(1L))
+                .thenReturn(List.of(log("Banana", 105, 4), log("Oatmeal", 300, 3)))
+                .thenReturn(List.of(log("Oatmeal", 300, 3)));
+        assertThat(quickAdd.recent("u@example.com", 10)).hasSize(2);
+
+        quickAdd.forget("u@example.com");
+
+        assertThat(quickAdd.recent("u@example.com", 10)).extracting(QuickAddFoodResponse::getItemName)
+                .containsExactly("Oatmeal");
+        verify(foodLogRepository, times(2)).findTop200ByUserIdOrderByDateDescIdDesc(1L);
+    }
+
+    @Test
+    void synchronousLogIsFedOnlyOnceItsTransactionCommits() {
+        when(foodLogRepository.findTop200ByUserIdOrderByDateDescIdDesc(1L)).thenReturn(List.of(log("Banana", 105, 4)));
+        quickAdd.recent("u@example.com", 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            quickAdd.recordAfterCommit("u@example.com", log("Rolled back", 50, 5));
+            quickAdd.recordAfterCommit("u@example.com", log("Committed", 60, 6));
+            assertThat(quickAdd.recent("u@example.com", 10)).extracting(QuickAddFoodResponse::getItemName)
+                    .containsExactly("Banana");
+
+            // The first log's transaction rolls back, so only the second one sees afterCommit
+            List<TransactionSynchronization> pending = TransactionSynchronizationManager.getSynchronizations();
+            pending.get(1).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(quickAdd.recent("u@example.com", 10)).extracting(QuickAddFoodResponse::getItemName)
+                .containsExactly("Committed", "Banana");
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.model.BodyWeight;
+import com.example.fit4ever.model.FoodLog;
+import com.example.fit4ever.model.Goal;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.model.Workout;
+import com.example.fit4ever.repository.BodyWeightRepository;
+import com.example.fit4ever.repository.FoodLogRepository;
+import com.example.fit4ever.repository.GoalRepository;
+import com.example.fit4ever.repository.JobCheckpointRepository;
+import com.example.fit4ever.repository.OutboxEventRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.repository.WorkoutRepository;
+import com.example.fit4ever.service.GoalLifecycleJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "fit4ever.goals.lifecycle.chunk-size=2",
+        "fit4ever.goals.lifecycle.parallelism=2"
+})
+@ActiveProfiles("test")
+public class GoalLifecycleJobTest {
+
+    @Autowired
+    private GoalLifecycleJob job;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private FoodLogRepository foodLogRepository;
+
+    @Autowired
+    private BodyWeightRepository bodyWeightRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    public void closesMetAndLapsedGoalsAndLeavesTheRestActive() {
+        User user = userRepository.save(User.builder()
+                .name("Lifecycle User")
+                .email("lifecycle@example.com")
+                .password("password")
+                .role("USER")
+                .build());
+        LocalDate today = LocalDate.now();
+
+        Goal metAndEnded = goal(user, "WORKOUTS_PER_WEEK", 1.0, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 14));
+        Goal lapsed = goal(user, "WORKOUTS_PER_WEEK", 3.0, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 14));
+        Goal metEarly = goal(user, "WEIGHT", 75.0, today.minusDays(10), today.plusDays(30));
+        Goal running = goal(user, "WORKOUTS_PER_WEEK", 3.0, today, today.plusDays(30));
+        Goal caloriesOnTrack = goal(user, "CALORIES", 2000.0, today.minusDays(5), today.plusDays(5));
+
+        // Two workouts in the two-week window: enough for one a week, not for three
+        for (int day : new int[]{2, 9}) {
+            workoutRepository.save(Workout.builder().user(user).title("Run").date(LocalDate.of(2025, 1, day)).build());
+        }
+        Instant now = Instant.now();
+        weigh(user, now.minus(9, ChronoUnit.DAYS), 80.0);
+        weigh(user, now.minus(1, ChronoUnit.DAYS), 75.0);
+        foodLogRepository.save(FoodLog.builder().user(user).date(today.minusDays(1)).mealType("LUNCH")
+                .itemName("Meal").calories(2000).protein(0.0).carbs(0.0).fat(0.0).build());
+
+        GoalLifecycleJob.Result result = job.run();
+        assertTrue(result.evaluated() >= 5);
+
+        assertEquals("COMPLETED", status(metAndEnded));
+        assertEquals("EXPIRED", status(lapsed));
+        assertEquals("COMPLETED", status(metEarly));
+        assertEquals("ACTIVE", status(running));
+        assertEquals("ACTIVE", status(caloriesOnTrack)); // an average is only judged after the window
+        assertNotNull(checkpointRepository.findById("goal-lifecycle").orElseThrow().getFinishedAt());
+        // The owner's clients hear about the closed goals like any other goal change
+        assertTrue(outboxEventRepository.findAll().stream().anyMatch(e ->
+                OutboxEvent.GOAL.equals(e.getType()) && user.getId().equals(e.getUserId())));
+
+        // A second pass only sees what is still ACTIVE and changes nothing of ours
+        job.run();
+        assertEquals("ACTIVE", status(running));
+        assertEquals("EXPIRED", status(lapsed));
+    }
+
+    private Goal goal(User user, String type, double target, LocalDate start, LocalDate end) {
+        return goalRepository.save(Goal.builder().user(user).type(type).targetValue(target)
+                .startDate(start).endDate(end).status("ACTIVE").build());
+    }
+
+    private void weigh(User user, Instant at, double kg) {
+        bodyWeightRepository.save(BodyWeight.builder().user(user).measuredAt(at)
+                .date(at.atZone(ZoneOffset.UTC).toLocalDate()).weightKg(kg).build());
+    }
+
+    private String status(Goal goal) {
+        return goalRepository.findById(goal.getId()).orElseThrow().getStatus();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.config.RequestQueryStats;
+import com.example.fit4ever.dto.GoalDtos.GoalProgressResponse;
+import com.example.fit4ever.model.BodyWeight;
+import com.example.fit4ever.model.FoodLog;
+import com.example.fit4ever.model.Goal;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.model.Workout;
+import com.example.fit4ever.repository.BodyWeightRepository;
+import com.example.fit4ever.repository.FoodLogRepository;
+import com.example.fit4ever.repository.GoalRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.repository.WorkoutRepository;
+import com.example.fit4ever.service.GoalService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class GoalProgressBatchTest {
+
+    @Autowired
+    private GoalService goalService;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Autowired
+    private FoodLogRepository foodLogRepository;
+
+    @Autowired
+    private BodyWeightRepository bodyWeightRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RequestQueryStats queryStats;
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 1, 14);
+
+    @Test
+    public void progressForAllGoalsUsesConstantStatementCount() {
+        User user = userRepository.save(User.builder()
+                .name("Batch User")
+                .email("batch@example.com")
+                .password("password")
+                .role("USER")
+                .build());
+
+        for (int day : List.of(2, 5, 9)) {
+            workoutRepository.save(Workout.builder().user(user).title("Run").date(START.plusDays(day)).build());
+        }
+        for (int day : List.of(1, 2)) {
+            foodLogRepository.save(FoodLog.builder().user(user).date(START.plusDays(day)).mealType("LUNCH")
+                    .itemName("Meal").calories(2000).protein(0.0).carbs(0.0).fat(0.0).build());
+        }
+        bodyWeightRepository.save(BodyWeight.builder().user(user).date(START)
+                .measuredAt(Instant.parse("2025-01-01T07:00:00Z")).weightKg(80.0).build());
+        bodyWeightRepository.save(BodyWeight.builder().user(user).date(START.plusDays(6))
+                .measuredAt(Instant.parse("2025-01-07T07:00:00Z")).weightKg(78.0).build());
+
+        addGoals(user, 1);
+        long fewGoals = statementsFor(user);
+        addGoals(user, 10);
+        long manyGoals = statementsFor(user);
+        assertEquals(fewGoals, manyGoals);
+
+        List<GoalProgressResponse> progress = goalService.progressAll("ACTIVE", user.getEmail());
+        assertEquals(33, progress.size());
+        Map<String, Double> byType = progress.stream().collect(Collectors.toMap(
+                GoalProgressResponse::getType, GoalProgressResponse::getProgress, (a, b) -> a));
+        assertEquals(0.5, byType.get("WORKOUTS_PER_WEEK"), 1e-9);   // 3 of 6 over two weeks
+        assertEquals(1.0, byType.get("CALORIES"), 1e-9);            // 2000 a day against 2000
+        assertEquals(0.4, byType.get("WEIGHT"), 1e-9);              // 80 -> 78 of 80 -> 75
+    }
+
+    private void addGoals(User user, int perType) {
+        for (int i = 0; i < perType; i++) {
+            goalRepository.save(goal(user, "WORKOUTS_PER_WEEK", 3.0));
+            goalRepository.save(goal(user, "CALORIES", 2000.0));
+            goalRepository.save(goal(user, "WEIGHT", 75.0));
+        }
+    }
+
+    private static Goal goal(User user, String type, double target) {
+        return Goal.builder().user(user).type(type).targetValue(target)
+                .startDate(START).endDate(END).status("ACTIVE").build();
+    }
+
+    private long statementsFor(User user) {
+        entityManager.flush();
+        entityManager.clear();
+        // Counted on this thread only; the factory-wide statistics also see background pollers
+        assertTrue(queryStats.begin());
+        goalService.progressAll("ACTIVE", user.getEmail());
+        return queryStats.end().statements();
+    }
+}
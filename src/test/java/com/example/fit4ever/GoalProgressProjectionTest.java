@@ -0,0 +1,95 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.GoalDtos.CreateGoalRequest;
+import com.example.fit4ever.dto.GoalDtos.GoalResponse;
+import com.example.fit4ever.dto.WorkoutDtos.CreateWorkoutRequest;
+import com.example.fit4ever.dto.WorkoutDtos.WorkoutDetail;
+import com.example.fit4ever.model.GoalProgress;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.repository.GoalProgressRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.GoalProgressProjector;
+import com.example.fit4ever.service.GoalService;
+import com.example.fit4ever.service.OutboxRelay;
+import com.example.fit4ever.service.WorkoutService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class GoalProgressProjectionTest {
+
+    @Autowired
+    private GoalService goalService;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GoalProgressRepository goalProgressRepository;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private GoalProgressProjector projector;
+
+    @Test
+    public void workoutEventsMaintainStoredCountersIdempotently() {
+        User user = userRepository.save(User.builder()
+                .name("Projected User")
+                .email("projected@example.com")
+                .password("password")
+                .role("USER")
+                .build());
+        Authentication auth = new UsernamePasswordAuthenticationToken(user.getEmail(), null, List.of());
+
+        GoalResponse goal = goalService.create(CreateGoalRequest.builder()
+                .type("WORKOUTS_PER_WEEK")
+                .targetValue(3.0)
+                .startDate("2025-01-01")
+                .endDate("2025-01-14")
+                .build(), user.getEmail());
+
+        WorkoutDetail moved = null;
+        for (int day : List.of(2, 5, 9)) {
+            moved = workoutService.create(auth, CreateWorkoutRequest.builder()
+                    .title("Run").date(LocalDate.of(2025, 1, day)).build());
+        }
+        relay.drain();
+        assertEquals(3, stored(goal.getId()).getSamples());
+        assertEquals(0.5, goalService.progress(goal.getId(), user.getEmail()).getProgress(), 1e-9);
+
+        // Deleting one workout is reflected after the next delivery
+        workoutService.delete(auth, moved.getId());
+        relay.drain();
+        GoalProgress afterDelete = stored(goal.getId());
+        assertEquals(2, afterDelete.getSamples());
+
+        // Redelivering everything does not double count
+        relay.replayFrom(1);
+        relay.drain();
+        assertEquals(2, stored(goal.getId()).getSamples());
+
+        // A rebuild recreates missing rows from source
+        goalProgressRepository.deleteById(goal.getId());
+        assertEquals(1, projector.rebuild(user.getId()));
+        assertEquals(2, stored(goal.getId()).getSamples());
+    }
+
+    private GoalProgress stored(Long goalId) {
+        return goalProgressRepository.findById(goalId).orElseThrow();
+    }
+}
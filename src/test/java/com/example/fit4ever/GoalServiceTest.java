@@ -1,10 +1,13 @@
 package com.example.fit4ever;
 
 import com.example.fit4ever.dto.GoalDtos.*;
+import com.example.fit4ever.exception.ResourceNotFoundException;
 import com.example.fit4ever.model.Goal;
 import com.example.fit4ever.model.User;
+import com.example.fit4ever.model.Workout;
 import com.example.fit4ever.repository.GoalRepository;
 import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.repository.WorkoutRepository;
 import com.example.fit4ever.service.GoalService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,6 +34,9 @@ public class GoalServiceTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
     @Test
     public void testCreateAndListGoal() {
         // Create a test user
@@ -75,23 +81,48 @@ public class GoalServiceTest {
                 .build();
         user = userRepository.save(user);
 
-        // Create a goal
+        // Create a two-week goal (already over) of 3 workouts per week
         Goal goal = Goal.builder()
                 .user(user)
                 .type("WORKOUTS_PER_WEEK")
                 .targetValue(3.0)
                 .startDate(LocalDate.of(2025, 1, 1))
-                .endDate(LocalDate.of(2025, 12, 31))
+                .endDate(LocalDate.of(2025, 1, 14))
                 .status("ACTIVE")
                 .build();
         goal = goalRepository.save(goal);
 
+        // Three workouts inside the window, one outside
+        for (LocalDate d : List.of(LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 5),
+                LocalDate.of(2025, 1, 9), LocalDate.of(2025, 2, 1))) {
+            workoutRepository.save(Workout.builder().user(user).title("Run").date(d).build());
+        }
+
         // Get progress
         GoalProgressResponse progress = goalService.progress(goal.getId(), user.getEmail());
         
         assertNotNull(progress);
         assertEquals("WORKOUTS_PER_WEEK", progress.getType());
         assertEquals(3.0, progress.getTargetValue());
-        assertEquals(0.6, progress.getProgress()); // Demo value from service
+        assertEquals(0.5, progress.getProgress(), 1e-9); // 3 of the 6 expected over two weeks
+    }
+
+    @Test
+    public void testGoalOwnershipErrors() {
+        User owner = userRepository.save(User.builder()
+                .name("Owner").email("owner@example.com").password("password").role("USER").build());
+        User other = userRepository.save(User.builder()
+                .name("Other").email("other@example.com").password("password").role("USER").build());
+        GoalResponse goal = goalService.create(CreateGoalRequest.builder()
+                .type("CALORIES").targetValue(2000.0).startDate("2025-01-01").endDate("2025-01-31").build(),
+                owner.getEmail());
+
+        UpdateGoalRequest retarget = UpdateGoalRequest.builder().targetValue(1800.0).build();
+        assertThrows(SecurityException.class, () -> goalService.update(goal.getId(), retarget, other.getEmail()));
+        assertThrows(SecurityException.class, () -> goalService.progress(goal.getId(), other.getEmail()));
+        assertThrows(ResourceNotFoundException.class, () -> goalService.progress(-1L, owner.getEmail()));
+
+        assertEquals(1800.0, goalService.update(goal.getId(), retarget, owner.getEmail()).getTargetValue());
+        assertTrue(goalService.list(other.getEmail()).isEmpty());
     }
 }
@@ -0,0 +1,108 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.LiveEventDtos.ChangeEvent;
+import com.example.fit4ever.dto.WorkoutDtos.CreateWorkoutRequest;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.LiveEventHub;
+import com.example.fit4ever.service.WorkoutService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: events are read from committed outbox rows
+@SpringBootTest
+@ActiveProfiles("test")
+public class LiveEventHubTest {
+
+    @Autowired
+    private LiveEventHub hub;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void committedChangeReachesTheOwnersStreamOnly() throws InterruptedException {
+        User owner = user("live-owner@example.com");
+        User other = user("live-other@example.com");
+        CapturingEmitter ownerStream = new CapturingEmitter();
+        CapturingEmitter otherStream = new CapturingEmitter();
+        hub.register(owner.getId(), ownerStream);
+        hub.register(other.getId(), otherStream);
+        hub.poll();
+
+        Authentication auth = new UsernamePasswordAuthenticationToken(owner.getEmail(), null, List.of());
+        workoutService.create(auth,
+                CreateWorkoutRequest.builder().title("Run").date(LocalDate.now()).build());
+
+        // The commit wakes the hub's own poller; polling here as well must not send it twice
+        hub.poll();
+        for (int i = 0; i < 50 && ownerStream.changes.isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+        hub.poll();
+        assertEquals(1, ownerStream.changes.size());
+        ChangeEvent change = ownerStream.changes.get(0);
+        assertEquals("workout", change.getType());
+        assertEquals(LocalDate.now().toString(), change.getFrom());
+        assertTrue(otherStream.changes.isEmpty());
+        ownerStream.complete();
+        otherStream.complete();
+    }
+
+    @Test
+    public void oldestStreamIsClosedBeyondThePerUserLimit() {
+        User user = user("live-limit@example.com");
+        List<CapturingEmitter> streams = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            CapturingEmitter stream = new CapturingEmitter();
+            streams.add(stream);
+            hub.register(user.getId(), stream);
+        }
+        assertEquals(8, hub.connections(user.getId()));
+        assertTrue(streams.get(0).completed);
+        assertFalse(streams.get(8).completed);
+        streams.forEach(CapturingEmitter::complete);
+    }
+
+    private User user(String email) {
+        return userRepository.save(User.builder()
+                .name("Live User")
+                .email(email)
+                .password("password")
+                .role("USER")
+                .build());
+    }
+
+    /** Records change events instead of writing them to a response. */
+    static class CapturingEmitter extends SseEmitter {
+        final List<ChangeEvent> changes = new CopyOnWriteArrayList<>();
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().forEach(part -> {
+                if (part.getData() instanceof ChangeEvent change) changes.add(change);
+            });
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
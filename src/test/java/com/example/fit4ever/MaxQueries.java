@@ -0,0 +1,20 @@
+package com.example.fit4ever;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails a Spring integration test whose body issues more SQL statements than {@link #value()}.
+ * Only the test method itself is measured, not its {@code @BeforeEach} setup; on a class it applies
+ * to every test method without its own annotation.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface MaxQueries {
+    int value();
+}
@@ -0,0 +1,91 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.config.RequestQueryStats;
+import com.example.fit4ever.dto.LoginRequest;
+import com.example.fit4ever.dto.RegisterRequest;
+import com.example.fit4ever.dto.WorkoutDtos.CreateWorkoutRequest;
+import com.example.fit4ever.exception.InvalidCredentialsException;
+import com.example.fit4ever.service.AuthService;
+import com.example.fit4ever.service.NutritionService;
+import com.example.fit4ever.service.WorkoutService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class MetricsTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private NutritionService nutritionService;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private RequestQueryStats requestQueryStats;
+
+    @Test
+    public void hotPathsAreTimedWithoutUserTags() {
+        RegisterRequest register = new RegisterRequest();
+        register.setName("Metrics User");
+        register.setEmail("metrics@example.com");
+        register.setPassword("password123");
+        long encoded = count("fit4ever.auth.bcrypt", "operation", "encode");
+        authService.register(register);
+        assertEquals(encoded + 1, count("fit4ever.auth.bcrypt", "operation", "encode"));
+
+        LoginRequest wrong = new LoginRequest();
+        wrong.setEmail("metrics@example.com");
+        wrong.setPassword("not-the-password");
+        long verified = count("fit4ever.auth.bcrypt", "operation", "matches");
+        assertThrows(InvalidCredentialsException.class, () -> authService.login(wrong));
+        assertEquals(verified + 1, count("fit4ever.auth.bcrypt", "operation", "matches"));
+
+        long summaries = count("fit4ever.nutrition.summary");
+        nutritionService.summary(null, null, "metrics@example.com");
+        assertEquals(summaries + 1, count("fit4ever.nutrition.summary"));
+
+        meterRegistry.getMeters().forEach(meter -> meter.getId().getTags().forEach(tag ->
+                assertFalse(tag.getValue().contains("metrics@example.com"), meter.getId().toString())));
+    }
+
+    @Test
+    public void queriesAreCountedPerThread() {
+        RegisterRequest register = new RegisterRequest();
+        register.setName("Counted User");
+        register.setEmail("counted@example.com");
+        register.setPassword("password123");
+        authService.register(register);
+        Authentication auth = new UsernamePasswordAuthenticationToken("counted@example.com", null, List.of());
+        workoutService.create(auth, CreateWorkoutRequest.builder().title("Run").date(LocalDate.now()).build());
+
+        requestQueryStats.begin();
+        assertEquals(1, workoutService.list(auth).size());
+        RequestQueryStats.Counts counts = requestQueryStats.end();
+        assertTrue(counts.statements() >= 2, "user lookup and workout query");
+        assertTrue(counts.entityLoads() >= 2, "user and workout");
+        assertNull(requestQueryStats.end());
+    }
+
+    private long count(String name, String... tags) {
+        Timer timer = meterRegistry.find(name).tags(tags).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.CreateFoodLogRequest;
+import com.example.fit4ever.dto.FoodLogPageResponse;
+import com.example.fit4ever.dto.FoodLogResponse;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.model.SyncTombstone;
+import com.example.fit4ever.repository.SyncTombstoneRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.NutritionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class NutritionServiceIntegrationTest {
+
+    @Autowired
+    private NutritionService nutritionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SyncTombstoneRepository tombstoneRepository;
+
+    private String email;
+
+    @BeforeEach
+    void setup() {
+        User user = userRepository.save(User.builder()
+                .name("Diary User")
+                .email("diary@example.com")
+                .password("x")
+                .role("USER")
+                .build());
+        email = user.getEmail();
+    }
+
+    private Long log(String date, String mealType, String item) {
+        CreateFoodLogRequest req = new CreateFoodLogRequest();
+        req.setDate(date);
+        req.setMealType(mealType);
+        req.setItemName(item);
+        req.setCalories(100);
+        req.setProtein(1.0);
+        req.setCarbs(1.0);
+        req.setFat(1.0);
+        return nutritionService.createFoodLog(req, email).getId();
+    }
+
+    @Test
+    void rangeListingIsInDiaryOrderAcrossKeysetPages() {
+        log("2025-09-02", "SNACK", "Almonds");
+        log("2025-09-01", "DINNER", "Salmon");
+        log("2025-09-01", "BREAKFAST", "Oatmeal");
+        log("2025-09-02", "LUNCH", "Burrito");
+        log("2025-09-01", "LUNCH", "Salad");
+        log("2025-09-08", "BREAKFAST", "Outside range");
+
+        List<String> items = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            FoodLogPageResponse page = nutritionService.listRange("2025-09-01", "2025-09-07", 2, cursor, email);
+            page.getItems().forEach(i -> items.add(i.getItemName()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(items).containsExactly("Oatmeal", "Salad", "Salmon", "Burrito", "Almonds");
+        assertThat(pages).isEqualTo(3);
+
+        List<FoodLogResponse> day = nutritionService.listByDate("2025-09-01", email);
+        assertThat(day).extracting(FoodLogResponse::getMealType).containsExactly("BREAKFAST", "LUNCH", "DINNER");
+    }
+
+    @Test
+    void rangeDeleteRemovesOnlyTheCallersLogsInRange() {
+        log("2025-09-01", "BREAKFAST", "Oatmeal");
+        log("2025-09-03", "LUNCH", "Salad");
+        log("2025-09-10", "DINNER", "Pasta");
+
+        assertThat(nutritionService.deleteByDateRange("2025-09-01", "2025-09-07", email)).isEqualTo(2);
+        assertThat(nutritionService.listRange("2025-09-01", "2025-09-30", null, null, email).getItems())
+                .extracting(FoodLogResponse::getItemName).containsExactly("Pasta");
+    }
+
+    @Test
+    void bulkDeleteTombstonesOnlyTheCallersRows() {
+        Long userId = userRepository.findIdByEmail(email).orElseThrow();
+        Long mine = log("2025-09-01", "BREAKFAST", "Oatmeal");
+        Long inRange = log("2025-09-02", "LUNCH", "Salad");
+        Instant before = Instant.now().minusSeconds(1);
+
+        assertThat(nutritionService.deleteByIds(List.of(mine, 999_999L), email)).isEqualTo(1);
+        assertThat(nutritionService.deleteByDateRange("2025-09-02", "2025-09-02", email)).isEqualTo(1);
+
+        assertThat(tombstoneRepository.findByUserIdAndDeletedAtAfter(userId, before))
+                .extracting(SyncTombstone::getEntityId).containsExactlyInAnyOrder(mine, inRange);
+    }
+}
@@ -2,17 +2,29 @@ package com.example.fit4ever;
 
 import com.example.fit4ever.dto.CreateFoodLogRequest;
 import com.example.fit4ever.dto.NutritionSummaryResponse;
+import com.example.fit4ever.exception.ResourceNotFoundException;
 import com.example.fit4ever.model.User;
 import com.example.fit4ever.model.FoodLog;
+import com.example.fit4ever.model.OutboxEvent;
 import com.example.fit4ever.repository.FoodLogRepository;
 import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.CollectionVersions;
+import com.example.fit4ever.service.DomainEventPublisher;
+import com.example.fit4ever.service.FoodDatabase;
+import com.example.fit4ever.service.FoodLogWriteBehindBuffer;
+import com.example.fit4ever.service.FoodQuickAddService;
 import com.example.fit4ever.service.NutritionService;
+import com.example.fit4ever.service.SyncTombstones;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -23,13 +35,24 @@ public class NutritionServiceTest {
 
     private UserRepository userRepository;
     private FoodLogRepository foodLogRepository;
+    private FoodLogWriteBehindBuffer writeBehind;
+    private DomainEventPublisher events;
     private NutritionService nutritionService;
 
     @BeforeEach
     void setup() {
         userRepository = Mockito.mock(UserRepository.class);
         foodLogRepository = Mockito.mock(FoodLogRepository.class);
-        nutritionService = new NutritionService(userRepository, foodLogRepository);
+        writeBehind = Mockito.mock(FoodLogWriteBehindBuffer.class);
+        events = Mockito.mock(DomainEventPublisher.class);
+        when(writeBehind.withPending(anyLong(), any(), any(), any())).thenAnswer(inv -> {
+            Supplier<List<FoodLog>> persisted = inv.getArgument(3);
+            return persisted.get();
+        });
+        nutritionService = new NutritionService(userRepository, foodLogRepository, writeBehind,
+                Mockito.mock(FoodQuickAddService.class), Mockito.mock(FoodDatabase.class),
+                events, Mockito.mock(CollectionVersions.class),
+                Mockito.mock(SyncTombstones.class));
 
         // Default stubs
         when(foodLogRepository.save(any())).thenAnswer(inv -> {
@@ -41,6 +64,22 @@ public class NutritionServiceTest {
         });
         when(foodLogRepository.findByUserIdAndDateBetween(anyLong(), any(), any())).thenReturn(List.of());
         when(foodLogRepository.findByUserIdAndDate(anyLong(), any())).thenReturn(List.of());
+        when(foodLogRepository.findByUserIdAndDateOrderByMealOrderAscIdAsc(anyLong(), any())).thenReturn(List.of());
+        when(foodLogRepository.findDateSpanByUserIdAndIdIn(anyLong(), any())).thenReturn(span(null, null));
+    }
+
+    private static FoodLogRepository.DateSpan span(LocalDate earliest, LocalDate latest) {
+        return new FoodLogRepository.DateSpan() {
+            @Override
+            public LocalDate getEarliest() {
+                return earliest;
+            }
+
+            @Override
+            public LocalDate getLatest() {
+                return latest;
+            }
+        };
     }
 
     @Test
@@ -75,13 +114,44 @@ public class NutritionServiceTest {
 
     @Test
     void deleteNonOwnerThrows() {
-        User owner = User.builder().id(1L).email("owner@example.com").password("x").name("O").role("USER").build();
-        User attacker = User.builder().id(2L).email("attacker@example.com").password("x").name("A").role("USER").build();
-        when(userRepository.findByEmail("attacker@example.com")).thenReturn(Optional.of(attacker));
+        when(userRepository.findIdByEmail("attacker@example.com")).thenReturn(Optional.of(2L));
+
+        // The ownership-checked lookup matches nothing; the id exists, so it belongs to someone else
+        when(foodLogRepository.existsById(42L)).thenReturn(true);
+        assertThrows(SecurityException.class, () -> nutritionService.deleteById(42L, "attacker@example.com"));
 
-        // Simulate repository returning a log owned by someone else by not mocking findById -> will throw IllegalArgumentException
-        assertThrows(IllegalArgumentException.class, () -> nutritionService.deleteById(99L, "attacker@example.com"));
+        // Nothing deleted and no such row at all -> not found
+        assertThrows(ResourceNotFoundException.class, () -> nutritionService.deleteById(99L, "attacker@example.com"));
+        verify(foodLogRepository, never()).findById(any());
+        verify(foodLogRepository, never()).deleteByIdAndUserId(any(), any());
     }
-}
 
+    @Test
+    void deleteOwnLogPublishesItsDayWithoutLoadingIt() {
+        LocalDate day = LocalDate.of(2025, 9, 3);
+        when(userRepository.findIdByEmail("owner@example.com")).thenReturn(Optional.of(1L));
+        when(foodLogRepository.findDateSpanByUserIdAndIdIn(1L, List.of(7L))).thenReturn(span(day, day));
+        when(foodLogRepository.deleteByIdAndUserId(7L, 1L)).thenReturn(1);
+
+        nutritionService.deleteById(7L, "owner@example.com");
+
+        verify(foodLogRepository).deleteByIdAndUserId(7L, 1L);
+        verify(foodLogRepository, never()).existsById(any());
+        verify(foodLogRepository, never()).findById(any());
+        verify(events).publish(OutboxEvent.FOOD_LOG, 1L, day, day);
+    }
 
+    @Test
+    void malformedCursorIsRejectedAsInvalid() {
+        when(userRepository.findIdByEmail("u@example.com")).thenReturn(Optional.of(1L));
+        Base64.Encoder b64 = Base64.getUrlEncoder().withoutPadding();
+
+        for (String raw : List.of("x.1.2", "2025-09-01.x.2", "2025-09-01.1", "2025-13-01.1.2")) {
+            String cursor = b64.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> nutritionService.listRange("2025-09-01", "2025-09-07", 10, cursor, "u@example.com"));
+            assertThat(e.getMessage()).isEqualTo("Invalid cursor");
+        }
+        verify(foodLogRepository, never()).findRangePage(anyLong(), any(), any(), any(), anyInt(), anyLong(), anyInt());
+    }
+}
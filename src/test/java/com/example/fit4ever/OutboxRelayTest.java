@@ -0,0 +1,95 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.repository.OutboxEventRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.OutboxConsumer;
+import com.example.fit4ever.service.OutboxRelay;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database: the relays of other cached test contexts would otherwise deliver these events too
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-relay-test;DB_CLOSE_DELAY=-1",
+        "fit4ever.outbox.relay.max-attempts=2",
+        "fit4ever.outbox.relay.poll-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+public class OutboxRelayTest {
+    static final String POISON_EMAIL = "poison-events@example.com";
+
+    @TestConfiguration
+    static class PoisonConsumer {
+        @Bean
+        OutboxConsumer rejectsPoisonUser(UserRepository users) {
+            return events -> {
+                Long poison = users.findIdByEmail(POISON_EMAIL).orElse(null);
+                if (events.stream().anyMatch(e -> e.getUserId().equals(poison))) {
+                    throw new IllegalStateException("cannot project");
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void failingEventIsParkedWithoutHoldingBackTheOthers() {
+        OutboxEvent poisoned = event(user(POISON_EMAIL));
+        OutboxEvent healthy = event(user("healthy-events@example.com"));
+
+        relay.drain();
+        assertNotNull(reload(healthy).getProcessedAt());
+        assertEquals(1, reload(poisoned).getAttempts());
+        assertNull(reload(poisoned).getParkedAt());
+
+        relay.drain();
+        OutboxEvent parked = reload(poisoned);
+        assertEquals(2, parked.getAttempts());
+        assertNotNull(parked.getParkedAt());
+        assertNull(parked.getProcessedAt());
+
+        // Parked events are skipped until replayed
+        relay.drain();
+        assertEquals(2, reload(poisoned).getAttempts());
+        relay.replayFrom(poisoned.getId());
+        assertNull(reload(poisoned).getParkedAt());
+    }
+
+    private User user(String email) {
+        return userRepository.save(User.builder()
+                .name(email)
+                .email(email)
+                .password("password")
+                .role("USER")
+                .build());
+    }
+
+    private OutboxEvent event(User user) {
+        return outboxEventRepository.save(OutboxEvent.builder()
+                .type(OutboxEvent.BODY_WEIGHT)
+                .userId(user.getId())
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    private OutboxEvent reload(OutboxEvent event) {
+        return outboxEventRepository.findById(event.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.fit4ever;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures a call's median wall time and the bytes it allocates on the calling thread, and checks
+ * both against performance-budgets.properties.
+ */
+final class PerformanceBudgets {
+    private static final int WARMUPS = 5;
+    private static final int RUNS = 9;
+
+    private final Properties budgets = new Properties();
+    private final double tolerance;
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    PerformanceBudgets() {
+        try (InputStream in = PerformanceBudgets.class.getResourceAsStream("/performance-budgets.properties")) {
+            budgets.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        tolerance = Double.parseDouble(System.getProperty("perf.tolerance", budgets.getProperty("tolerance")));
+    }
+
+    /** Runs {@code call} after a warm-up and fails if its time or allocation is over budget. */
+    <T> T assertWithin(String name, Supplier<T> call) {
+        T result = null;
+        for (int i = 0; i < WARMUPS; i++) {
+            result = call.get();
+        }
+        long[] nanos = new long[RUNS];
+        long minBytes = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            result = call.get();
+            nanos[i] = System.nanoTime() - start;
+            // The least a run allocated: JIT and GC bookkeeping only ever add to it
+            minBytes = Math.min(minBytes, threads.getCurrentThreadAllocatedBytes() - bytesBefore);
+        }
+        Arrays.sort(nanos);
+        double medianMs = nanos[RUNS / 2] / 1e6;
+        // Printed on success too, so budgets can be recalibrated from a normal run's output
+        System.out.printf("%s: median %.1f ms, %d bytes allocated%n", name, medianMs, minBytes);
+        check(name + ".ms", medianMs);
+        check(name + ".bytes", minBytes);
+        return result;
+    }
+
+    private void check(String key, double measured) {
+        double budget = Double.parseDouble(budgets.getProperty(key));
+        double limit = budget * (1 + tolerance);
+        assertTrue(measured <= limit, String.format("%s: measured %.1f, budget %.0f (+%.0f%% tolerance)",
+                key, measured, budget, tolerance * 100));
+    }
+}
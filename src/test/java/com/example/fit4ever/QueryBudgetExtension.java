@@ -0,0 +1,41 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.config.RequestQueryStats;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/** Enforces {@link MaxQueries} by counting statements on the test thread with {@link RequestQueryStats}. */
+class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (!stats(context).begin()) {
+            throw new IllegalStateException("Statements are already being counted on this thread");
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        RequestQueryStats.Counts counts = stats(context).end();
+        if (counts == null || context.getExecutionException().isPresent()) return;
+        int max = budget(context);
+        if (counts.statements() > max) {
+            throw new AssertionFailedError("Expected at most " + max + " SQL statements but got " + counts);
+        }
+    }
+
+    private static int budget(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), MaxQueries.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), MaxQueries.class))
+                .map(MaxQueries::value)
+                .orElseThrow();
+    }
+
+    private static RequestQueryStats stats(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(RequestQueryStats.class);
+    }
+}
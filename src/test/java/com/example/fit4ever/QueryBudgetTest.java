@@ -0,0 +1,77 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.WorkoutDtos.CreateWorkoutRequest;
+import com.example.fit4ever.dto.WorkoutDtos.ExerciseInput;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.WorkoutService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Statement budgets per endpoint: a lazy association loaded in a loop pushes these over
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String email;
+    private Long workoutId;
+
+    @BeforeEach
+    public void fiveWorkoutsWithExercises() {
+        email = "budget-" + UUID.randomUUID() + "@example.com";
+        userRepository.save(User.builder().name("Budget User").email(email).password("password").role("USER").build());
+        Authentication auth = new UsernamePasswordAuthenticationToken(email, null, List.of());
+        for (int i = 0; i < 5; i++) {
+            workoutId = workoutService.create(auth, CreateWorkoutRequest.builder()
+                    .title("Workout " + i)
+                    .date(LocalDate.now().minusDays(i))
+                    .exercises(List.of(
+                            ExerciseInput.builder().name("Squat").setsCount(3).repsPerSet(5).weight(100.0).build(),
+                            ExerciseInput.builder().name("Press").setsCount(3).repsPerSet(5).weight(50.0).build()))
+                    .build()).getId();
+        }
+    }
+
+    @Test
+    @MaxQueries(5) // list marker (user id, revision), user, workouts joined with exercises
+    public void workoutListLoadsExercisesInOneQuery() throws Exception {
+        mockMvc.perform(get("/api/workouts").with(user(email)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].exercises.length()").value(2));
+    }
+
+    @Test
+    @MaxQueries(4)
+    public void workoutDetail() throws Exception {
+        mockMvc.perform(get("/api/workouts/" + workoutId).with(user(email)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.exercises.length()").value(2));
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.config.ReplicaRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Routing decisions against the two local pools; the app's own router is wired the same way
+@SpringBootTest
+@ActiveProfiles("test")
+public class ReplicaRouterTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryPool;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaPool;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<ReplicaRouter> routers = new ArrayList<>();
+    private final Counting primary = new Counting();
+    private final Counting replica = new Counting();
+
+    @AfterEach
+    public void cleanUp() {
+        routers.forEach(ReplicaRouter::close);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void applicationDataSourceRoutesLazily() {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+    }
+
+    @Test
+    public void readsGoToTheReplicaOnceItsLagIsKnown() throws Exception {
+        ReplicaRouter router = router("select 0");
+        read(router);
+        assertEquals(0, primary.count.get());
+        assertEquals(1, replica.count.get());
+    }
+
+    @Test
+    public void laggingReplicaFallsBackToThePrimary() throws Exception {
+        ReplicaRouter router = router("select 60");
+        assertEquals(60_000, router.lagMs());
+        read(router);
+        assertEquals(1, primary.count.get());
+        assertEquals(0, replica.count.get());
+    }
+
+    @Test
+    public void userReadsFromThePrimaryRightAfterCommittingAWrite() throws Exception {
+        ReplicaRouter router = router("select 0");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("writer@example.com", null, List.of()));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try (Connection c = router.recordingWrites().getConnection()) {
+                assertTrue(c.isValid(1));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        primary.count.set(0);
+
+        read(router);
+        assertEquals(1, primary.count.get());
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("reader@example.com", null, List.of()));
+        read(router);
+        assertEquals(1, replica.count.get());
+    }
+
+    @Test
+    public void unreachableReplicaFallsBackToThePrimary() throws Exception {
+        ReplicaRouter router = router("select 0");
+        replica.failing = true;
+        read(router);
+        assertEquals(1, primary.count.get());
+        assertEquals(Long.MAX_VALUE, router.lagMs());
+    }
+
+    private ReplicaRouter router(String lagQuery) throws InterruptedException {
+        primary.setTargetDataSource(primaryPool);
+        replica.setTargetDataSource(replicaPool);
+        ReplicaRouter router = new ReplicaRouter(replica, primary, lagQuery, 1_000, 60_000, 60_000);
+        routers.add(router);
+        for (int i = 0; i < 50 && router.lagMs() == Long.MAX_VALUE; i++) {
+            Thread.sleep(20);
+        }
+        assertNotEquals(Long.MAX_VALUE, router.lagMs(), "first lag probe");
+        primary.count.set(0);
+        replica.count.set(0);
+        return router;
+    }
+
+    private static void read(DataSource router) throws SQLException {
+        try (Connection c = router.getConnection()) {
+            assertTrue(c.isValid(1));
+        }
+    }
+
+    private static final class Counting extends DelegatingDataSource {
+        final AtomicInteger count = new AtomicInteger();
+        volatile boolean failing;
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (failing) throw new SQLException("replica down");
+            count.incrementAndGet();
+            return super.getConnection();
+        }
+    }
+}
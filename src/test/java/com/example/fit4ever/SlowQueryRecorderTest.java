@@ -0,0 +1,38 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.config.SlowQueryRecorder;
+import com.example.fit4ever.config.SlowQueryRecorder.SlowQuery;
+import com.example.fit4ever.repository.FoodLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A zero threshold records every statement
+@SpringBootTest(properties = "fit4ever.slow-query.threshold-ms=0")
+@ActiveProfiles("test")
+public class SlowQueryRecorderTest {
+
+    @Autowired
+    private SlowQueryRecorder recorder;
+
+    @Autowired
+    private FoodLogRepository foodLogRepository;
+
+    @Test
+    public void recordsStatementShapeAndExplainsIt() throws InterruptedException {
+        foodLogRepository.findById(-42L);
+
+        SlowQuery select = recorder.recent().stream()
+                .filter(q -> q.getSql().toLowerCase().startsWith("select") && q.getSql().contains("food_logs"))
+                .findFirst().orElseThrow();
+        assertFalse(select.getSql().contains("-42"), "bound values are not recorded");
+        for (int i = 0; i < 50 && select.getPlan() == null; i++) {
+            Thread.sleep(100);
+        }
+        assertNotNull(select.getPlan());
+        assertFalse(select.getPlan().startsWith("EXPLAIN failed"), select.getPlan());
+    }
+}
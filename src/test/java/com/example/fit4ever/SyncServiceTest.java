@@ -0,0 +1,98 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.CreateFoodLogRequest;
+import com.example.fit4ever.dto.GoalDtos.UpdateGoalRequest;
+import com.example.fit4ever.dto.SyncDtos.*;
+import com.example.fit4ever.dto.WorkoutDtos.CreateWorkoutRequest;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.repository.WorkoutRepository;
+import com.example.fit4ever.service.SyncService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: each pushed op commits in its own transaction
+@SpringBootTest
+@ActiveProfiles("test")
+public class SyncServiceTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkoutRepository workoutRepository;
+
+    @Test
+    public void pushIsIdempotentAndPullReturnsChangesAndTombstones() {
+        User user = userRepository.save(User.builder()
+                .name("Sync User")
+                .email("sync@example.com")
+                .password("password")
+                .role("USER")
+                .build());
+        Authentication auth = new UsernamePasswordAuthenticationToken(user.getEmail(), null, List.of());
+
+        SyncResponse initial = syncService.pull(null, user.getEmail());
+        assertTrue(initial.isFull());
+        assertTrue(initial.getWorkouts().isEmpty());
+
+        CreateFoodLogRequest salad = new CreateFoodLogRequest();
+        salad.setDate(LocalDate.now().toString());
+        salad.setMealType("LUNCH");
+        salad.setItemName("Salad");
+        salad.setCalories(300);
+        salad.setProtein(10.0);
+        salad.setCarbs(20.0);
+        salad.setFat(5.0);
+        SyncPushRequest batch = new SyncPushRequest(List.of(
+                SyncOp.builder().opId("w-1").entity("workout").action("upsert")
+                        .workout(CreateWorkoutRequest.builder().title("Run").date(LocalDate.now()).build()).build(),
+                SyncOp.builder().opId("f-1").entity("foodLog").action("upsert").foodLog(salad).build(),
+                SyncOp.builder().opId("g-1").entity("goal").action("upsert")
+                        .goal(UpdateGoalRequest.builder().type("CALORIES").targetValue(2000.0)
+                                .startDate("2025-01-01").endDate("2025-01-31").build()).build()));
+
+        List<SyncOpResult> first = syncService.push(batch, auth).getResults();
+        assertEquals(List.of("applied", "applied", "applied"), first.stream().map(SyncOpResult::getStatus).toList());
+        // A retried batch (e.g. after a lost response) is answered from the op records
+        List<SyncOpResult> retried = syncService.push(batch, auth).getResults();
+        assertEquals(List.of("duplicate", "duplicate", "duplicate"), retried.stream().map(SyncOpResult::getStatus).toList());
+        assertEquals(first.get(0).getId(), retried.get(0).getId());
+        assertEquals(1, workoutRepository.findAllByUserIdOrderByIdAsc(user.getId()).size());
+
+        SyncResponse delta = syncService.pull(initial.getToken(), user.getEmail());
+        assertFalse(delta.isFull());
+        assertEquals(1, delta.getWorkouts().size());
+        assertEquals(1, delta.getFoodLogs().size());
+        assertEquals(1, delta.getGoals().size());
+
+        Long workoutId = first.get(0).getId();
+        Long goalId = first.get(2).getId();
+        List<SyncOpResult> second = syncService.push(new SyncPushRequest(List.of(
+                SyncOp.builder().opId("w-2").entity("workout").action("delete").id(workoutId).build(),
+                SyncOp.builder().opId("g-2").entity("goal").action("upsert").id(goalId).baseVersion(7L)
+                        .goal(UpdateGoalRequest.builder().targetValue(1800.0).build()).build(),
+                SyncOp.builder().opId("g-3").entity("goal").action("delete").id(goalId).build())), auth).getResults();
+        assertEquals(List.of("applied", "conflict", "rejected"), second.stream().map(SyncOpResult::getStatus).toList());
+
+        SyncResponse afterDelete = syncService.pull(delta.getToken(), user.getEmail());
+        assertEquals(List.of(workoutId), afterDelete.getDeleted().getWorkouts());
+        assertTrue(afterDelete.getWorkouts().isEmpty());
+
+        // A token past the tombstone retention can only be answered in full
+        assertTrue(syncService.pull("MA", user.getEmail()).isFull());
+        assertThrows(IllegalArgumentException.class, () -> syncService.pull("not a token!", user.getEmail()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.fit4ever;
+
+import com.example.fit4ever.dto.TrendDtos.MetricTrend;
+import com.example.fit4ever.dto.TrendDtos.TrendsResponse;
+import com.example.fit4ever.dto.WorkoutDtos.CreateWorkoutRequest;
+import com.example.fit4ever.dto.WorkoutDtos.ExerciseInput;
+import com.example.fit4ever.model.FoodLog;
+import com.example.fit4ever.model.OutboxEvent;
+import com.example.fit4ever.model.User;
+import com.example.fit4ever.repository.FoodLogRepository;
+import com.example.fit4ever.repository.UserRepository;
+import com.example.fit4ever.service.TrendService;
+import com.example.fit4ever.service.WorkoutService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class TrendServiceTest {
+
+    @Autowired
+    private TrendService trendService;
+
+    @Autowired
+    private WorkoutService workoutService;
+
+    @Autowired
+    private FoodLogRepository foodLogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void rollingAveragesAndWeekOverWeekThroughYesterday() {
+        User user = userRepository.save(User.builder()
+                .name("Trend User")
+                .email("trend@example.com")
+                .password("password")
+                .role("USER")
+                .build());
+        LocalDate today = LocalDate.now();
+        log(user, today.minusDays(1), 2000);
+        log(user, today.minusDays(2), 1000);
+        log(user, today.minusDays(9), 1200);
+        log(user, today, 5000); // today is still open and not part of any trend
+        workoutService.create(new UsernamePasswordAuthenticationToken(user.getEmail(), null, List.of()),
+                CreateWorkoutRequest.builder().title("Squats").date(today.minusDays(1))
+                        .exercises(List.of(ExerciseInput.builder().name("Squat").setsCount(3).repsPerSet(10).weight(50.0).build()))
+                        .build());
+
+        TrendsResponse trends = trendService.trends(List.of("calories", "volume"), List.of(7, 30), user.getEmail());
+        assertEquals(today.minusDays(1).toString(), trends.getThrough());
+        MetricTrend calories = trends.getMetrics().get(0);
+        assertEquals(2000.0, calories.getLatest(), 1e-9);
+        assertEquals(1500.0, calories.getAverage().get(7), 1e-9);          // unlogged days are skipped
+        assertEquals(1400.0, calories.getAverage().get(30), 1e-9);
+        assertEquals(300.0, calories.getWeekOverWeek(), 1e-9);
+        assertEquals(25.0, calories.getWeekOverWeekPct(), 1e-9);
+        MetricTrend volume = trends.getMetrics().get(1);
+        assertEquals(1500.0 / 7, volume.getAverage().get(7), 1e-9);        // rest days count as zero
+
+        // A change to a day already folded in is picked up once its event is delivered
+        log(user, today.minusDays(3), 3000);
+        assertEquals(1500.0, calories(user).getAverage().get(7), 1e-9);
+        trendService.apply(List.of(OutboxEvent.builder().type(OutboxEvent.FOOD_LOG).userId(user.getId())
+                .fromDate(today.minusDays(3)).toDate(today.minusDays(3)).build()));
+        assertEquals(2000.0, calories(user).getAverage().get(7), 1e-9);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> trendService.trends(List.of("steps"), null, user.getEmail()));
+        assertThrows(IllegalArgumentException.class,
+                () -> trendService.trends(null, List.of(5), user.getEmail()));
+    }
+
+    private MetricTrend calories(User user) {
+        return trendService.trends(List.of("calories"), List.of(7), user.getEmail()).getMetrics().get(0);
+    }
+
+    private void log(User user, LocalDate date, int calories) {
+        foodLogRepository.save(FoodLog.builder().user(user).date(date).mealType("LUNCH")
+                .itemName("Meal").calories(calories).protein(0.0).carbs(0.0).fat(0.0).build());
+    }
+}